@@ -0,0 +1,78 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+final class BenchmarkDevices {
+
+    static final WaterPumpException WATER_PUMP_EXCEPTION = new WaterPumpException();
+    static final EngineException ENGINE_EXCEPTION = new EngineException();
+
+    private BenchmarkDevices() {}
+
+    static DirtDetector dirtDetector(double degree) {
+        Percentage percentage = Percentage.of(degree);
+        return new DirtDetector() {
+
+            @Override
+            public Percentage detectDirtDegree(LaundryBatch laundryBatch) {
+                return percentage;
+            }
+
+            @Override
+            public double detectDirtDegreeValue(LaundryBatch laundryBatch) {
+                return degree;
+            }
+        };
+    }
+
+    static Engine engine() {
+        return new Engine() {
+
+            @Override
+            public void runWashing(int timeInMinutes) {}
+
+            @Override
+            public void spin() {}
+        };
+    }
+
+    static Engine failingEngine() {
+        return new Engine() {
+
+            @Override
+            public void runWashing(int timeInMinutes) throws EngineException {
+                throw ENGINE_EXCEPTION;
+            }
+
+            @Override
+            public void spin() throws EngineException {
+                throw ENGINE_EXCEPTION;
+            }
+        };
+    }
+
+    static WaterPump waterPump() {
+        return new WaterPump() {
+
+            @Override
+            public void pour(double weigth) {}
+
+            @Override
+            public void release() {}
+        };
+    }
+
+    static WaterPump failingWaterPump() {
+        return new WaterPump() {
+
+            @Override
+            public void pour(double weigth) throws WaterPumpException {
+                throw WATER_PUMP_EXCEPTION;
+            }
+
+            @Override
+            public void release() throws WaterPumpException {
+                throw WATER_PUMP_EXCEPTION;
+            }
+        };
+    }
+
+}
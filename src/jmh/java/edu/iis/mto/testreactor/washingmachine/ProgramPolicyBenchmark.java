@@ -0,0 +1,89 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(3)
+public class ProgramPolicyBenchmark {
+
+    private static final int SIZE = 1024;
+    private static final double HALF_MAX_WEIGTH = WashingMachine.MAX_WEIGTH_KG / 2;
+
+    private final ProgramPolicy programPolicy = ProgramPolicy.defaults();
+    private LaundryBatch[] batches;
+    private double[] degrees;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        Material[] materials = Material.values();
+        batches = new LaundryBatch[SIZE];
+        degrees = new double[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            batches[i] = LaundryBatch.builder()
+                                     .withMaterialType(materials[random.nextInt(materials.length)])
+                                     .withWeightKg(random.nextDouble() * 10)
+                                     .build();
+            degrees[i] = random.nextDouble() * 100;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void legacyBranches(Blackhole blackhole) {
+        for (int i = 0; i < SIZE; i++) {
+            LaundryBatch laundryBatch = batches[i];
+            if (legacyOverweight(laundryBatch)) {
+                blackhole.consume(false);
+            } else {
+                blackhole.consume(legacyProgram(new Percentage(degrees[i])));
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void compiledPolicy(Blackhole blackhole) {
+        for (int i = 0; i < SIZE; i++) {
+            LaundryBatch laundryBatch = batches[i];
+            if (programPolicy.overweight(laundryBatch.getMaterialType(), laundryBatch.getWeightKg())) {
+                blackhole.consume(false);
+            } else {
+                blackhole.consume(programPolicy.programFor(laundryBatch.getMaterialType(), degrees[i]));
+            }
+        }
+    }
+
+    private static boolean legacyOverweight(LaundryBatch laundryBatch) {
+        if (laundryBatch.getMaterialType() == Material.WOOL || laundryBatch.getMaterialType() == Material.JEANS) {
+            return laundryBatch.getWeightKg() >= HALF_MAX_WEIGTH;
+        }
+        return laundryBatch.getWeightKg() > WashingMachine.MAX_WEIGTH_KG;
+    }
+
+    private static Program legacyProgram(Percentage dirtDegreePercentage) {
+        if (dirtDegreePercentage.isGreaterThan(WashingMachine.AVERAGE_DEGREE)) {
+            return Program.LONG;
+        }
+        return Program.MEDIUM;
+    }
+
+}
@@ -0,0 +1,58 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(3)
+public class ValueObjectBenchmark {
+
+    private double weightKg = 3d;
+    private Material material = Material.COTTON;
+    private Program program = Program.MEDIUM;
+    private ErrorCode errorCode = ErrorCode.NO_ERROR;
+
+    @Benchmark
+    public LaundryBatch laundryBatch() {
+        return LaundryBatch.builder()
+                           .withMaterialType(material)
+                           .withWeightKg(weightKg)
+                           .build();
+    }
+
+    @Benchmark
+    public ProgramConfiguration programConfiguration() {
+        return ProgramConfiguration.builder()
+                                   .withProgram(program)
+                                   .withSpin(true)
+                                   .build();
+    }
+
+    @Benchmark
+    public LaundryStatus laundryStatus() {
+        return LaundryStatus.builder()
+                            .withResult(Result.SUCCESS)
+                            .withRunnedProgram(program)
+                            .withErrorCode(errorCode)
+                            .build();
+    }
+
+    @Benchmark
+    public LaundryStatus canonicalLaundryStatus() {
+        return LaundryStatus.of(Result.SUCCESS, program, errorCode);
+    }
+
+}
@@ -0,0 +1,78 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(3)
+public class WashingMachineBenchmark {
+
+    @Param({"AUTODETECT", "SHORT", "MEDIUM", "LONG"})
+    private Program program;
+
+    @Param({"WOOL", "COTTON", "SYNTETIC", "DELICATE", "JEANS"})
+    private Material material;
+
+    private WashingMachine washingMachine;
+    private WashingMachine pumpFailingMachine;
+    private WashingMachine engineFailingMachine;
+    private LaundryBatch laundryBatch;
+    private LaundryBatch tooHeavyBatch;
+    private ProgramConfiguration programConfiguration;
+
+    @Setup
+    public void setUp() {
+        DirtDetector dirtDetector = BenchmarkDevices.dirtDetector(70d);
+        washingMachine = new WashingMachine(dirtDetector, BenchmarkDevices.engine(), BenchmarkDevices.waterPump());
+        pumpFailingMachine = new WashingMachine(dirtDetector, BenchmarkDevices.engine(), BenchmarkDevices.failingWaterPump());
+        engineFailingMachine = new WashingMachine(dirtDetector, BenchmarkDevices.failingEngine(), BenchmarkDevices.waterPump());
+        laundryBatch = LaundryBatch.builder()
+                                   .withMaterialType(material)
+                                   .withWeightKg(3d)
+                                   .build();
+        tooHeavyBatch = LaundryBatch.builder()
+                                    .withMaterialType(material)
+                                    .withWeightKg(WashingMachine.MAX_WEIGTH_KG + 1)
+                                    .build();
+        programConfiguration = ProgramConfiguration.builder()
+                                                   .withProgram(program)
+                                                   .withSpin(true)
+                                                   .build();
+    }
+
+    @Benchmark
+    public LaundryStatus start() {
+        return washingMachine.start(laundryBatch, programConfiguration);
+    }
+
+    @Benchmark
+    public LaundryStatus tooHeavy() {
+        return washingMachine.start(tooHeavyBatch, programConfiguration);
+    }
+
+    @Benchmark
+    public LaundryStatus waterPumpFailure() {
+        return pumpFailingMachine.start(laundryBatch, programConfiguration);
+    }
+
+    @Benchmark
+    public LaundryStatus engineFailure() {
+        return engineFailingMachine.start(laundryBatch, programConfiguration);
+    }
+
+}
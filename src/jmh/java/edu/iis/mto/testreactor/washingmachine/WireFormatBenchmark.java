@@ -0,0 +1,150 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(3)
+public class WireFormatBenchmark {
+
+    private static final int CYCLES = 64;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final WireFrameWriter writer = new WireFrameWriter();
+    private final WireFrameReader reader = new WireFrameReader();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(WireFormat.HEADER_SIZE + CYCLES
+                                                                * (WireFormat.LAUNDRY_BATCH_SIZE
+                                                                   + WireFormat.PROGRAM_CONFIGURATION_SIZE
+                                                                   + WireFormat.LAUNDRY_STATUS_SIZE));
+    private LaundryBatch[] batches;
+    private ProgramConfiguration[] configurations;
+    private LaundryStatus[] statuses;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        Material[] materials = Material.values();
+        Program[] programs = Program.values();
+        ErrorCode[] errorCodes = ErrorCode.values();
+        batches = new LaundryBatch[CYCLES];
+        configurations = new ProgramConfiguration[CYCLES];
+        statuses = new LaundryStatus[CYCLES];
+        for (int i = 0; i < CYCLES; i++) {
+            batches[i] = LaundryBatch.builder()
+                                     .withMaterialType(materials[random.nextInt(materials.length)])
+                                     .withWeightKg(random.nextDouble() * 10)
+                                     .build();
+            configurations[i] = ProgramConfiguration.builder()
+                                                    .withProgram(programs[random.nextInt(programs.length)])
+                                                    .withSpin(random.nextBoolean())
+                                                    .build();
+            statuses[i] = LaundryStatus.of(Result.FAILURE, programs[random.nextInt(programs.length)],
+                    errorCodes[random.nextInt(errorCodes.length)]);
+        }
+        writeFrame();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CYCLES)
+    public void binaryRoundTrip(Blackhole blackhole) {
+        blackhole.consume(writeFrame());
+        reader.wrap(buffer, 0);
+        while (reader.next()) {
+            switch (reader.type()) {
+                case WireFormat.TYPE_LAUNDRY_BATCH:
+                    blackhole.consume(reader.toLaundryBatch());
+                    break;
+                case WireFormat.TYPE_PROGRAM_CONFIGURATION:
+                    blackhole.consume(reader.toProgramConfiguration());
+                    break;
+                default:
+                    blackhole.consume(reader.toLaundryStatus());
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CYCLES)
+    public void binaryScanWithoutMaterialising(Blackhole blackhole) {
+        reader.wrap(buffer, 0);
+        while (reader.next()) {
+            if (reader.type() == WireFormat.TYPE_LAUNDRY_BATCH) {
+                blackhole.consume(reader.weightKg());
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CYCLES)
+    public void jsonRoundTrip(Blackhole blackhole) throws IOException {
+        JsonCycle[] cycles = new JsonCycle[CYCLES];
+        for (int i = 0; i < CYCLES; i++) {
+            cycles[i] = new JsonCycle(batches[i], configurations[i], statuses[i]);
+        }
+        byte[] json = objectMapper.writeValueAsBytes(cycles);
+        blackhole.consume(json.length);
+        for (JsonCycle cycle : objectMapper.readValue(json, JsonCycle[].class)) {
+            blackhole.consume(LaundryBatch.builder()
+                                          .withMaterialType(cycle.materialType)
+                                          .withWeightKg(cycle.weightKg)
+                                          .build());
+            blackhole.consume(ProgramConfiguration.of(cycle.program, cycle.spin));
+            blackhole.consume(LaundryStatus.of(cycle.result, cycle.runnedProgram, cycle.errorCode));
+        }
+    }
+
+    private int writeFrame() {
+        writer.wrap(buffer, 0);
+        for (int i = 0; i < CYCLES; i++) {
+            writer.write(batches[i])
+                  .write(configurations[i])
+                  .write(statuses[i]);
+        }
+        return writer.finish();
+    }
+
+    public static class JsonCycle {
+
+        public double weightKg;
+        public Material materialType;
+        public Program program;
+        public boolean spin;
+        public Result result;
+        public Program runnedProgram;
+        public ErrorCode errorCode;
+
+        public JsonCycle() {}
+
+        JsonCycle(LaundryBatch laundryBatch, ProgramConfiguration programConfiguration, LaundryStatus status) {
+            this.weightKg = laundryBatch.getWeightKg();
+            this.materialType = laundryBatch.getMaterialType();
+            this.program = programConfiguration.getProgram();
+            this.spin = programConfiguration.isSpin();
+            this.result = status.getResult();
+            this.runnedProgram = status.getRunnedProgram();
+            this.errorCode = status.getErrorCode();
+        }
+    }
+
+}
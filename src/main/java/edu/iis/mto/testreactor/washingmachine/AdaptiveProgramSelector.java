@@ -0,0 +1,187 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Learns the SHORT/MEDIUM and MEDIUM/LONG dirt cut-offs of every material from cycle feedback. Each cut-off is a
+ * stochastic-approximation quantile estimate: a clean load washed by the lighter program near the cut-off raises it
+ * by {@code learningRate * targetMissRate}, a load the lighter program left dirty lowers it by
+ * {@code learningRate * (1 - targetMissRate)}, so it settles where the lighter program misses {@code targetMissRate}
+ * of the loads near the boundary. A small share of loads just above a cut-off is sent to the lighter program to keep
+ * learning whether the cut-off could move up. State is two doubles per material, updated lock-free.
+ */
+public class AdaptiveProgramSelector implements ProgramSelector {
+
+    private static final Material[] MATERIALS = Material.values();
+
+    private final AtomicLongArray shortBelow = new AtomicLongArray(MATERIALS.length);
+    private final AtomicLongArray longAbove = new AtomicLongArray(MATERIALS.length);
+    private final double learningRate;
+    private final double targetMissRate;
+    private final double explorationRate;
+    private final double band;
+    private final DoubleSupplier random;
+    private final LongAdder feedback = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private AdaptiveProgramSelector(Builder builder) {
+        requireNonNull(builder.initialPolicy, "initialPolicy == null");
+        this.random = requireNonNull(builder.random, "random == null");
+        if (!(builder.learningRate > 0.0d)) {
+            throw new IllegalArgumentException("learningRate must be positive");
+        }
+        if (!(builder.targetMissRate > 0.0d && builder.targetMissRate < 1.0d)) {
+            throw new IllegalArgumentException("targetMissRate must be in range (0,1)");
+        }
+        if (!(builder.explorationRate >= 0.0d && builder.explorationRate <= 1.0d)) {
+            throw new IllegalArgumentException("explorationRate must be in range <0,1>");
+        }
+        if (!(builder.band > 0.0d)) {
+            throw new IllegalArgumentException("band must be positive");
+        }
+        this.learningRate = builder.learningRate;
+        this.targetMissRate = builder.targetMissRate;
+        this.explorationRate = builder.explorationRate;
+        this.band = builder.band;
+        for (Material material : MATERIALS) {
+            shortBelow.set(material.ordinal(), Double.doubleToRawLongBits(builder.initialPolicy.getShortBelow(material)));
+            longAbove.set(material.ordinal(), Double.doubleToRawLongBits(builder.initialPolicy.getLongAbove(material)));
+        }
+    }
+
+    @Override
+    public Program select(Material materialType, double dirtDegree) {
+        int i = materialType.ordinal();
+        double longCutOff = Double.longBitsToDouble(longAbove.get(i));
+        if (dirtDegree > longCutOff) {
+            return dirtDegree <= longCutOff + band && explore() ? Program.MEDIUM : Program.LONG;
+        }
+        double shortCutOff = Double.longBitsToDouble(shortBelow.get(i));
+        if (dirtDegree < shortCutOff) {
+            return Program.SHORT;
+        }
+        return dirtDegree < shortCutOff + band && explore() ? Program.SHORT : Program.MEDIUM;
+    }
+
+    /**
+     * Reports whether the program {@link #select selected} for a load got it clean.
+     */
+    public void feedback(Material materialType, double dirtDegree, Program program, boolean clean) {
+        requireNonNull(materialType, "materialType == null");
+        requireNonNull(program, "program == null");
+        feedback.increment();
+        if (!clean) {
+            misses.increment();
+        }
+        int i = materialType.ordinal();
+        if (program == Program.SHORT) {
+            adjust(shortBelow, i, dirtDegree, clean, 0.0d, Double.longBitsToDouble(longAbove.get(i)));
+        } else if (program == Program.MEDIUM) {
+            adjust(longAbove, i, dirtDegree, clean, Double.longBitsToDouble(shortBelow.get(i)), 100.0d);
+        }
+    }
+
+    public double getShortBelow(Material materialType) {
+        return Double.longBitsToDouble(shortBelow.get(materialType.ordinal()));
+    }
+
+    public double getLongAbove(Material materialType) {
+        return Double.longBitsToDouble(longAbove.get(materialType.ordinal()));
+    }
+
+    public long getFeedbackCount() {
+        return feedback.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns {@code base} with its dirt thresholds replaced by the learned ones, e.g. to persist them.
+     */
+    public ProgramPolicy toProgramPolicy(ProgramPolicy base) {
+        ProgramPolicy.Builder builder = base.toBuilder();
+        for (Material material : MATERIALS) {
+            double longCutOff = getLongAbove(material);
+            builder.withLongAbove(material, longCutOff)
+                   .withShortBelow(material, Math.min(getShortBelow(material), longCutOff));
+        }
+        return builder.build();
+    }
+
+    private boolean explore() {
+        return explorationRate > 0.0d && random.getAsDouble() < explorationRate;
+    }
+
+    private void adjust(AtomicLongArray cutOffs, int i, double dirtDegree, boolean clean, double lowest, double highest) {
+        long bits;
+        double updated;
+        do {
+            bits = cutOffs.get(i);
+            double cutOff = Double.longBitsToDouble(bits);
+            if (dirtDegree < cutOff - band || dirtDegree > cutOff + band) {
+                return;
+            }
+            double step = clean ? learningRate * targetMissRate : -learningRate * (1.0d - targetMissRate);
+            updated = Math.max(lowest, Math.min(highest, cutOff + step));
+        } while (!cutOffs.compareAndSet(i, bits, Double.doubleToRawLongBits(updated)));
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private ProgramPolicy initialPolicy = ProgramPolicy.defaults();
+        private double learningRate = 0.5d;
+        private double targetMissRate = 0.05d;
+        private double explorationRate = 0.05d;
+        private double band = 10.0d;
+        private DoubleSupplier random = () -> ThreadLocalRandom.current()
+                                                              .nextDouble();
+
+        private Builder() {}
+
+        public Builder withInitialPolicy(ProgramPolicy initialPolicy) {
+            this.initialPolicy = initialPolicy;
+            return this;
+        }
+
+        public Builder withLearningRate(double learningRate) {
+            this.learningRate = learningRate;
+            return this;
+        }
+
+        public Builder withTargetMissRate(double targetMissRate) {
+            this.targetMissRate = targetMissRate;
+            return this;
+        }
+
+        public Builder withExplorationRate(double explorationRate) {
+            this.explorationRate = explorationRate;
+            return this;
+        }
+
+        public Builder withBand(double band) {
+            this.band = band;
+            return this;
+        }
+
+        public Builder withRandom(DoubleSupplier random) {
+            this.random = random;
+            return this;
+        }
+
+        public AdaptiveProgramSelector build() {
+            return new AdaptiveProgramSelector(this);
+        }
+    }
+
+}
@@ -0,0 +1,19 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+public interface AsyncDirtDetector {
+
+    CompletionStage<Percentage> detectDirtDegree(LaundryBatch laundryBatch);
+
+    static AsyncDirtDetector from(DirtDetector dirtDetector, Executor executor) {
+        requireNonNull(dirtDetector, "dirtDetector == null");
+        requireNonNull(executor, "executor == null");
+        return laundryBatch -> CompletableFuture.supplyAsync(() -> dirtDetector.detectDirtDegree(laundryBatch), executor);
+    }
+
+}
@@ -0,0 +1,45 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+public interface AsyncEngine {
+
+    CompletionStage<Void> runWashing(int timeInMinutes);
+
+    CompletionStage<Void> spin();
+
+    static AsyncEngine from(Engine engine, Executor executor) {
+        requireNonNull(engine, "engine == null");
+        requireNonNull(executor, "executor == null");
+        return new AsyncEngine() {
+
+            @Override
+            public CompletionStage<Void> runWashing(int timeInMinutes) {
+                return CompletableFuture.runAsync(() -> {
+                    try {
+                        engine.runWashing(timeInMinutes);
+                    } catch (EngineException e) {
+                        throw new CompletionException(e);
+                    }
+                }, executor);
+            }
+
+            @Override
+            public CompletionStage<Void> spin() {
+                return CompletableFuture.runAsync(() -> {
+                    try {
+                        engine.spin();
+                    } catch (EngineException e) {
+                        throw new CompletionException(e);
+                    }
+                }, executor);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,156 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+public class AsyncWashingMachine {
+
+    private final AsyncDirtDetector dirtDetector;
+    private final AsyncEngine engine;
+    private final AsyncWaterPump waterPump;
+    private final ProgramPolicy programPolicy;
+    private final ProgramSelector programSelector;
+
+    public AsyncWashingMachine(AsyncDirtDetector dirtDetector, AsyncEngine engine, AsyncWaterPump waterPump) {
+        this(dirtDetector, engine, waterPump, ProgramPolicy.defaults());
+    }
+
+    public AsyncWashingMachine(AsyncDirtDetector dirtDetector, AsyncEngine engine, AsyncWaterPump waterPump,
+            ProgramPolicy programPolicy) {
+        this(builder().withDirtDetector(dirtDetector)
+                      .withEngine(engine)
+                      .withWaterPump(waterPump)
+                      .withProgramPolicy(programPolicy));
+    }
+
+    private AsyncWashingMachine(Builder builder) {
+        this.dirtDetector = requireNonNull(builder.dirtDetector, "dirtDetector == null");
+        this.engine = requireNonNull(builder.engine, "engine == null");
+        this.waterPump = requireNonNull(builder.waterPump, "waterPump == null");
+        this.programPolicy = requireNonNull(builder.programPolicy, "programPolicy == null");
+        this.programSelector = builder.programSelector != null ? builder.programSelector : programPolicy;
+    }
+
+    public CompletionStage<LaundryStatus> start(LaundryBatch laundryBatch, ProgramConfiguration programConfiguration) {
+        if (programPolicy.overweight(laundryBatch.getMaterialType(), laundryBatch.getWeightKg())) {
+            return CompletableFuture.completedFuture(WashingMachine.error(ErrorCode.TOO_HEAVY, null));
+        }
+        return invoke(() -> specifyProgram(laundryBatch, programConfiguration))
+                .thenCompose(programToRun -> invoke(() -> runProgram(laundryBatch, programToRun))
+                        .thenCompose(ignored -> invoke(() -> spin(programConfiguration)))
+                        .thenApply(ignored -> WashingMachine.programFinished(programToRun))
+                        .exceptionally(e -> WashingMachine.error(errorCodeOf(e), programToRun)))
+                .exceptionally(e -> WashingMachine.error(errorCodeOf(e), null));
+    }
+
+    private CompletionStage<Program> specifyProgram(LaundryBatch laundryBatch, ProgramConfiguration programConfiguration) {
+        Program program = programConfiguration.getProgram();
+        if (program == Program.AUTODETECT) {
+            return dirtDetector.detectDirtDegree(laundryBatch)
+                               .thenApply(degree -> programSelector.select(laundryBatch.getMaterialType(),
+                                       Percentage.requireInRange(degree.getValue())));
+        }
+        return CompletableFuture.completedFuture(program);
+    }
+
+    private CompletionStage<Void> runProgram(LaundryBatch laundryBatch, Program programToRun) {
+        return invoke(() -> waterPump.pour(laundryBatch.getWeightKg()))
+                .thenCompose(ignored -> invoke(() -> engine.runWashing(programToRun.getTimeInMinutes()))
+                        .handle((washed, failure) -> failure == null ? invoke(waterPump::release)
+                                : drainAfterFailure(failure))
+                        .thenCompose(Function.identity()));
+    }
+
+    private CompletionStage<Void> drainAfterFailure(Throwable failure) {
+        return invoke(waterPump::release).handle((released, releaseFailure) -> {
+            if (releaseFailure != null) {
+                failure.addSuppressed(releaseFailure);
+            }
+            throw failure instanceof CompletionException ? (CompletionException) failure
+                    : new CompletionException(failure);
+        });
+    }
+
+    private CompletionStage<Void> spin(ProgramConfiguration programConfiguration) {
+        if (programConfiguration.isSpin()) {
+            return engine.spin();
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private static <T> CompletionStage<T> invoke(Supplier<? extends CompletionStage<T>> stage) {
+        try {
+            return requireNonNull(stage.get(), "stage == null");
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    static ErrorCode errorCodeOf(Throwable failure) {
+        Throwable cause = failure;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof WaterPumpException) {
+            return ErrorCode.WATER_PUMP_FAILURE;
+        }
+        if (cause instanceof EngineException) {
+            return ErrorCode.ENGINE_FAILURE;
+        }
+        if (cause instanceof StageTimeoutException) {
+            return ErrorCode.TIMEOUT;
+        }
+        return ErrorCode.UNKNOWN_ERROR;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private AsyncDirtDetector dirtDetector;
+        private AsyncEngine engine;
+        private AsyncWaterPump waterPump;
+        private ProgramPolicy programPolicy = ProgramPolicy.defaults();
+        private ProgramSelector programSelector;
+
+        private Builder() {}
+
+        public Builder withDirtDetector(AsyncDirtDetector dirtDetector) {
+            this.dirtDetector = dirtDetector;
+            return this;
+        }
+
+        public Builder withEngine(AsyncEngine engine) {
+            this.engine = engine;
+            return this;
+        }
+
+        public Builder withWaterPump(AsyncWaterPump waterPump) {
+            this.waterPump = waterPump;
+            return this;
+        }
+
+        public Builder withProgramPolicy(ProgramPolicy programPolicy) {
+            this.programPolicy = programPolicy;
+            return this;
+        }
+
+        public Builder withProgramSelector(ProgramSelector programSelector) {
+            this.programSelector = programSelector;
+            return this;
+        }
+
+        public AsyncWashingMachine build() {
+            return new AsyncWashingMachine(this);
+        }
+    }
+
+}
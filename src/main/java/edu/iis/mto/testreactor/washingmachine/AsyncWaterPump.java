@@ -0,0 +1,45 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+public interface AsyncWaterPump {
+
+    CompletionStage<Void> pour(double weigth);
+
+    CompletionStage<Void> release();
+
+    static AsyncWaterPump from(WaterPump waterPump, Executor executor) {
+        requireNonNull(waterPump, "waterPump == null");
+        requireNonNull(executor, "executor == null");
+        return new AsyncWaterPump() {
+
+            @Override
+            public CompletionStage<Void> pour(double weigth) {
+                return CompletableFuture.runAsync(() -> {
+                    try {
+                        waterPump.pour(weigth);
+                    } catch (WaterPumpException e) {
+                        throw new CompletionException(e);
+                    }
+                }, executor);
+            }
+
+            @Override
+            public CompletionStage<Void> release() {
+                return CompletableFuture.runAsync(() -> {
+                    try {
+                        waterPump.release();
+                    } catch (WaterPumpException e) {
+                        throw new CompletionException(e);
+                    }
+                }, executor);
+            }
+        };
+    }
+
+}
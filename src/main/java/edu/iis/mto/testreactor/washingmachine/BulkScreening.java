@@ -0,0 +1,220 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class BulkScreening {
+
+    /**
+     * Resolved program of a batch that would not run: too heavy, or autodetected from a dirt degree outside
+     * {@code <0,100>}.
+     */
+    public static final byte NO_PROGRAM = -1;
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 16;
+
+    private static final Material[] MATERIALS = Material.values();
+    private static final Program[] PROGRAMS = Program.values();
+    private static final byte AUTODETECT = (byte) Program.AUTODETECT.ordinal();
+
+    private final ProgramPolicy programPolicy;
+    private final ProgramSelector programSelector;
+    private final int parallelThreshold;
+    private final ForkJoinPool pool;
+
+    private BulkScreening(Builder builder) {
+        this.programPolicy = requireNonNull(builder.programPolicy, "programPolicy == null");
+        this.programSelector = builder.programSelector != null ? builder.programSelector : programPolicy;
+        this.pool = requireNonNull(builder.pool, "pool == null");
+        if (builder.parallelThreshold <= 0) {
+            throw new IllegalArgumentException("parallelThreshold must be positive");
+        }
+        this.parallelThreshold = builder.parallelThreshold;
+    }
+
+    public Outcome screen(double[] weightsKg, byte[] materials, double[] dirtDegrees, byte[] programs) {
+        int size = requireNonNull(weightsKg, "weightsKg == null").length;
+        Outcome result = new Outcome(new boolean[size], new byte[size]);
+        screenInto(weightsKg, materials, dirtDegrees, programs, result.tooHeavy, result.programs);
+        return result;
+    }
+
+    public void screenInto(double[] weightsKg, byte[] materials, double[] dirtDegrees, byte[] programs, boolean[] tooHeavy,
+            byte[] resolvedPrograms) {
+        int size = requireNonNull(weightsKg, "weightsKg == null").length;
+        checkLength(requireNonNull(materials, "materials == null").length, size, "materials");
+        checkLength(requireNonNull(programs, "programs == null").length, size, "programs");
+        checkLength(requireNonNull(tooHeavy, "tooHeavy == null").length, size, "tooHeavy");
+        checkLength(requireNonNull(resolvedPrograms, "resolvedPrograms == null").length, size, "resolvedPrograms");
+        if (dirtDegrees != null) {
+            checkLength(dirtDegrees.length, size, "dirtDegrees");
+        }
+        Columns columns = new Columns(weightsKg, materials, dirtDegrees, programs, tooHeavy, resolvedPrograms);
+        if (size < parallelThreshold) {
+            screenRange(columns, 0, size);
+        } else {
+            pool.invoke(new ScreeningTask(columns, 0, size));
+        }
+    }
+
+    private void screenRange(Columns columns, int from, int to) {
+        double[] weightsKg = columns.weightsKg;
+        byte[] materials = columns.materials;
+        double[] dirtDegrees = columns.dirtDegrees;
+        byte[] programs = columns.programs;
+        boolean[] tooHeavy = columns.tooHeavy;
+        byte[] resolvedPrograms = columns.resolvedPrograms;
+        for (int i = from; i < to; i++) {
+            Material material = MATERIALS[materials[i]];
+            boolean overweight = programPolicy.overweight(material, weightsKg[i]);
+            tooHeavy[i] = overweight;
+            byte program = programs[i];
+            if (overweight) {
+                resolvedPrograms[i] = NO_PROGRAM;
+            } else if (program != AUTODETECT || dirtDegrees == null || Double.isNaN(dirtDegrees[i])) {
+                resolvedPrograms[i] = program;
+            } else if (Percentage.isInRange(dirtDegrees[i])) {
+                resolvedPrograms[i] = (byte) programSelector.select(material, dirtDegrees[i])
+                                                            .ordinal();
+            } else {
+                resolvedPrograms[i] = NO_PROGRAM;
+            }
+        }
+    }
+
+    private static void checkLength(int length, int expected, String name) {
+        if (length != expected) {
+            throw new IllegalArgumentException(name + " must have length " + expected);
+        }
+    }
+
+    private static final class Columns {
+
+        private final double[] weightsKg;
+        private final byte[] materials;
+        private final double[] dirtDegrees;
+        private final byte[] programs;
+        private final boolean[] tooHeavy;
+        private final byte[] resolvedPrograms;
+
+        private Columns(double[] weightsKg, byte[] materials, double[] dirtDegrees, byte[] programs, boolean[] tooHeavy,
+                byte[] resolvedPrograms) {
+            this.weightsKg = weightsKg;
+            this.materials = materials;
+            this.dirtDegrees = dirtDegrees;
+            this.programs = programs;
+            this.tooHeavy = tooHeavy;
+            this.resolvedPrograms = resolvedPrograms;
+        }
+    }
+
+    private final class ScreeningTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Columns columns;
+        private final int from;
+        private final int to;
+
+        private ScreeningTask(Columns columns, int from, int to) {
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= parallelThreshold) {
+                screenRange(columns, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ScreeningTask(columns, from, middle), new ScreeningTask(columns, middle, to));
+        }
+    }
+
+    public static final class Outcome {
+
+        private final boolean[] tooHeavy;
+        private final byte[] programs;
+
+        private Outcome(boolean[] tooHeavy, byte[] programs) {
+            this.tooHeavy = tooHeavy;
+            this.programs = programs;
+        }
+
+        public int size() {
+            return tooHeavy.length;
+        }
+
+        public boolean isTooHeavy(int index) {
+            return tooHeavy[index];
+        }
+
+        public Program getProgram(int index) {
+            byte program = programs[index];
+            return program == NO_PROGRAM ? null : PROGRAMS[program];
+        }
+
+        /**
+         * Returns the error {@link WashingMachine#start} would fail the batch with before touching any device, or
+         * {@link ErrorCode#NO_ERROR}.
+         */
+        public ErrorCode getErrorCode(int index) {
+            if (tooHeavy[index]) {
+                return ErrorCode.TOO_HEAVY;
+            }
+            return programs[index] == NO_PROGRAM ? ErrorCode.UNKNOWN_ERROR : ErrorCode.NO_ERROR;
+        }
+
+        public int countTooHeavy() {
+            int count = 0;
+            for (boolean overweight : tooHeavy) {
+                if (overweight) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private ProgramPolicy programPolicy = ProgramPolicy.defaults();
+        private ProgramSelector programSelector;
+        private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+        private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        private Builder() {}
+
+        public Builder withProgramPolicy(ProgramPolicy programPolicy) {
+            this.programPolicy = programPolicy;
+            return this;
+        }
+
+        public Builder withProgramSelector(ProgramSelector programSelector) {
+            this.programSelector = programSelector;
+            return this;
+        }
+
+        public Builder withParallelThreshold(int parallelThreshold) {
+            this.parallelThreshold = parallelThreshold;
+            return this;
+        }
+
+        public Builder withPool(ForkJoinPool pool) {
+            this.pool = pool;
+            return this;
+        }
+
+        public BulkScreening build() {
+            return new BulkScreening(this);
+        }
+    }
+
+}
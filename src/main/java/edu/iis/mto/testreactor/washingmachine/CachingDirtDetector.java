@@ -0,0 +1,248 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+public class CachingDirtDetector implements DirtDetector {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 10_000;
+    public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(10);
+
+    private final DirtDetector delegate;
+    private final Function<LaundryBatch, ?> keyFunction;
+    private final int maximumSize;
+    private final long timeToLiveNanos;
+    private final LongSupplier ticker;
+    private final ConcurrentHashMap<Object, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger insertionOrderSize = new AtomicInteger();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private CachingDirtDetector(Builder builder) {
+        this.delegate = requireNonNull(builder.delegate, "delegate == null");
+        this.keyFunction = requireNonNull(builder.keyFunction, "keyFunction == null");
+        this.ticker = requireNonNull(builder.ticker, "ticker == null");
+        requireNonNull(builder.timeToLive, "timeToLive == null");
+        if (builder.maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive");
+        }
+        if (builder.timeToLive.isNegative() || builder.timeToLive.isZero()) {
+            throw new IllegalArgumentException("timeToLive must be positive");
+        }
+        this.maximumSize = builder.maximumSize;
+        this.timeToLiveNanos = builder.timeToLive.toNanos();
+    }
+
+    @Override
+    public Percentage detectDirtDegree(LaundryBatch laundryBatch) {
+        Object key = requireNonNull(keyFunction.apply(laundryBatch), "key == null");
+        long now = ticker.getAsLong();
+        Entry cached = entries.get(key);
+        if (cached != null && !cached.isExpired(now)) {
+            hits.increment();
+            return cached.await();
+        }
+        Entry[] created = new Entry[1];
+        Entry current = entries.compute(key, (k, existing) -> {
+            if (existing != null && !existing.isExpired(now)) {
+                return existing;
+            }
+            if (existing != null) {
+                evictions.increment();
+            }
+            created[0] = new Entry(k, now + timeToLiveNanos);
+            return created[0];
+        });
+        if (current != created[0]) {
+            hits.increment();
+            return current.await();
+        }
+        misses.increment();
+        insertionOrder.add(current);
+        insertionOrderSize.incrementAndGet();
+        return load(laundryBatch, current);
+    }
+
+    private Percentage load(LaundryBatch laundryBatch, Entry entry) {
+        Percentage degree;
+        try {
+            degree = delegate.detectDirtDegree(laundryBatch);
+        } catch (RuntimeException | Error e) {
+            entries.remove(entry.key, entry);
+            entry.value.completeExceptionally(e);
+            throw e;
+        }
+        if (degree == null) {
+            entries.remove(entry.key, entry);
+        }
+        entry.value.complete(degree);
+        evictIfNeeded();
+        return degree;
+    }
+
+    private void evictIfNeeded() {
+        while (entries.size() > maximumSize) {
+            Entry eldest = insertionOrder.poll();
+            if (eldest == null) {
+                return;
+            }
+            insertionOrderSize.decrementAndGet();
+            if (entries.remove(eldest.key, eldest)) {
+                evictions.increment();
+            }
+        }
+        if (insertionOrderSize.get() > 2 * maximumSize) {
+            for (Iterator<Entry> iterator = insertionOrder.iterator(); iterator.hasNext();) {
+                Entry entry = iterator.next();
+                if (entries.get(entry.key) != entry) {
+                    iterator.remove();
+                    insertionOrderSize.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public long size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public static Function<LaundryBatch, Object> byMaterialAndWeight(double bucketKg) {
+        if (!(bucketKg > 0.0d)) {
+            throw new IllegalArgumentException("bucketKg must be positive");
+        }
+        return laundryBatch -> new WeightBucketKey(laundryBatch.getMaterialType(),
+                (long) Math.floor(laundryBatch.getWeightKg() / bucketKg));
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private static final class Entry {
+
+        private final Object key;
+        private final long expiresAtNanos;
+        private final CompletableFuture<Percentage> value = new CompletableFuture<>();
+
+        private Entry(Object key, long expiresAtNanos) {
+            this.key = key;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+
+        private Percentage await() {
+            try {
+                return value.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+
+    private static final class WeightBucketKey {
+
+        private final Material material;
+        private final long bucket;
+
+        private WeightBucketKey(Material material, long bucket) {
+            this.material = material;
+            this.bucket = bucket;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(material, bucket);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null) {
+                return false;
+            }
+            if (getClass() != obj.getClass()) {
+                return false;
+            }
+            WeightBucketKey other = (WeightBucketKey) obj;
+            return material == other.material && bucket == other.bucket;
+        }
+    }
+
+    public static final class Builder {
+
+        private DirtDetector delegate;
+        private Function<LaundryBatch, ?> keyFunction = Function.identity();
+        private int maximumSize = DEFAULT_MAXIMUM_SIZE;
+        private Duration timeToLive = DEFAULT_TIME_TO_LIVE;
+        private LongSupplier ticker = System::nanoTime;
+
+        private Builder() {}
+
+        public Builder withDelegate(DirtDetector delegate) {
+            this.delegate = delegate;
+            return this;
+        }
+
+        public Builder withKeyFunction(Function<LaundryBatch, ?> keyFunction) {
+            this.keyFunction = keyFunction;
+            return this;
+        }
+
+        public Builder withMaximumSize(int maximumSize) {
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        public Builder withTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+            return this;
+        }
+
+        public Builder withTicker(LongSupplier ticker) {
+            this.ticker = ticker;
+            return this;
+        }
+
+        public CachingDirtDetector build() {
+            return new CachingDirtDetector(this);
+        }
+    }
+
+}
@@ -0,0 +1,22 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+public interface ConsumptionModel {
+
+    /**
+     * Returns what one stage of a cycle uses, so a cycle that failed part way is charged only for the stages it
+     * attempted.
+     */
+    ResourceUsage estimateStage(Stage stage, Program program, Material material, double weightKg);
+
+    default ResourceUsage estimate(Program program, Material material, double weightKg, boolean spin) {
+        ResourceUsage usage = estimateStage(Stage.POUR, program, material, weightKg).plus(
+                estimateStage(Stage.WASH, program, material, weightKg));
+        return spin ? usage.plus(estimateStage(Stage.SPIN, program, material, weightKg)) : usage;
+    }
+
+    static ConsumptionModel linear() {
+        return LinearConsumptionModel.builder()
+                                     .build();
+    }
+
+}
@@ -0,0 +1,439 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
+public class CostAwareScheduler {
+
+    private static final long NO_START = Long.MIN_VALUE;
+
+    private final TariffCurve tariffCurve;
+    private final ConsumptionModel consumptionModel;
+    private final int slotMinutes;
+    private final long planningHorizonMinutes;
+    private final List<TreeMap<Long, Assignment>> reservations;
+    private final PriorityQueue<Assignment> pending = new PriorityQueue<>(
+            Comparator.comparingLong(Assignment::getStartMinute)
+                      .thenComparingLong(assignment -> assignment.sequence));
+    private long nowMinute;
+    private long sequence;
+    private double plannedCost;
+
+    private CostAwareScheduler(Builder builder) {
+        this.tariffCurve = requireNonNull(builder.tariffCurve, "tariffCurve == null");
+        this.consumptionModel = requireNonNull(builder.consumptionModel, "consumptionModel == null");
+        if (builder.machineCount <= 0) {
+            throw new IllegalArgumentException("machineCount must be positive");
+        }
+        if (builder.slotMinutes <= 0 || builder.planningHorizonMinutes <= 0) {
+            throw new IllegalArgumentException("slotMinutes and planningHorizonMinutes must be positive");
+        }
+        this.slotMinutes = builder.slotMinutes;
+        this.planningHorizonMinutes = builder.planningHorizonMinutes;
+        this.nowMinute = builder.startMinute;
+        this.reservations = new ArrayList<>(builder.machineCount);
+        for (int i = 0; i < builder.machineCount; i++) {
+            reservations.add(new TreeMap<>());
+        }
+    }
+
+    /**
+     * Plans the batch at its cheapest start. If no machine has room before the deadline, batches already planned in
+     * its window that have not started yet are moved to make room, as long as each of them still fits before its own
+     * deadline. A moved batch keeps its place in {@link #takeDue}, but the assignment returned for it earlier no longer
+     * describes where it runs.
+     */
+    public synchronized Optional<Assignment> submit(ScheduledBatch batch) {
+        requireNonNull(batch, "batch == null");
+        Assignment assignment = plan(batch, 0, reservations.size(), sequence);
+        if (assignment != null) {
+            reserve(assignment);
+        } else {
+            assignment = planByMoving(batch);
+        }
+        if (assignment == null) {
+            return Optional.empty();
+        }
+        sequence++;
+        return Optional.of(assignment);
+    }
+
+    public synchronized List<Assignment> takeDue(long nowMinute) {
+        if (nowMinute < this.nowMinute) {
+            throw new IllegalArgumentException("time must not go backwards");
+        }
+        this.nowMinute = nowMinute;
+        List<Assignment> due = new ArrayList<>();
+        while (!pending.isEmpty() && pending.peek().startMinute <= nowMinute) {
+            Assignment assignment = pending.poll();
+            plannedCost -= assignment.cost;
+            due.add(assignment);
+        }
+        for (TreeMap<Long, Assignment> machineReservations : reservations) {
+            Map.Entry<Long, Assignment> first;
+            while ((first = machineReservations.firstEntry()) != null && first.getValue().endMinute <= nowMinute) {
+                machineReservations.pollFirstEntry();
+            }
+        }
+        return due;
+    }
+
+    /**
+     * Starts the batches due by {@code nowMinute} on their machines. A batch the fleet has no room for stays planned
+     * and is returned again by the next call.
+     */
+    public List<CompletableFuture<LaundryStatus>> startDue(long nowMinute, List<WashingMachine> machines,
+            WashingMachineFleet fleet) {
+        requireNonNull(machines, "machines == null");
+        requireNonNull(fleet, "fleet == null");
+        if (machines.size() != reservations.size()) {
+            throw new IllegalArgumentException("expected " + reservations.size() + " machines");
+        }
+        List<CompletableFuture<LaundryStatus>> started = new ArrayList<>();
+        for (Assignment assignment : takeDue(nowMinute)) {
+            ScheduledBatch batch = assignment.getBatch();
+            CompletableFuture<LaundryStatus> status = fleet.trySubmit(machines.get(assignment.getMachine()),
+                    batch.getLaundryBatch(), batch.getProgramConfiguration());
+            if (status.isCompletedExceptionally()) {
+                requeue(assignment);
+            } else {
+                started.add(status);
+            }
+        }
+        return started;
+    }
+
+    private synchronized void requeue(Assignment assignment) {
+        reservations.get(assignment.machine)
+                    .putIfAbsent(assignment.startMinute, assignment);
+        pending.add(assignment);
+        plannedCost += assignment.cost;
+    }
+
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    public synchronized double plannedCost() {
+        return plannedCost;
+    }
+
+    private Assignment plan(ScheduledBatch batch, int fromMachine, int toMachine, long sequence) {
+        LaundryBatch laundryBatch = batch.getLaundryBatch();
+        ProgramConfiguration programConfiguration = batch.getProgramConfiguration();
+        Program program = programConfiguration.getProgram() == Program.AUTODETECT ? Program.LONG
+                : programConfiguration.getProgram();
+        ResourceUsage usage = consumptionModel.estimate(program, laundryBatch.getMaterialType(), laundryBatch.getWeightKg(),
+                programConfiguration.isSpin());
+        int duration = Math.max(1, usage.getDurationMinutes());
+        long earliest = earliestStart(batch);
+        long latestEnd = latestEnd(batch, earliest);
+        long latestStart = latestEnd - duration;
+        if (latestStart < earliest) {
+            return null;
+        }
+        Candidates candidates = new Candidates(candidateStarts(earliest, latestStart), duration, usage.getEnergyKwh());
+        int bestMachine = -1;
+        long bestStart = 0;
+        double bestCost = Double.POSITIVE_INFINITY;
+        boolean idleMachineSeen = false;
+        for (int machine = fromMachine; machine < toMachine; machine++) {
+            Map<Long, Assignment> overlapping = overlapping(machine, earliest, latestEnd);
+            if (overlapping.isEmpty()) {
+                if (idleMachineSeen) {
+                    continue;
+                }
+                idleMachineSeen = true;
+            }
+            long gapStart = earliest;
+            for (Assignment reserved : overlapping.values()) {
+                long placed = candidates.bestStartWithin(gapStart, reserved.startMinute);
+                if (placed != NO_START && candidates.isBetter(placed, bestStart, bestCost)) {
+                    bestMachine = machine;
+                    bestStart = placed;
+                    bestCost = candidates.costAt(placed);
+                }
+                gapStart = Math.max(gapStart, reserved.endMinute);
+            }
+            long placed = candidates.bestStartWithin(gapStart, latestEnd);
+            if (placed != NO_START && candidates.isBetter(placed, bestStart, bestCost)) {
+                bestMachine = machine;
+                bestStart = placed;
+                bestCost = candidates.costAt(placed);
+            }
+        }
+        if (bestMachine < 0) {
+            return null;
+        }
+        return new Assignment(batch, bestMachine, bestStart, bestStart + duration, bestCost, sequence);
+    }
+
+    /**
+     * Tries each machine in turn: lifts the batches planned in the new batch's window that have not started yet,
+     * plans the new batch on that machine and re-plans the lifted ones, earliest deadline first, on any machine. The
+     * first machine where everything fits wins; otherwise the plan is left as it was.
+     */
+    private Assignment planByMoving(ScheduledBatch batch) {
+        long earliest = earliestStart(batch);
+        long latestEnd = latestEnd(batch, earliest);
+        if (latestEnd <= earliest) {
+            return null;
+        }
+        for (int machine = 0; machine < reservations.size(); machine++) {
+            List<Assignment> lifted = new ArrayList<>();
+            for (Assignment reserved : overlapping(machine, earliest, latestEnd).values()) {
+                if (reserved.startMinute > nowMinute) {
+                    lifted.add(reserved);
+                }
+            }
+            if (lifted.isEmpty()) {
+                continue;
+            }
+            lifted.forEach(this::unreserve);
+            Assignment assignment = plan(batch, machine, machine + 1, sequence);
+            if (assignment != null) {
+                reserve(assignment);
+                if (replan(lifted)) {
+                    return assignment;
+                }
+                unreserve(assignment);
+            }
+            lifted.forEach(this::reserve);
+        }
+        return null;
+    }
+
+    private boolean replan(List<Assignment> lifted) {
+        lifted.sort(Comparator.comparingLong((Assignment assignment) -> assignment.batch.getDeadlineMinute())
+                              .thenComparingLong(assignment -> assignment.sequence));
+        List<Assignment> replanned = new ArrayList<>(lifted.size());
+        for (Assignment previous : lifted) {
+            Assignment moved = plan(previous.batch, 0, reservations.size(), previous.sequence);
+            if (moved == null) {
+                replanned.forEach(this::unreserve);
+                return false;
+            }
+            reserve(moved);
+            replanned.add(moved);
+        }
+        return true;
+    }
+
+    private long earliestStart(ScheduledBatch batch) {
+        return Math.max(batch.getReleaseMinute(), nowMinute);
+    }
+
+    private long latestEnd(ScheduledBatch batch, long earliest) {
+        return Math.min(batch.getDeadlineMinute(), earliest + planningHorizonMinutes);
+    }
+
+    private Map<Long, Assignment> overlapping(int machine, long from, long to) {
+        TreeMap<Long, Assignment> machineReservations = reservations.get(machine);
+        Long firstKey = machineReservations.floorKey(from);
+        return machineReservations.tailMap(firstKey == null ? from : firstKey, true)
+                                  .headMap(to, false);
+    }
+
+    private void reserve(Assignment assignment) {
+        reservations.get(assignment.machine)
+                    .put(assignment.startMinute, assignment);
+        pending.add(assignment);
+        plannedCost += assignment.cost;
+    }
+
+    private void unreserve(Assignment assignment) {
+        reservations.get(assignment.machine)
+                    .remove(assignment.startMinute);
+        pending.remove(assignment);
+        plannedCost -= assignment.cost;
+    }
+
+    private long[] candidateStarts(long earliest, long latestStart) {
+        long firstSlot = Math.floorDiv(earliest + slotMinutes - 1, slotMinutes) * slotMinutes;
+        int slots = firstSlot > latestStart ? 0 : (int) ((latestStart - firstSlot) / slotMinutes + 1);
+        boolean earliestOnGrid = firstSlot == earliest;
+        long[] starts = new long[slots + (earliestOnGrid ? 0 : 1)];
+        int i = 0;
+        if (!earliestOnGrid) {
+            starts[i++] = earliest;
+        }
+        for (long start = firstSlot; i < starts.length; start += slotMinutes) {
+            starts[i++] = start;
+        }
+        return starts;
+    }
+
+    private final class Candidates {
+
+        private final long[] starts;
+        private final double[] costs;
+        private final int[][] cheapest;
+        private final int duration;
+        private final double energyKwh;
+
+        private Candidates(long[] starts, int duration, double energyKwh) {
+            this.starts = starts;
+            this.duration = duration;
+            this.energyKwh = energyKwh;
+            this.costs = new double[starts.length];
+            for (int i = 0; i < starts.length; i++) {
+                costs[i] = tariffCurve.cost(starts[i], duration, energyKwh);
+            }
+            int levels = 32 - Integer.numberOfLeadingZeros(Math.max(1, starts.length));
+            this.cheapest = new int[levels][];
+            cheapest[0] = new int[starts.length];
+            for (int i = 0; i < starts.length; i++) {
+                cheapest[0][i] = i;
+            }
+            for (int level = 1; level < levels; level++) {
+                int width = 1 << level;
+                cheapest[level] = new int[starts.length - width + 1];
+                for (int i = 0; i + width <= starts.length; i++) {
+                    cheapest[level][i] = cheaper(cheapest[level - 1][i], cheapest[level - 1][i + width / 2]);
+                }
+            }
+        }
+
+        private long bestStartWithin(long gapStart, long gapEnd) {
+            long lastStart = gapEnd - duration;
+            if (lastStart < gapStart) {
+                return NO_START;
+            }
+            long best = gapStart;
+            int from = lowerBound(gapStart);
+            int to = lowerBound(lastStart + 1) - 1;
+            if (from <= to) {
+                int level = 31 - Integer.numberOfLeadingZeros(to - from + 1);
+                int index = cheaper(cheapest[level][from], cheapest[level][to - (1 << level) + 1]);
+                if (isBetter(starts[index], best, costAt(best))) {
+                    best = starts[index];
+                }
+            }
+            return best;
+        }
+
+        private boolean isBetter(long start, long otherStart, double otherCost) {
+            double cost = costAt(start);
+            return cost < otherCost || cost == otherCost && start < otherStart;
+        }
+
+        private double costAt(long start) {
+            int index = Arrays.binarySearch(starts, start);
+            return index >= 0 ? costs[index] : tariffCurve.cost(start, duration, energyKwh);
+        }
+
+        private int cheaper(int left, int right) {
+            return costs[right] < costs[left] ? right : left;
+        }
+
+        private int lowerBound(long start) {
+            int index = Arrays.binarySearch(starts, start);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+
+    public static final class Assignment {
+
+        private final ScheduledBatch batch;
+        private final int machine;
+        private final long startMinute;
+        private final long endMinute;
+        private final double cost;
+        private final long sequence;
+
+        private Assignment(ScheduledBatch batch, int machine, long startMinute, long endMinute, double cost, long sequence) {
+            this.batch = batch;
+            this.machine = machine;
+            this.startMinute = startMinute;
+            this.endMinute = endMinute;
+            this.cost = cost;
+            this.sequence = sequence;
+        }
+
+        public ScheduledBatch getBatch() {
+            return batch;
+        }
+
+        public int getMachine() {
+            return machine;
+        }
+
+        public long getStartMinute() {
+            return startMinute;
+        }
+
+        public long getEndMinute() {
+            return endMinute;
+        }
+
+        public double getCost() {
+            return cost;
+        }
+
+        @Override
+        public String toString() {
+            return "Assignment [batch=" + batch.getId() + ", machine=" + machine + ", startMinute=" + startMinute
+                   + ", endMinute=" + endMinute + ", cost=" + cost + "]";
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private TariffCurve tariffCurve;
+        private ConsumptionModel consumptionModel = ConsumptionModel.linear();
+        private int machineCount = 1;
+        private int slotMinutes = 15;
+        private long planningHorizonMinutes = TariffCurve.MINUTES_PER_DAY;
+        private long startMinute;
+
+        private Builder() {}
+
+        public Builder withTariffCurve(TariffCurve tariffCurve) {
+            this.tariffCurve = tariffCurve;
+            return this;
+        }
+
+        public Builder withConsumptionModel(ConsumptionModel consumptionModel) {
+            this.consumptionModel = consumptionModel;
+            return this;
+        }
+
+        public Builder withMachineCount(int machineCount) {
+            this.machineCount = machineCount;
+            return this;
+        }
+
+        public Builder withSlotMinutes(int slotMinutes) {
+            this.slotMinutes = slotMinutes;
+            return this;
+        }
+
+        public Builder withPlanningHorizonMinutes(long planningHorizonMinutes) {
+            this.planningHorizonMinutes = planningHorizonMinutes;
+            return this;
+        }
+
+        public Builder withStartMinute(long startMinute) {
+            this.startMinute = startMinute;
+            return this;
+        }
+
+        public CostAwareScheduler build() {
+            return new CostAwareScheduler(this);
+        }
+    }
+
+}
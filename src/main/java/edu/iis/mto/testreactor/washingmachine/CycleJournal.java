@@ -0,0 +1,257 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+public class CycleJournal implements MetricsSink, AutoCloseable {
+
+    static final String SEGMENT_PREFIX = "cycles-";
+    static final String SEGMENT_SUFFIX = ".journal";
+
+    // claimed is set to this on close, so a producer that read closed too early cannot claim a slot any more
+    private static final long SEALED = Long.MAX_VALUE;
+
+    private final Path directory;
+    private final int segmentRecords;
+    private final long flushIntervalNanos;
+    private final int mask;
+    private final ByteBuffer ring;
+    private final ByteBuffer drainSource;
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final ThreadLocal<int[]> stageOutcomes = ThreadLocal.withInitial(() -> new int[2]);
+    private final Thread flusher;
+    private volatile boolean closed;
+    private long segmentIndex;
+    private FileChannel segmentChannel;
+    private MappedByteBuffer segment;
+    private volatile IOException failure;
+
+    private CycleJournal(Builder builder) throws IOException {
+        this.directory = requireNonNull(builder.directory, "directory == null");
+        requireNonNull(builder.flushInterval, "flushInterval == null");
+        if (builder.ringCapacity <= 0 || Integer.bitCount(builder.ringCapacity) != 1) {
+            throw new IllegalArgumentException("ringCapacity must be a positive power of two");
+        }
+        if (builder.segmentRecords <= 0) {
+            throw new IllegalArgumentException("segmentRecords must be positive");
+        }
+        this.segmentRecords = builder.segmentRecords;
+        this.flushIntervalNanos = builder.flushInterval.toNanos();
+        this.mask = builder.ringCapacity - 1;
+        this.ring = ByteBuffer.allocate(builder.ringCapacity * CycleRecord.SIZE);
+        this.drainSource = ring.duplicate();
+        this.published = new AtomicLongArray(builder.ringCapacity);
+        Files.createDirectories(directory);
+        List<Path> existing = CycleJournalReader.segments(directory);
+        this.segmentIndex = existing.isEmpty() ? 0 : CycleJournalReader.indexOf(existing.get(existing.size() - 1)) + 1;
+        openSegment();
+        this.flusher = new Thread(this::drainLoop, "cycle-journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    @Override
+    public void recordStage(Stage stage, long durationNanos, boolean succeeded) {
+        int[] outcomes = stageOutcomes.get();
+        outcomes[0] |= 1 << stage.ordinal();
+        if (!succeeded) {
+            outcomes[1] |= 1 << stage.ordinal();
+        }
+    }
+
+    @Override
+    public void recordCycle(LaundryBatch laundryBatch, ProgramConfiguration programConfiguration, LaundryStatus status,
+            long durationNanos) {
+        int[] outcomes = stageOutcomes.get();
+        int stagesAttempted = outcomes[0];
+        int stagesFailed = outcomes[1];
+        outcomes[0] = 0;
+        outcomes[1] = 0;
+        append(laundryBatch, programConfiguration, status, stagesAttempted, stagesFailed, durationNanos);
+    }
+
+    public boolean append(LaundryBatch laundryBatch, ProgramConfiguration programConfiguration, LaundryStatus status,
+            int stagesAttempted, int stagesFailed, long durationNanos) {
+        requireNonNull(status, "status == null");
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (closed || sequence - consumed.get() > mask) {
+                dropped.increment();
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+        int slot = (int) (sequence & mask);
+        CycleRecord.encode(ring, slot * CycleRecord.SIZE, laundryBatch, programConfiguration, status, stagesAttempted,
+                stagesFailed, System.currentTimeMillis(), durationNanos);
+        published.lazySet(slot, sequence + 1);
+        return true;
+    }
+
+    public long getAppendedCount() {
+        return consumed.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Stops accepting records and waits for the flusher to write everything claimed before it stopped. A producer that
+     * claimed a slot after that lost its record; such records are counted as dropped.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+        }
+        if (!flusher.isAlive()) {
+            long claimedBeforeSeal = claimed.getAndSet(SEALED);
+            if (claimedBeforeSeal != SEALED) {
+                dropped.add(claimedBeforeSeal - consumed.get());
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void drainLoop() {
+        long lastForce = System.nanoTime();
+        try {
+            while (true) {
+                boolean closing = closed;
+                int drained = drain();
+                long now = System.nanoTime();
+                if (now - lastForce >= flushIntervalNanos) {
+                    segment.force();
+                    lastForce = now;
+                }
+                if (closing && drained == 0 && consumed.get() == claimed.get()) {
+                    break;
+                }
+                if (drained == 0) {
+                    LockSupport.parkNanos(Math.min(flushIntervalNanos, 1_000_000L));
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+        } finally {
+            closeSegment();
+        }
+    }
+
+    private int drain() throws IOException {
+        int drained = 0;
+        long next = consumed.get();
+        while (true) {
+            int first = (int) (next & mask);
+            if (published.get(first) != next + 1) {
+                return drained;
+            }
+            if (segment.remaining() < CycleRecord.SIZE) {
+                closeSegment();
+                segmentIndex++;
+                openSegment();
+            }
+            int limit = Math.min(mask + 1 - first, segment.remaining() / CycleRecord.SIZE);
+            int batch = 1;
+            while (batch < limit && published.get(first + batch) == next + batch + 1) {
+                batch++;
+            }
+            drainSource.limit((first + batch) * CycleRecord.SIZE)
+                       .position(first * CycleRecord.SIZE);
+            segment.put(drainSource);
+            next += batch;
+            consumed.lazySet(next);
+            drained += batch;
+        }
+    }
+
+    private void openSegment() throws IOException {
+        Path path = directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, segmentIndex, SEGMENT_SUFFIX));
+        segmentChannel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        segment = segmentChannel.map(FileChannel.MapMode.READ_WRITE, 0, (long) segmentRecords * CycleRecord.SIZE);
+    }
+
+    private void closeSegment() {
+        if (segmentChannel == null) {
+            return;
+        }
+        try {
+            segment.force();
+            segmentChannel.close();
+        } catch (IOException e) {
+            if (failure == null) {
+                failure = e;
+            }
+        } finally {
+            segmentChannel = null;
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private Path directory;
+        private int ringCapacity = 1 << 16;
+        private int segmentRecords = 1 << 20;
+        private Duration flushInterval = Duration.ofMillis(100);
+
+        private Builder() {}
+
+        public Builder withDirectory(Path directory) {
+            this.directory = directory;
+            return this;
+        }
+
+        public Builder withRingCapacity(int ringCapacity) {
+            this.ringCapacity = ringCapacity;
+            return this;
+        }
+
+        public Builder withSegmentRecords(int segmentRecords) {
+            this.segmentRecords = segmentRecords;
+            return this;
+        }
+
+        public Builder withFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+            return this;
+        }
+
+        public CycleJournal build() throws IOException {
+            return new CycleJournal(this);
+        }
+    }
+
+}
@@ -0,0 +1,61 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public final class CycleJournalReader {
+
+    private CycleJournalReader() {}
+
+    public static long replay(Path directory, Consumer<? super CycleRecord> consumer) throws IOException {
+        requireNonNull(consumer, "consumer == null");
+        CycleRecord record = new CycleRecord();
+        long count = 0;
+        for (Path segment : segments(directory)) {
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                for (int offset = 0; CycleRecord.isRecordAt(buffer, offset); offset += CycleRecord.SIZE) {
+                    consumer.accept(record.wrap(buffer, offset));
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    static List<Path> segments(Path directory) throws IOException {
+        requireNonNull(directory, "directory == null");
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(CycleJournalReader::isSegment)
+                        .sorted()
+                        .collect(Collectors.toList());
+        }
+    }
+
+    static long indexOf(Path segment) {
+        String name = segment.getFileName()
+                             .toString();
+        return Long.parseLong(name.substring(CycleJournal.SEGMENT_PREFIX.length(),
+                name.length() - CycleJournal.SEGMENT_SUFFIX.length()));
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName()
+                          .toString();
+        return name.startsWith(CycleJournal.SEGMENT_PREFIX) && name.endsWith(CycleJournal.SEGMENT_SUFFIX);
+    }
+
+}
@@ -0,0 +1,116 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class CycleMetrics implements MetricsSink {
+
+    private static final Stage[] STAGES = Stage.values();
+    private static final ErrorCode[] ERROR_CODES = ErrorCode.values();
+    private static final Program[] PROGRAMS = Program.values();
+    private static final Material[] MATERIALS = Material.values();
+
+    private final LatencyHistogram[] stageLatencies = new LatencyHistogram[STAGES.length];
+    private final LongAdder[] stageFailures = adders(STAGES.length);
+    private final LatencyHistogram cycleLatency = new LatencyHistogram();
+    private final LongAdder[] errorCodes = adders(ERROR_CODES.length);
+    private final LongAdder[] programs = adders(PROGRAMS.length);
+    private final LongAdder[] materials = adders(MATERIALS.length);
+
+    public CycleMetrics() {
+        for (int i = 0; i < stageLatencies.length; i++) {
+            stageLatencies[i] = new LatencyHistogram();
+        }
+    }
+
+    @Override
+    public void recordStage(Stage stage, long durationNanos, boolean succeeded) {
+        stageLatencies[stage.ordinal()].record(durationNanos);
+        if (!succeeded) {
+            stageFailures[stage.ordinal()].increment();
+        }
+    }
+
+    @Override
+    public void recordCycle(LaundryBatch laundryBatch, ProgramConfiguration programConfiguration, LaundryStatus status,
+            long durationNanos) {
+        cycleLatency.record(durationNanos);
+        if (status.getErrorCode() != null) {
+            errorCodes[status.getErrorCode()
+                              .ordinal()].increment();
+        }
+        if (status.getRunnedProgram() != null) {
+            programs[status.getRunnedProgram()
+                           .ordinal()].increment();
+        }
+        if (laundryBatch != null && laundryBatch.getMaterialType() != null) {
+            materials[laundryBatch.getMaterialType()
+                                  .ordinal()].increment();
+        }
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    private static LongAdder[] adders(int size) {
+        LongAdder[] adders = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static long[] sums(LongAdder[] adders) {
+        long[] sums = new long[adders.length];
+        for (int i = 0; i < adders.length; i++) {
+            sums[i] = adders[i].sum();
+        }
+        return sums;
+    }
+
+    public static final class Snapshot {
+
+        private final LatencyHistogram.Snapshot[] stageLatencies = new LatencyHistogram.Snapshot[STAGES.length];
+        private final long[] stageFailures;
+        private final LatencyHistogram.Snapshot cycleLatency;
+        private final long[] errorCodes;
+        private final long[] programs;
+        private final long[] materials;
+
+        private Snapshot(CycleMetrics metrics) {
+            for (int i = 0; i < stageLatencies.length; i++) {
+                stageLatencies[i] = metrics.stageLatencies[i].snapshot();
+            }
+            this.stageFailures = sums(metrics.stageFailures);
+            this.cycleLatency = metrics.cycleLatency.snapshot();
+            this.errorCodes = sums(metrics.errorCodes);
+            this.programs = sums(metrics.programs);
+            this.materials = sums(metrics.materials);
+        }
+
+        public LatencyHistogram.Snapshot getStageLatency(Stage stage) {
+            return stageLatencies[stage.ordinal()];
+        }
+
+        public long getStageFailures(Stage stage) {
+            return stageFailures[stage.ordinal()];
+        }
+
+        public LatencyHistogram.Snapshot getCycleLatency() {
+            return cycleLatency;
+        }
+
+        public long getErrorCodeCount(ErrorCode errorCode) {
+            return errorCodes[errorCode.ordinal()];
+        }
+
+        public long getProgramCount(Program program) {
+            return programs[program.ordinal()];
+        }
+
+        public long getMaterialCount(Material material) {
+            return materials[material.ordinal()];
+        }
+    }
+
+}
@@ -0,0 +1,137 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import java.nio.ByteBuffer;
+
+public final class CycleRecord {
+
+    static final int SIZE = 40;
+    static final byte TYPE_CYCLE = 1;
+    static final byte NONE = -1;
+
+    private static final int TYPE_OFFSET = 0;
+    private static final int MATERIAL_OFFSET = 1;
+    private static final int REQUESTED_PROGRAM_OFFSET = 2;
+    private static final int FLAGS_OFFSET = 3;
+    private static final int RESULT_OFFSET = 4;
+    private static final int RUNNED_PROGRAM_OFFSET = 5;
+    private static final int ERROR_CODE_OFFSET = 6;
+    private static final int STAGES_ATTEMPTED_OFFSET = 7;
+    private static final int STAGES_FAILED_OFFSET = 8;
+    private static final int WEIGHT_OFFSET = 16;
+    private static final int TIMESTAMP_OFFSET = 24;
+    private static final int DURATION_OFFSET = 32;
+    private static final int FLAG_SPIN = 1;
+    private static final int FLAG_CONFIGURED = 2;
+
+    private static final Material[] MATERIALS = Material.values();
+    private static final Program[] PROGRAMS = Program.values();
+    private static final Result[] RESULTS = Result.values();
+    private static final ErrorCode[] ERROR_CODES = ErrorCode.values();
+
+    private ByteBuffer buffer;
+    private int offset;
+
+    CycleRecord wrap(ByteBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+        return this;
+    }
+
+    static void encode(ByteBuffer buffer, int offset, LaundryBatch laundryBatch, ProgramConfiguration programConfiguration,
+            LaundryStatus status, int stagesAttempted, int stagesFailed, long timestampMillis, long durationNanos) {
+        Material material = laundryBatch == null ? null : laundryBatch.getMaterialType();
+        int flags = 0;
+        if (programConfiguration != null) {
+            flags |= FLAG_CONFIGURED;
+            if (programConfiguration.isSpin()) {
+                flags |= FLAG_SPIN;
+            }
+        }
+        buffer.put(offset + MATERIAL_OFFSET, ordinal(material));
+        Program requestedProgram = programConfiguration == null ? null : programConfiguration.getProgram();
+        buffer.put(offset + REQUESTED_PROGRAM_OFFSET, ordinal(requestedProgram));
+        buffer.put(offset + FLAGS_OFFSET, (byte) flags);
+        buffer.put(offset + RESULT_OFFSET, ordinal(status.getResult()));
+        buffer.put(offset + RUNNED_PROGRAM_OFFSET, ordinal(status.getRunnedProgram()));
+        buffer.put(offset + ERROR_CODE_OFFSET, ordinal(status.getErrorCode()));
+        buffer.put(offset + STAGES_ATTEMPTED_OFFSET, (byte) stagesAttempted);
+        buffer.put(offset + STAGES_FAILED_OFFSET, (byte) stagesFailed);
+        buffer.putDouble(offset + WEIGHT_OFFSET, laundryBatch == null ? Double.NaN : laundryBatch.getWeightKg());
+        buffer.putLong(offset + TIMESTAMP_OFFSET, timestampMillis);
+        buffer.putLong(offset + DURATION_OFFSET, durationNanos);
+        buffer.put(offset + TYPE_OFFSET, TYPE_CYCLE);
+    }
+
+    public Material getMaterialType() {
+        return decode(MATERIALS, MATERIAL_OFFSET);
+    }
+
+    public Program getRequestedProgram() {
+        return decode(PROGRAMS, REQUESTED_PROGRAM_OFFSET);
+    }
+
+    public boolean isConfigured() {
+        return (buffer.get(offset + FLAGS_OFFSET) & FLAG_CONFIGURED) != 0;
+    }
+
+    public boolean isSpin() {
+        return (buffer.get(offset + FLAGS_OFFSET) & FLAG_SPIN) != 0;
+    }
+
+    public Result getResult() {
+        return decode(RESULTS, RESULT_OFFSET);
+    }
+
+    public Program getRunnedProgram() {
+        return decode(PROGRAMS, RUNNED_PROGRAM_OFFSET);
+    }
+
+    public ErrorCode getErrorCode() {
+        return decode(ERROR_CODES, ERROR_CODE_OFFSET);
+    }
+
+    public boolean isStageAttempted(Stage stage) {
+        return (buffer.get(offset + STAGES_ATTEMPTED_OFFSET) & 1 << stage.ordinal()) != 0;
+    }
+
+    public boolean isStageFailed(Stage stage) {
+        return (buffer.get(offset + STAGES_FAILED_OFFSET) & 1 << stage.ordinal()) != 0;
+    }
+
+    public double getWeightKg() {
+        return buffer.getDouble(offset + WEIGHT_OFFSET);
+    }
+
+    public long getTimestampMillis() {
+        return buffer.getLong(offset + TIMESTAMP_OFFSET);
+    }
+
+    public long getDurationNanos() {
+        return buffer.getLong(offset + DURATION_OFFSET);
+    }
+
+    public LaundryStatus toLaundryStatus() {
+        return LaundryStatus.of(getResult(), getRunnedProgram(), getErrorCode());
+    }
+
+    @Override
+    public String toString() {
+        return "CycleRecord [materialType=" + getMaterialType() + ", weightKg=" + getWeightKg() + ", requestedProgram="
+               + getRequestedProgram() + ", spin=" + isSpin() + ", status=" + toLaundryStatus() + ", durationNanos="
+               + getDurationNanos() + "]";
+    }
+
+    static boolean isRecordAt(ByteBuffer buffer, int offset) {
+        return offset + SIZE <= buffer.limit() && buffer.get(offset + TYPE_OFFSET) == TYPE_CYCLE;
+    }
+
+    private <E extends Enum<E>> E decode(E[] values, int fieldOffset) {
+        byte ordinal = buffer.get(offset + fieldOffset);
+        return ordinal == NONE ? null : values[ordinal];
+    }
+
+    private static byte ordinal(Enum<?> value) {
+        return value == null ? NONE : (byte) value.ordinal();
+    }
+
+}
@@ -0,0 +1,47 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+final class DeviceCalls {
+
+    interface DeviceCall<E extends Exception> {
+
+        void run() throws E;
+    }
+
+    private DeviceCalls() {}
+
+    static <E extends Exception> void call(DeviceCall<E> call, RetryPolicy retryPolicy, CircuitBreaker circuitBreaker,
+            Supplier<E> rejection, LongAdder retries) throws E {
+        for (int attempt = 1;; attempt++) {
+            if (!circuitBreaker.tryAcquire()) {
+                throw rejection.get();
+            }
+            try {
+                call.run();
+                circuitBreaker.onSuccess();
+                return;
+            } catch (Exception e) {
+                circuitBreaker.onFailure();
+                if (attempt >= retryPolicy.getMaxAttempts() || !backOff(retryPolicy.backoffNanos(attempt))) {
+                    throw e;
+                }
+                retries.increment();
+            }
+        }
+    }
+
+    private static boolean backOff(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+            return false;
+        }
+    }
+
+}
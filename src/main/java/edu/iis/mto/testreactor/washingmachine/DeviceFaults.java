@@ -0,0 +1,115 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How a stub device behaves on every call: a log-normal latency around {@code medianLatency}, an occasional stall of
+ * {@code stallDuration} on top of it and, after the wait, a failure with {@code failureProbability}.
+ */
+public class DeviceFaults {
+
+    private static final DeviceFaults NONE = builder().build();
+
+    private final long medianLatencyNanos;
+    private final double latencySpread;
+    private final double failureProbability;
+    private final double stallProbability;
+    private final long stallNanos;
+
+    private DeviceFaults(Builder builder) {
+        requireNonNull(builder.medianLatency, "medianLatency == null");
+        requireNonNull(builder.stallDuration, "stallDuration == null");
+        if (builder.medianLatency.isNegative() || builder.stallDuration.isNegative()) {
+            throw new IllegalArgumentException("medianLatency and stallDuration must not be negative");
+        }
+        if (!(builder.latencySpread >= 0.0d)) {
+            throw new IllegalArgumentException("latencySpread must not be negative");
+        }
+        this.medianLatencyNanos = builder.medianLatency.toNanos();
+        this.latencySpread = builder.latencySpread;
+        this.failureProbability = requireProbability(builder.failureProbability, "failureProbability");
+        this.stallProbability = requireProbability(builder.stallProbability, "stallProbability");
+        this.stallNanos = builder.stallDuration.toNanos();
+    }
+
+    public static DeviceFaults none() {
+        return NONE;
+    }
+
+    private static double requireProbability(double probability, String name) {
+        if (!(probability >= 0.0d && probability <= 1.0d)) {
+            throw new IllegalArgumentException(name + " must be in range <0,1>");
+        }
+        return probability;
+    }
+
+    /**
+     * Waits as long as the device would and returns whether the call fails. Draws the same number of random values
+     * on every call, so a device seeded the same way fails on the same calls.
+     */
+    boolean apply(Random random) {
+        double latency = medianLatencyNanos * Math.exp(latencySpread * random.nextGaussian());
+        boolean stalled = random.nextDouble() < stallProbability;
+        boolean failed = random.nextDouble() < failureProbability;
+        await((long) latency + (stalled ? stallNanos : 0L));
+        return failed;
+    }
+
+    private static void await(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        long remaining = nanos;
+        while (remaining > 0L && !Thread.currentThread()
+                                        .isInterrupted()) {
+            LockSupport.parkNanos(remaining);
+            remaining = deadline - System.nanoTime();
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private Duration medianLatency = Duration.ZERO;
+        private double latencySpread;
+        private double failureProbability;
+        private double stallProbability;
+        private Duration stallDuration = Duration.ZERO;
+
+        private Builder() {}
+
+        public Builder withMedianLatency(Duration medianLatency) {
+            this.medianLatency = medianLatency;
+            return this;
+        }
+
+        /**
+         * Sets sigma of the log-normal latency; 0 makes every call take exactly the median.
+         */
+        public Builder withLatencySpread(double latencySpread) {
+            this.latencySpread = latencySpread;
+            return this;
+        }
+
+        public Builder withFailureProbability(double failureProbability) {
+            this.failureProbability = failureProbability;
+            return this;
+        }
+
+        public Builder withStall(double stallProbability, Duration stallDuration) {
+            this.stallProbability = stallProbability;
+            this.stallDuration = stallDuration;
+            return this;
+        }
+
+        public DeviceFaults build() {
+            return new DeviceFaults(this);
+        }
+    }
+
+}
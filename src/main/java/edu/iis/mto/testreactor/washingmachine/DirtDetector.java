@@ -4,4 +4,8 @@ public interface DirtDetector {
 
     Percentage detectDirtDegree(LaundryBatch laundryBatch);
 
+    default double detectDirtDegreeValue(LaundryBatch laundryBatch) {
+        return detectDirtDegree(laundryBatch).getValue();
+    }
+
 }
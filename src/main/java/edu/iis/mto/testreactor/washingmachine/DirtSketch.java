@@ -0,0 +1,77 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import java.util.Arrays;
+
+/**
+ * Mergeable fixed-bucket histogram of dirt degrees with 0.1 percentage point resolution. Memory does not depend on
+ * the number of readings, and the share routed to the LONG program is counted exactly rather than from buckets.
+ */
+final class DirtSketch {
+
+    static final int BUCKETS_PER_PERCENT = 10;
+    static final int BUCKETS = 100 * BUCKETS_PER_PERCENT + 1;
+
+    final int[] counts = new int[BUCKETS];
+    long count;
+    double sum;
+    long aboveThreshold;
+    double min = Double.POSITIVE_INFINITY;
+    double max = Double.NEGATIVE_INFINITY;
+
+    void add(double dirtDegree, boolean above) {
+        counts[(int) (dirtDegree * BUCKETS_PER_PERCENT)]++;
+        count++;
+        sum += dirtDegree;
+        if (above) {
+            aboveThreshold++;
+        }
+        min = Math.min(min, dirtDegree);
+        max = Math.max(max, dirtDegree);
+    }
+
+    void addAll(DirtSketch other) {
+        if (other.count == 0) {
+            return;
+        }
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        aboveThreshold += other.aboveThreshold;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    void clear() {
+        if (count == 0) {
+            return;
+        }
+        Arrays.fill(counts, 0);
+        count = 0;
+        sum = 0.0d;
+        aboveThreshold = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    static double percentile(int[] counts, long count, double min, double max, double quantile) {
+        if (quantile < 0.0d || quantile > 1.0d) {
+            throw new IllegalArgumentException("quantile must be in range <0,1>");
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                double midpoint = (i + 0.5d) / BUCKETS_PER_PERCENT;
+                return Math.min(max, Math.max(min, midpoint));
+            }
+        }
+        return max;
+    }
+
+}
@@ -0,0 +1,297 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Windowed statistics of dirt-detector readings per material. Producers hand readings to a bounded multi-producer
+ * ring ({@link #offer} drops when full, {@link #submit} waits for space); a single aggregator thread folds them into
+ * per-pane {@link DirtSketch}es. A window spans {@code window / slide} panes, so a slide equal to the window gives
+ * tumbling windows. Memory is fixed by the ring capacity and the pane count, never by the reading rate.
+ */
+public class DirtTelemetry implements AutoCloseable {
+
+    public interface WindowListener {
+
+        void onWindowClosed(DirtWindow window);
+    }
+
+    private static final Material[] MATERIALS = Material.values();
+    private static final int MAX_DRAIN_BATCH = 4096;
+
+    private final ProgramPolicy programPolicy;
+    private final LongSupplier clock;
+    private final WindowListener listener;
+    private final long paneMillis;
+    private final int panesPerWindow;
+    private final int mask;
+    private final long[] timestamps;
+    private final double[] degrees;
+    private final byte[] materials;
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder late = new LongAdder();
+    private final DirtSketch[][] panes;
+    private final DirtSketch merged = new DirtSketch();
+    private final Object lock = new Object();
+    private final Thread aggregator;
+    private volatile boolean closed;
+    private long currentPane;
+
+    private DirtTelemetry(Builder builder) {
+        this.programPolicy = requireNonNull(builder.programPolicy, "programPolicy == null");
+        this.clock = requireNonNull(builder.clock, "clock == null");
+        this.listener = builder.listener;
+        requireNonNull(builder.window, "window == null");
+        Duration slide = requireNonNull(builder.slide == null ? builder.window : builder.slide, "slide == null");
+        if (slide.toMillis() <= 0 || builder.window.toMillis() % slide.toMillis() != 0) {
+            throw new IllegalArgumentException("window must be a positive multiple of slide");
+        }
+        if (builder.ringCapacity <= 0 || Integer.bitCount(builder.ringCapacity) != 1) {
+            throw new IllegalArgumentException("ringCapacity must be a positive power of two");
+        }
+        this.paneMillis = slide.toMillis();
+        this.panesPerWindow = (int) (builder.window.toMillis() / paneMillis);
+        this.mask = builder.ringCapacity - 1;
+        this.timestamps = new long[builder.ringCapacity];
+        this.degrees = new double[builder.ringCapacity];
+        this.materials = new byte[builder.ringCapacity];
+        this.published = new AtomicLongArray(builder.ringCapacity);
+        this.panes = new DirtSketch[MATERIALS.length][panesPerWindow];
+        for (DirtSketch[] materialPanes : panes) {
+            for (int i = 0; i < panesPerWindow; i++) {
+                materialPanes[i] = new DirtSketch();
+            }
+        }
+        this.currentPane = Math.floorDiv(clock.getAsLong(), paneMillis);
+        this.aggregator = new Thread(this::aggregateLoop, "dirt-telemetry-aggregator");
+        this.aggregator.setDaemon(true);
+        this.aggregator.start();
+    }
+
+    /**
+     * Records a reading without blocking; returns {@code false} and counts it as dropped when the ring is full.
+     */
+    public boolean offer(Material material, double dirtDegree) {
+        requireReading(material, dirtDegree);
+        long sequence = tryClaim();
+        if (sequence < 0) {
+            dropped.increment();
+            return false;
+        }
+        publish(sequence, material, dirtDegree);
+        return true;
+    }
+
+    /**
+     * Records a reading, waiting for the aggregator to make room when the ring is full.
+     */
+    public void submit(Material material, double dirtDegree) throws InterruptedException {
+        requireReading(material, dirtDegree);
+        long sequence;
+        while ((sequence = tryClaim()) < 0) {
+            if (closed) {
+                throw new RejectedExecutionException("telemetry is closed");
+            }
+            LockSupport.parkNanos(50_000L);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+        publish(sequence, material, dirtDegree);
+    }
+
+    /**
+     * Returns the statistics of the window ending with the pane that is currently open.
+     */
+    public DirtWindow window(Material material) {
+        requireNonNull(material, "material == null");
+        synchronized (lock) {
+            return mergeWindow(material, currentPane);
+        }
+    }
+
+    public long getAcceptedCount() {
+        return consumed.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getLateCount() {
+        return late.sum();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(aggregator);
+        try {
+            aggregator.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+        }
+    }
+
+    private static void requireReading(Material material, double dirtDegree) {
+        requireNonNull(material, "material == null");
+        if (Double.isNaN(dirtDegree)) {
+            throw new IllegalArgumentException("value must be in range <0,100>");
+        }
+        Percentage.requireInRange(dirtDegree);
+    }
+
+    private long tryClaim() {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (closed || sequence - consumed.get() > mask) {
+                return -1;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+        return sequence;
+    }
+
+    private void publish(long sequence, Material material, double dirtDegree) {
+        int slot = (int) (sequence & mask);
+        timestamps[slot] = clock.getAsLong();
+        degrees[slot] = dirtDegree;
+        materials[slot] = (byte) material.ordinal();
+        published.lazySet(slot, sequence + 1);
+    }
+
+    private void aggregateLoop() {
+        while (true) {
+            boolean closing = closed;
+            int drained;
+            synchronized (lock) {
+                drained = drain();
+                advanceTo(Math.floorDiv(clock.getAsLong(), paneMillis));
+            }
+            if (closing && drained == 0 && consumed.get() == claimed.get()) {
+                return;
+            }
+            if (drained == 0) {
+                LockSupport.parkNanos(1_000_000L);
+            }
+        }
+    }
+
+    private int drain() {
+        long next = consumed.get();
+        int drained = 0;
+        while (drained < MAX_DRAIN_BATCH) {
+            int slot = (int) (next & mask);
+            if (published.get(slot) != next + 1) {
+                break;
+            }
+            aggregate(MATERIALS[materials[slot]], degrees[slot], timestamps[slot]);
+            next++;
+            drained++;
+        }
+        consumed.lazySet(next);
+        return drained;
+    }
+
+    private void aggregate(Material material, double dirtDegree, long timestampMillis) {
+        long pane = Math.floorDiv(timestampMillis, paneMillis);
+        if (pane > currentPane) {
+            advanceTo(pane);
+        }
+        if (pane <= currentPane - panesPerWindow) {
+            late.increment();
+            return;
+        }
+        panes[material.ordinal()][Math.floorMod(pane, panesPerWindow)].add(dirtDegree,
+                dirtDegree > programPolicy.getLongAbove(material));
+    }
+
+    private void advanceTo(long pane) {
+        for (long closing = currentPane; closing < pane && closing < currentPane + panesPerWindow; closing++) {
+            if (listener != null) {
+                for (Material material : MATERIALS) {
+                    DirtWindow window = mergeWindow(material, closing);
+                    if (window.getCount() > 0) {
+                        listener.onWindowClosed(window);
+                    }
+                }
+            }
+            int expiring = Math.floorMod(closing + 1, panesPerWindow);
+            for (DirtSketch[] materialPanes : panes) {
+                materialPanes[expiring].clear();
+            }
+        }
+        currentPane = Math.max(currentPane, pane);
+    }
+
+    private DirtWindow mergeWindow(Material material, long lastPane) {
+        merged.clear();
+        for (DirtSketch pane : panes[material.ordinal()]) {
+            merged.addAll(pane);
+        }
+        return new DirtWindow(material, (lastPane - panesPerWindow + 1) * paneMillis, (lastPane + 1) * paneMillis,
+                programPolicy.getLongAbove(material), merged);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private Duration window = Duration.ofMinutes(5);
+        private Duration slide;
+        private int ringCapacity = 1 << 16;
+        private ProgramPolicy programPolicy = ProgramPolicy.defaults();
+        private LongSupplier clock = System::currentTimeMillis;
+        private WindowListener listener;
+
+        private Builder() {}
+
+        public Builder withWindow(Duration window) {
+            this.window = window;
+            return this;
+        }
+
+        public Builder withSlide(Duration slide) {
+            this.slide = slide;
+            return this;
+        }
+
+        public Builder withRingCapacity(int ringCapacity) {
+            this.ringCapacity = ringCapacity;
+            return this;
+        }
+
+        public Builder withProgramPolicy(ProgramPolicy programPolicy) {
+            this.programPolicy = programPolicy;
+            return this;
+        }
+
+        public Builder withClock(LongSupplier clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public Builder withListener(WindowListener listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        public DirtTelemetry build() {
+            return new DirtTelemetry(this);
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+public class DirtWindow {
+
+    private final Material material;
+    private final long startMillis;
+    private final long endMillis;
+    private final double longAbove;
+    private final int[] counts;
+    private final long count;
+    private final double mean;
+    private final double min;
+    private final double max;
+    private final long aboveThreshold;
+
+    DirtWindow(Material material, long startMillis, long endMillis, double longAbove, DirtSketch sketch) {
+        this.material = material;
+        this.startMillis = startMillis;
+        this.endMillis = endMillis;
+        this.longAbove = longAbove;
+        this.counts = sketch.counts.clone();
+        this.count = sketch.count;
+        this.mean = sketch.count == 0 ? Double.NaN : sketch.sum / sketch.count;
+        this.min = sketch.count == 0 ? Double.NaN : sketch.min;
+        this.max = sketch.count == 0 ? Double.NaN : sketch.max;
+        this.aboveThreshold = sketch.aboveThreshold;
+    }
+
+    public Material getMaterial() {
+        return material;
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    public long getEndMillis() {
+        return endMillis;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public double percentile(double quantile) {
+        return DirtSketch.percentile(counts, count, min, max, quantile);
+    }
+
+    /**
+     * Dirt degree above which the program policy picked LONG for this material while the window was open.
+     */
+    public double getLongAbove() {
+        return longAbove;
+    }
+
+    /**
+     * Share of readings that AUTODETECT sends to the LONG program, exact rather than estimated from buckets.
+     */
+    public double getLongShare() {
+        return count == 0 ? Double.NaN : (double) aboveThreshold / count;
+    }
+
+    @Override
+    public String toString() {
+        return "DirtWindow [material=" + material + ", startMillis=" + startMillis + ", endMillis=" + endMillis
+               + ", count=" + count + ", mean=" + mean + ", p50=" + percentile(0.5d) + ", p90=" + percentile(0.9d)
+               + ", p99=" + percentile(0.99d) + ", longShare=" + getLongShare() + "]";
+    }
+
+}
@@ -5,5 +5,8 @@ public enum ErrorCode {
     TOO_HEAVY,
     ENGINE_FAILURE,
     WATER_PUMP_FAILURE,
-    UNKNOWN_ERROR
+    UNKNOWN_ERROR,
+    TIMEOUT,
+    MACHINE_BUSY,
+    CANCELLED
 }
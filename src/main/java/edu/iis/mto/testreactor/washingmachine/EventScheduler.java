@@ -0,0 +1,81 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.PriorityQueue;
+
+public class EventScheduler {
+
+    private final VirtualClock clock;
+    private final PriorityQueue<Event> events = new PriorityQueue<>();
+    private long sequence;
+
+    public EventScheduler(VirtualClock clock) {
+        this.clock = requireNonNull(clock, "clock == null");
+    }
+
+    public void schedule(long atSeconds, Runnable action) {
+        requireNonNull(action, "action == null");
+        if (atSeconds < clock.now()) {
+            throw new IllegalArgumentException("cannot schedule an event in the past");
+        }
+        events.add(new Event(atSeconds, sequence++, action));
+    }
+
+    public void scheduleAfter(long delaySeconds, Runnable action) {
+        schedule(clock.now() + delaySeconds, action);
+    }
+
+    public long runUntil(long horizonSeconds) {
+        long processed = 0;
+        while (!events.isEmpty() && events.peek().atSeconds <= horizonSeconds) {
+            Event event = events.poll();
+            clock.set(event.atSeconds);
+            event.action.run();
+            processed++;
+        }
+        if (clock.now() < horizonSeconds) {
+            clock.set(horizonSeconds);
+        }
+        return processed;
+    }
+
+    public long runAll() {
+        long processed = 0;
+        while (!events.isEmpty()) {
+            Event event = events.poll();
+            clock.set(event.atSeconds);
+            event.action.run();
+            processed++;
+        }
+        return processed;
+    }
+
+    public int pending() {
+        return events.size();
+    }
+
+    public VirtualClock getClock() {
+        return clock;
+    }
+
+    private static final class Event implements Comparable<Event> {
+
+        private final long atSeconds;
+        private final long sequence;
+        private final Runnable action;
+
+        private Event(long atSeconds, long sequence, Runnable action) {
+            this.atSeconds = atSeconds;
+            this.sequence = sequence;
+            this.action = action;
+        }
+
+        @Override
+        public int compareTo(Event other) {
+            int byTime = Long.compare(atSeconds, other.atSeconds);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+
+}
@@ -0,0 +1,31 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Random;
+
+public class FaultyEngine implements Engine {
+
+    private final DeviceFaults faults;
+    private final Random random;
+
+    public FaultyEngine(DeviceFaults faults, Random random) {
+        this.faults = requireNonNull(faults, "faults == null");
+        this.random = requireNonNull(random, "random == null");
+    }
+
+    @Override
+    public void runWashing(int timeInMinutes) throws EngineException {
+        if (faults.apply(random)) {
+            throw new EngineException();
+        }
+    }
+
+    @Override
+    public void spin() throws EngineException {
+        if (faults.apply(random)) {
+            throw new EngineException();
+        }
+    }
+
+}
@@ -0,0 +1,31 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Random;
+
+public class FaultyWaterPump implements WaterPump {
+
+    private final DeviceFaults faults;
+    private final Random random;
+
+    public FaultyWaterPump(DeviceFaults faults, Random random) {
+        this.faults = requireNonNull(faults, "faults == null");
+        this.random = requireNonNull(random, "random == null");
+    }
+
+    @Override
+    public void pour(double weigth) throws WaterPumpException {
+        if (faults.apply(random)) {
+            throw new WaterPumpException();
+        }
+    }
+
+    @Override
+    public void release() throws WaterPumpException {
+        if (faults.apply(random)) {
+            throw new WaterPumpException();
+        }
+    }
+
+}
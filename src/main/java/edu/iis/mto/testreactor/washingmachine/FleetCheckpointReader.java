@@ -0,0 +1,58 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32C;
+
+public final class FleetCheckpointReader {
+
+    private FleetCheckpointReader() {}
+
+    /**
+     * Loads the base snapshot and applies every complete delta frame after it; a torn or corrupt frame at the tail is
+     * where the previous controller stopped and ends the replay.
+     */
+    public static FleetSnapshot load(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buffer.remaining() < FleetCheckpointer.BASE_HEADER_SIZE || buffer.getInt() != FleetCheckpointer.MAGIC
+                || buffer.getShort() != FleetCheckpointer.VERSION) {
+            throw new IOException("not a fleet checkpoint: " + file);
+        }
+        int machineCount = buffer.getInt();
+        int baseSize = FleetCheckpointer.BASE_HEADER_SIZE + machineCount * Long.BYTES;
+        if (machineCount <= 0 || buffer.limit() < baseSize + Integer.BYTES || !checksumMatches(buffer, 0, baseSize)) {
+            throw new IOException("corrupt fleet checkpoint base: " + file);
+        }
+        long[] machines = new long[machineCount];
+        buffer.asLongBuffer()
+              .get(machines);
+        buffer.position(baseSize + Integer.BYTES);
+        while (buffer.remaining() >= Integer.BYTES) {
+            int frame = buffer.position();
+            int count = buffer.getInt(frame);
+            long size = Integer.BYTES + (long) count * FleetCheckpointer.DELTA_RECORD_SIZE;
+            if (count <= 0 || count > machineCount || buffer.remaining() < size + Integer.BYTES
+                    || !checksumMatches(buffer, frame, (int) size)) {
+                break;
+            }
+            for (int i = 0, offset = frame + Integer.BYTES; i < count; i++, offset += FleetCheckpointer.DELTA_RECORD_SIZE) {
+                int machine = buffer.getInt(offset);
+                if (machine < 0 || machine >= machineCount) {
+                    throw new IOException("fleet checkpoint delta names machine " + machine + " of " + machineCount);
+                }
+                machines[machine] = buffer.getLong(offset + Integer.BYTES);
+            }
+            buffer.position(frame + (int) size + Integer.BYTES);
+        }
+        return new FleetSnapshot(machines);
+    }
+
+    private static boolean checksumMatches(ByteBuffer buffer, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), offset, length);
+        return (int) crc.getValue() == buffer.getInt(offset + length);
+    }
+
+}
@@ -0,0 +1,298 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32C;
+
+/**
+ * Checkpoints the cycle state of every machine of a fleet to a single local file. Each machine's state, program,
+ * batch and spin flag is packed into one long that the machine's {@link MachineStateListener} overwrites and flags as
+ * dirty without locking. Every flush interval the dirty machines are appended as a delta frame of 12 bytes per
+ * machine; once the deltas outgrow a full snapshot the file is atomically replaced by a new base of 8 bytes per
+ * machine. Frames carry a CRC32C, so a frame torn by a crash is ignored by {@link FleetCheckpointReader}.
+ */
+public class FleetCheckpointer implements AutoCloseable {
+
+    static final int MAGIC = 0x464C4350;
+    static final short VERSION = 1;
+    static final int BASE_HEADER_SIZE = Integer.BYTES + Short.BYTES + Integer.BYTES;
+    static final int DELTA_RECORD_SIZE = Integer.BYTES + Long.BYTES;
+
+    private static final MachineState[] STATES = MachineState.values();
+
+    private final Path file;
+    private final Path tempFile;
+    private final int machineCount;
+    private final long flushIntervalNanos;
+    private final AtomicLongArray machines;
+    private final AtomicLongArray dirty;
+    private final Object lock = new Object();
+    private final ByteBuffer buffer;
+    private final CRC32C crc = new CRC32C();
+    private final Thread flusher;
+    private FileChannel channel;
+    private long deltaBytes;
+    private long deltaCount;
+    private long baseCount;
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    private FleetCheckpointer(Builder builder) throws IOException {
+        this.file = requireNonNull(builder.file, "file == null");
+        requireNonNull(builder.flushInterval, "flushInterval == null");
+        int count = builder.initialState != null ? builder.initialState.getMachineCount() : builder.machineCount;
+        if (count <= 0) {
+            throw new IllegalArgumentException("machineCount must be positive");
+        }
+        if (builder.flushInterval.isNegative() || builder.flushInterval.isZero()) {
+            throw new IllegalArgumentException("flushInterval must be positive");
+        }
+        this.tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        this.machineCount = count;
+        this.flushIntervalNanos = builder.flushInterval.toNanos();
+        this.machines = new AtomicLongArray(machineCount);
+        this.dirty = new AtomicLongArray((machineCount + Long.SIZE - 1) / Long.SIZE);
+        if (builder.initialState != null) {
+            for (int i = 0; i < machineCount; i++) {
+                machines.set(i, builder.initialState.packed(i));
+            }
+        }
+        this.buffer = ByteBuffer.allocate(Math.max(BASE_HEADER_SIZE + machineCount * Long.BYTES,
+                Integer.BYTES + machineCount * DELTA_RECORD_SIZE) + Integer.BYTES);
+        synchronized (lock) {
+            writeBase();
+        }
+        this.flusher = WashingMachineFleet.daemonThreads("fleet-checkpointer-")
+                                          .newThread(this::flushLoop);
+        this.flusher.start();
+    }
+
+    /**
+     * Returns the listener to install on machine {@code machine} with
+     * {@link WashingMachine.Builder#withStateListener(MachineStateListener)}.
+     */
+    public MachineStateListener listener(int machine) {
+        if (machine < 0 || machine >= machineCount) {
+            throw new IndexOutOfBoundsException("machine " + machine + " out of range [0," + machineCount + ")");
+        }
+        return (state, laundryBatch, programConfiguration, program) -> update(machine,
+                pack(state, laundryBatch, programConfiguration, program));
+    }
+
+    public int getMachineCount() {
+        return machineCount;
+    }
+
+    public long getBaseCount() {
+        synchronized (lock) {
+            return baseCount;
+        }
+    }
+
+    public long getDeltaCount() {
+        synchronized (lock) {
+            return deltaCount;
+        }
+    }
+
+    /**
+     * Writes the changes since the last checkpoint and forces them to disk.
+     */
+    public void checkpoint() throws IOException {
+        synchronized (lock) {
+            if (deltaBytes > (long) machineCount * Long.BYTES) {
+                writeBase();
+            } else {
+                writeDelta();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+        }
+        synchronized (lock) {
+            try {
+                if (failure == null) {
+                    checkpoint();
+                }
+            } finally {
+                channel.close();
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void update(int machine, long packed) {
+        machines.set(machine, packed);
+        int word = machine >>> 6;
+        long bit = 1L << machine;
+        long flags;
+        while (((flags = dirty.get(word)) & bit) == 0 && !dirty.compareAndSet(word, flags, flags | bit)) {
+            // retry until the bit is set, by this thread or by a racing one
+        }
+    }
+
+    static long pack(MachineState state, LaundryBatch laundryBatch, ProgramConfiguration programConfiguration,
+            Program program) {
+        if (state == MachineState.IDLE || laundryBatch == null) {
+            return state.ordinal();
+        }
+        long programBits = program == null ? 0L : program.ordinal() + 1;
+        long materialBits = laundryBatch.getMaterialType()
+                                        .ordinal()
+                            + 1;
+        long spinBit = programConfiguration != null && programConfiguration.isSpin() ? 1L : 0L;
+        long weightBits = Float.floatToRawIntBits((float) laundryBatch.getWeightKg()) & 0xFFFFFFFFL;
+        return state.ordinal() | programBits << 8 | materialBits << 16 | spinBit << 24 | weightBits << 32;
+    }
+
+    static MachineState stateOf(long packed) {
+        return STATES[(int) packed & 0xFF];
+    }
+
+    private void flushLoop() {
+        while (!closed) {
+            LockSupport.parkNanos(flushIntervalNanos);
+            if (closed) {
+                return;
+            }
+            try {
+                checkpoint();
+            } catch (IOException e) {
+                failure = e;
+                return;
+            }
+        }
+    }
+
+    private void writeDelta() throws IOException {
+        buffer.clear()
+              .position(Integer.BYTES);
+        int count = 0;
+        for (int word = 0; word < dirty.length(); word++) {
+            if (dirty.get(word) == 0L) {
+                continue;
+            }
+            long flags = dirty.getAndSet(word, 0L);
+            while (flags != 0L) {
+                int machine = word << 6 | Long.numberOfTrailingZeros(flags);
+                flags &= flags - 1;
+                buffer.putInt(machine)
+                      .putLong(machines.get(machine));
+                count++;
+            }
+        }
+        if (count == 0) {
+            return;
+        }
+        buffer.putInt(0, count);
+        appendChecksum();
+        long written = buffer.remaining();
+        writeFully(channel);
+        channel.force(false);
+        deltaBytes += written;
+        deltaCount++;
+    }
+
+    private void writeBase() throws IOException {
+        for (int word = 0; word < dirty.length(); word++) {
+            dirty.set(word, 0L);
+        }
+        buffer.clear();
+        buffer.putInt(MAGIC)
+              .putShort(VERSION)
+              .putInt(machineCount);
+        for (int i = 0; i < machineCount; i++) {
+            buffer.putLong(machines.get(i));
+        }
+        appendChecksum();
+        try (FileChannel base = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(base);
+            base.force(true);
+        }
+        if (channel != null) {
+            channel.close();
+        }
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        deltaBytes = 0L;
+        baseCount++;
+    }
+
+    private void appendChecksum() {
+        crc.reset();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+    }
+
+    private void writeFully(FileChannel target) throws IOException {
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private Path file;
+        private int machineCount;
+        private Duration flushInterval = Duration.ofMillis(100);
+        private FleetSnapshot initialState;
+
+        private Builder() {}
+
+        public Builder withFile(Path file) {
+            this.file = file;
+            return this;
+        }
+
+        public Builder withMachineCount(int machineCount) {
+            this.machineCount = machineCount;
+            return this;
+        }
+
+        public Builder withFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+            return this;
+        }
+
+        /**
+         * Starts from a recovered snapshot instead of every machine being idle, so machines not yet compensated stay
+         * recorded if the controller dies again during recovery.
+         */
+        public Builder withInitialState(FleetSnapshot initialState) {
+            this.initialState = initialState;
+            return this;
+        }
+
+        public FleetCheckpointer build() throws IOException {
+            return new FleetCheckpointer(this);
+        }
+    }
+
+}
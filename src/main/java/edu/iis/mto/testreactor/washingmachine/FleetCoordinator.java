@@ -0,0 +1,207 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Routes start requests to the node owning a machine. Ownership follows a consistent-hash ring, so a node joining
+ * or leaving moves only the machines on the arcs it gains or loses. A moved machine is relinquished by its previous
+ * owner and answers {@link ErrorCode#MACHINE_BUSY} until the cycles accepted there have finished; only then do its
+ * requests go to the new owner, so two nodes never drive the same machine.
+ */
+public class FleetCoordinator {
+
+    private final Transport transport;
+    private final LongSupplier ticker;
+    private final Set<String> machines = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<String, Shard> shards = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> handoffs = new ConcurrentHashMap<>();
+    private volatile HashRing ring;
+
+    private FleetCoordinator(Builder builder) {
+        this.transport = requireNonNull(builder.transport, "transport == null");
+        this.ticker = requireNonNull(builder.ticker, "ticker == null");
+        this.ring = HashRing.empty(builder.virtualNodes);
+    }
+
+    public CompletableFuture<LaundryStatus> start(String machineId, LaundryBatch laundryBatch,
+            ProgramConfiguration programConfiguration) {
+        StartRequest request = new StartRequest(machineId, laundryBatch, programConfiguration);
+        HashRing current = ring;
+        if (current.isEmpty()) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("no fleet nodes available"));
+        }
+        machines.add(machineId);
+        if (handoffs.containsKey(machineId)) {
+            return CompletableFuture.completedFuture(WashingMachine.error(ErrorCode.MACHINE_BUSY, null));
+        }
+        String nodeId = current.ownerOf(machineId);
+        Shard shard = shards.get(nodeId);
+        if (shard == null) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("node " + nodeId + " has left"));
+        }
+        shard.routed.increment();
+        shard.outstanding.incrementAndGet();
+        return transport.start(nodeId, request)
+                        .whenComplete((status, failure) -> shard.completed(status, failure));
+    }
+
+    public void registerMachine(String machineId) {
+        machines.add(requireNonNull(machineId, "machineId == null"));
+    }
+
+    public String ownerOf(String machineId) {
+        return ring.ownerOf(machineId);
+    }
+
+    /**
+     * Adds a node to the ring. The returned future completes with the machines whose ownership moved to it once their
+     * previous owners have finished the cycles they accepted for them.
+     */
+    public synchronized CompletableFuture<List<String>> join(String nodeId) {
+        requireNonNull(nodeId, "nodeId == null");
+        HashRing before = ring;
+        HashRing after = before.withNode(nodeId);
+        if (after == before) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        shards.put(nodeId, new Shard(ticker.getAsLong()));
+        return rebalance(before, after);
+    }
+
+    /**
+     * Removes a node from the ring. The returned future completes with the machines handed over to the remaining
+     * nodes once the leaving node has finished the cycles it accepted for them.
+     */
+    public synchronized CompletableFuture<List<String>> leave(String nodeId) {
+        HashRing before = ring;
+        HashRing after = before.withoutNode(nodeId);
+        if (after == before) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        CompletableFuture<List<String>> moved = rebalance(before, after);
+        shards.remove(nodeId);
+        return moved;
+    }
+
+    public Set<String> getNodes() {
+        return ring.getNodes();
+    }
+
+    public Map<String, ShardMetrics> shardMetrics() {
+        HashRing current = ring;
+        Map<String, Integer> owned = new HashMap<>();
+        if (!current.isEmpty()) {
+            for (String machineId : machines) {
+                owned.merge(current.ownerOf(machineId), 1, Integer::sum);
+            }
+        }
+        long now = ticker.getAsLong();
+        Map<String, ShardMetrics> metrics = new TreeMap<>();
+        shards.forEach((nodeId, shard) -> metrics.put(nodeId, shard.snapshot(nodeId, owned.getOrDefault(nodeId, 0), now)));
+        return metrics;
+    }
+
+    /**
+     * Asks the previous owner of every moved machine to relinquish it and holds the machine's requests until it has,
+     * then publishes the new ring. An unreachable previous owner counts as relinquished.
+     */
+    private CompletableFuture<List<String>> rebalance(HashRing before, HashRing after) {
+        List<String> moved = new ArrayList<>();
+        List<CompletableFuture<Void>> relinquished = new ArrayList<>();
+        for (String machineId : machines) {
+            String previousOwner = before.isEmpty() ? null : before.ownerOf(machineId);
+            String newOwner = after.isEmpty() ? null : after.ownerOf(machineId);
+            if (previousOwner != null && !previousOwner.equals(newOwner)) {
+                moved.add(machineId);
+                relinquished.add(handOff(machineId, previousOwner));
+            }
+        }
+        ring = after;
+        return CompletableFuture.allOf(relinquished.toArray(new CompletableFuture<?>[0]))
+                                .thenApply(ignored -> moved);
+    }
+
+    private CompletableFuture<Void> handOff(String machineId, String previousOwner) {
+        CompletableFuture<Void> relinquished = transport.relinquish(previousOwner, machineId)
+                                                        .exceptionally(failure -> null);
+        CompletableFuture<Void> handoff = handoffs.compute(machineId, (id, pending) -> pending == null ? relinquished
+                : CompletableFuture.allOf(pending, relinquished));
+        handoff.whenComplete((ignored, failure) -> handoffs.remove(machineId, handoff));
+        return handoff;
+    }
+
+    private static final class Shard {
+
+        private final long joinedAt;
+        private final LongAdder routed = new LongAdder();
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final AtomicInteger outstanding = new AtomicInteger();
+
+        private Shard(long joinedAt) {
+            this.joinedAt = joinedAt;
+        }
+
+        private void completed(LaundryStatus status, Throwable failure) {
+            outstanding.decrementAndGet();
+            if (failure != null || status.getResult() != Result.SUCCESS) {
+                failed.increment();
+            } else {
+                completed.increment();
+            }
+        }
+
+        private ShardMetrics snapshot(String nodeId, int ownedMachines, long now) {
+            long done = completed.sum();
+            double seconds = (now - joinedAt) / 1_000_000_000.0d;
+            return new ShardMetrics(nodeId, ownedMachines, routed.sum(), done, failed.sum(), outstanding.get(),
+                    seconds > 0 ? done / seconds : 0.0d);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private Transport transport;
+        private int virtualNodes = HashRing.DEFAULT_VIRTUAL_NODES;
+        private LongSupplier ticker = System::nanoTime;
+
+        private Builder() {}
+
+        public Builder withTransport(Transport transport) {
+            this.transport = transport;
+            return this;
+        }
+
+        public Builder withVirtualNodes(int virtualNodes) {
+            this.virtualNodes = virtualNodes;
+            return this;
+        }
+
+        public Builder withTicker(LongSupplier ticker) {
+            this.ticker = ticker;
+            return this;
+        }
+
+        public FleetCoordinator build() {
+            return new FleetCoordinator(this);
+        }
+    }
+
+}
@@ -0,0 +1,139 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * One shard of a sharded fleet. Machines are created on first use from the machine factory and dropped again when
+ * the coordinator moves their ownership to another node, once the cycles this node accepted for them have finished.
+ */
+public class FleetNode implements Transport.Handler, AutoCloseable {
+
+    private final String nodeId;
+    private final Transport transport;
+    private final Function<String, WashingMachine> machineFactory;
+    private final WashingMachineFleet fleet;
+    private final boolean ownsFleet;
+    private final ConcurrentHashMap<String, OwnedMachine> machines = new ConcurrentHashMap<>();
+
+    private FleetNode(Builder builder) {
+        this.nodeId = requireNonNull(builder.nodeId, "nodeId == null");
+        this.transport = requireNonNull(builder.transport, "transport == null");
+        this.machineFactory = requireNonNull(builder.machineFactory, "machineFactory == null");
+        this.ownsFleet = builder.fleet == null;
+        this.fleet = ownsFleet ? WashingMachineFleet.builder()
+                                                    .build()
+                : builder.fleet;
+        transport.bind(nodeId, this);
+    }
+
+    @Override
+    public CompletableFuture<LaundryStatus> onStart(StartRequest request) {
+        OwnedMachine owned = machines.computeIfAbsent(request.getMachineId(),
+                machineId -> new OwnedMachine(machineFactory.apply(machineId)));
+        synchronized (owned) {
+            if (owned.relinquished) {
+                return CompletableFuture.completedFuture(WashingMachine.error(ErrorCode.MACHINE_BUSY, null));
+            }
+            CompletableFuture<LaundryStatus> status = fleet.trySubmit(owned.machine, request.getLaundryBatch(),
+                    request.getProgramConfiguration());
+            owned.idle = owned.idle.isDone() ? status : CompletableFuture.allOf(owned.idle, status);
+            return status;
+        }
+    }
+
+    /**
+     * Refuses further starts for the machine and completes once every cycle already accepted for it has finished, so
+     * the new owner never drives a machine that is still washing here.
+     */
+    @Override
+    public CompletableFuture<Void> onRelinquish(String machineId) {
+        OwnedMachine owned = machines.get(machineId);
+        if (owned == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<?> idle;
+        synchronized (owned) {
+            owned.relinquished = true;
+            idle = owned.idle;
+        }
+        return idle.handle((ignored, failure) -> {
+            machines.remove(machineId, owned);
+            return null;
+        });
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public Set<String> ownedMachines() {
+        return machines.keySet();
+    }
+
+    public int queueDepth() {
+        return fleet.inFlight();
+    }
+
+    @Override
+    public void close() {
+        transport.unbind(nodeId);
+        if (ownsFleet) {
+            fleet.close();
+        }
+    }
+
+    private static final class OwnedMachine {
+
+        private final WashingMachine machine;
+        private CompletableFuture<?> idle = CompletableFuture.completedFuture(null);
+        private boolean relinquished;
+
+        private OwnedMachine(WashingMachine machine) {
+            this.machine = machine;
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private String nodeId;
+        private Transport transport;
+        private Function<String, WashingMachine> machineFactory;
+        private WashingMachineFleet fleet;
+
+        private Builder() {}
+
+        public Builder withNodeId(String nodeId) {
+            this.nodeId = nodeId;
+            return this;
+        }
+
+        public Builder withTransport(Transport transport) {
+            this.transport = transport;
+            return this;
+        }
+
+        public Builder withMachineFactory(Function<String, WashingMachine> machineFactory) {
+            this.machineFactory = machineFactory;
+            return this;
+        }
+
+        public Builder withFleet(WashingMachineFleet fleet) {
+            this.fleet = fleet;
+            return this;
+        }
+
+        public FleetNode build() {
+            return new FleetNode(this);
+        }
+    }
+
+}
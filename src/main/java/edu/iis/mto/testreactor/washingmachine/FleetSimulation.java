@@ -0,0 +1,204 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+import java.util.function.Function;
+
+public class FleetSimulation {
+
+    private static final Material[] MATERIALS = Material.values();
+
+    private final int machineCount;
+    private final double meanInterArrivalSeconds;
+    private final long seed;
+    private final Function<Random, LaundryBatch> batchGenerator;
+    private final Function<Random, ProgramConfiguration> configurationGenerator;
+    private final double failureProbability;
+    private final ProgramPolicy programPolicy;
+
+    private FleetSimulation(Builder builder) {
+        this.batchGenerator = requireNonNull(builder.batchGenerator, "batchGenerator == null");
+        this.configurationGenerator = requireNonNull(builder.configurationGenerator, "configurationGenerator == null");
+        this.programPolicy = requireNonNull(builder.programPolicy, "programPolicy == null");
+        if (builder.machineCount <= 0) {
+            throw new IllegalArgumentException("machineCount must be positive");
+        }
+        if (!(builder.meanInterArrivalSeconds > 0.0d)) {
+            throw new IllegalArgumentException("meanInterArrivalSeconds must be positive");
+        }
+        if (!(builder.failureProbability >= 0.0d && builder.failureProbability <= 1.0d)) {
+            throw new IllegalArgumentException("failureProbability must be in range <0,1>");
+        }
+        this.machineCount = builder.machineCount;
+        this.meanInterArrivalSeconds = builder.meanInterArrivalSeconds;
+        this.seed = builder.seed;
+        this.failureProbability = builder.failureProbability;
+    }
+
+    public SimulationReport run(long horizonSeconds) {
+        return new Run(horizonSeconds).execute();
+    }
+
+    private final class Run {
+
+        private final long horizonSeconds;
+        private final Random random = new Random(seed);
+        private final VirtualClock clock = new VirtualClock();
+        private final EventScheduler scheduler = new EventScheduler(clock);
+        private final VirtualClock[] machineClocks = new VirtualClock[machineCount];
+        private final WashingMachine[] machines = new WashingMachine[machineCount];
+        private final ArrayDeque<Integer> idleMachines = new ArrayDeque<>();
+        private final ArrayDeque<Job> queue = new ArrayDeque<>();
+        private final SimulationReport.Accumulator report;
+
+        private Run(long horizonSeconds) {
+            if (horizonSeconds <= 0) {
+                throw new IllegalArgumentException("horizonSeconds must be positive");
+            }
+            this.horizonSeconds = horizonSeconds;
+            this.report = new SimulationReport.Accumulator(machineCount, horizonSeconds);
+            for (int i = 0; i < machineCount; i++) {
+                VirtualClock machineClock = new VirtualClock();
+                Random deviceRandom = new Random(seed * 31 + i);
+                machineClocks[i] = machineClock;
+                Engine engine = new SimulatedEngine(machineClock, SimulatedEngine.DEFAULT_SPIN_SECONDS,
+                        failureProbability, deviceRandom);
+                WaterPump waterPump = new SimulatedWaterPump(machineClock, SimulatedWaterPump.DEFAULT_POUR_SECONDS_PER_KG,
+                        SimulatedWaterPump.DEFAULT_RELEASE_SECONDS, failureProbability, deviceRandom);
+                machines[i] = WashingMachine.builder()
+                                            .withDirtDetector(new SimulatedDirtDetector(machineClock, 30, deviceRandom))
+                                            .withEngine(engine)
+                                            .withWaterPump(waterPump)
+                                            .withProgramPolicy(programPolicy)
+                                            .build();
+                idleMachines.add(i);
+            }
+        }
+
+        private SimulationReport execute() {
+            scheduleNextArrival();
+            scheduler.runUntil(horizonSeconds);
+            return report.build(queue.size());
+        }
+
+        private void scheduleNextArrival() {
+            long delay = (long) Math.ceil(-Math.log(1.0d - random.nextDouble()) * meanInterArrivalSeconds);
+            long at = clock.now() + delay;
+            if (at <= horizonSeconds) {
+                scheduler.schedule(at, this::arrive);
+            }
+        }
+
+        private void arrive() {
+            queue.add(new Job(batchGenerator.apply(random), configurationGenerator.apply(random), clock.now()));
+            report.queueLength(queue.size());
+            dispatch();
+            scheduleNextArrival();
+        }
+
+        private void dispatch() {
+            while (!queue.isEmpty() && !idleMachines.isEmpty()) {
+                Job job = queue.poll();
+                int machine = idleMachines.poll();
+                long startedAt = clock.now();
+                machineClocks[machine].reset(startedAt);
+                LaundryStatus status = machines[machine].start(job.laundryBatch, job.programConfiguration);
+                long finishedAt = Math.max(machineClocks[machine].now(), startedAt + 1);
+                report.cycleStarted(machine, startedAt - job.arrivedAt, startedAt, finishedAt);
+                scheduler.schedule(finishedAt, () -> finish(machine, status));
+            }
+        }
+
+        private void finish(int machine, LaundryStatus status) {
+            report.cycleFinished(status);
+            idleMachines.add(machine);
+            dispatch();
+        }
+    }
+
+    private static final class Job {
+
+        private final LaundryBatch laundryBatch;
+        private final ProgramConfiguration programConfiguration;
+        private final long arrivedAt;
+
+        private Job(LaundryBatch laundryBatch, ProgramConfiguration programConfiguration, long arrivedAt) {
+            this.laundryBatch = laundryBatch;
+            this.programConfiguration = programConfiguration;
+            this.arrivedAt = arrivedAt;
+        }
+    }
+
+    static LaundryBatch randomBatch(Random random) {
+        Material material = MATERIALS[random.nextInt(MATERIALS.length)];
+        double maxWeightKg = ProgramPolicy.defaults()
+                                          .getMaxWeightKg(material);
+        return LaundryBatch.builder()
+                           .withMaterialType(material)
+                           .withWeightKg(0.5d + random.nextDouble() * (maxWeightKg - 0.5d) * 0.99d)
+                           .build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private static final ProgramConfiguration AUTODETECT = ProgramConfiguration.builder()
+                                                                                   .withProgram(Program.AUTODETECT)
+                                                                                   .build();
+
+        private int machineCount = 1;
+        private double meanInterArrivalSeconds = 3600;
+        private long seed;
+        private Function<Random, LaundryBatch> batchGenerator = FleetSimulation::randomBatch;
+        private Function<Random, ProgramConfiguration> configurationGenerator = random -> AUTODETECT;
+        private double failureProbability;
+        private ProgramPolicy programPolicy = ProgramPolicy.defaults();
+
+        private Builder() {}
+
+        public Builder withMachineCount(int machineCount) {
+            this.machineCount = machineCount;
+            return this;
+        }
+
+        public Builder withMeanInterArrivalSeconds(double meanInterArrivalSeconds) {
+            this.meanInterArrivalSeconds = meanInterArrivalSeconds;
+            return this;
+        }
+
+        public Builder withSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder withBatchGenerator(Function<Random, LaundryBatch> batchGenerator) {
+            this.batchGenerator = batchGenerator;
+            return this;
+        }
+
+        public Builder withConfigurationGenerator(Function<Random, ProgramConfiguration> configurationGenerator) {
+            this.configurationGenerator = configurationGenerator;
+            return this;
+        }
+
+        public Builder withFailureProbability(double failureProbability) {
+            this.failureProbability = failureProbability;
+            return this;
+        }
+
+        public Builder withProgramPolicy(ProgramPolicy programPolicy) {
+            this.programPolicy = programPolicy;
+            return this;
+        }
+
+        public FleetSimulation build() {
+            return new FleetSimulation(this);
+        }
+    }
+
+}
@@ -0,0 +1,140 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * The recorded cycle state of every machine of a fleet, as loaded by {@link FleetCheckpointReader}. A restarted
+ * controller either resumes a machine with {@link #getLaundryBatch} and {@link #getProgramConfiguration} or drains it
+ * with {@link #compensate}. The batch weight is kept at float precision.
+ */
+public class FleetSnapshot {
+
+    private static final Program[] PROGRAMS = Program.values();
+    private static final Material[] MATERIALS = Material.values();
+
+    private final long[] machines;
+
+    FleetSnapshot(long[] machines) {
+        this.machines = machines;
+    }
+
+    public int getMachineCount() {
+        return machines.length;
+    }
+
+    public MachineState getState(int machine) {
+        return FleetCheckpointer.stateOf(machines[machine]);
+    }
+
+    /**
+     * Returns the program the cycle was running, or null if the machine was idle or still detecting dirt.
+     */
+    public Program getProgram(int machine) {
+        int program = (int) (machines[machine] >>> 8) & 0xFF;
+        return program == 0 ? null : PROGRAMS[program - 1];
+    }
+
+    /**
+     * Returns the batch in the machine, or null if it was idle.
+     */
+    public LaundryBatch getLaundryBatch(int machine) {
+        long packed = machines[machine];
+        int material = (int) (packed >>> 16) & 0xFF;
+        if (material == 0) {
+            return null;
+        }
+        return new LaundryBatch(Float.intBitsToFloat((int) (packed >>> 32)), MATERIALS[material - 1]);
+    }
+
+    public boolean isSpin(int machine) {
+        return (machines[machine] >>> 24 & 1L) != 0L;
+    }
+
+    /**
+     * Returns the configuration to resume the cycle with, or null if no program had been chosen.
+     */
+    public ProgramConfiguration getProgramConfiguration(int machine) {
+        Program program = getProgram(machine);
+        return program == null ? null : ProgramConfiguration.of(program, isSpin(machine));
+    }
+
+    /**
+     * Returns whether water may have been poured and not released: the controller stopped between the start of
+     * pouring and the end of releasing, or the cycle failed with a batch inside.
+     */
+    public boolean mayHoldWater(int machine) {
+        switch (getState(machine)) {
+            case POURING:
+            case WASHING:
+            case RELEASING:
+                return true;
+            case FAILED:
+                return getLaundryBatch(machine) != null;
+            default:
+                return false;
+        }
+    }
+
+    public int[] getMachinesHoldingWater() {
+        int[] holding = new int[machines.length];
+        int count = 0;
+        for (int i = 0; i < machines.length; i++) {
+            if (mayHoldWater(i)) {
+                holding[count++] = i;
+            }
+        }
+        return Arrays.copyOf(holding, count);
+    }
+
+    /**
+     * Calls {@link WaterPump#release()} on every machine that {@link #mayHoldWater may hold water}, on
+     * {@code parallelism} threads, and returns the machines whose release failed.
+     */
+    public int[] compensate(IntFunction<WaterPump> waterPumps, int parallelism) throws InterruptedException {
+        requireNonNull(waterPumps, "waterPumps == null");
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        int[] holding = getMachinesHoldingWater();
+        boolean[] failed = new boolean[holding.length];
+        AtomicInteger next = new AtomicInteger();
+        Runnable drain = () -> {
+            int i;
+            while ((i = next.getAndIncrement()) < holding.length) {
+                try {
+                    waterPumps.apply(holding[i])
+                              .release();
+                } catch (WaterPumpException | RuntimeException e) {
+                    failed[i] = true;
+                }
+            }
+        };
+        ThreadFactory threads = WashingMachineFleet.daemonThreads("fleet-compensation-");
+        Thread[] workers = new Thread[Math.min(parallelism, Math.max(1, holding.length))];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = threads.newThread(drain);
+            workers[i].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        int[] failures = new int[holding.length];
+        int count = 0;
+        for (int i = 0; i < holding.length; i++) {
+            if (failed[i]) {
+                failures[count++] = holding[i];
+            }
+        }
+        return Arrays.copyOf(failures, count);
+    }
+
+    long packed(int machine) {
+        return machines[machine];
+    }
+
+}
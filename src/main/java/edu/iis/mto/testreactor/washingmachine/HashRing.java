@@ -0,0 +1,108 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Immutable consistent-hash ring with virtual nodes. Adding or removing a node only moves the keys that fall into the
+ * arcs of that node's virtual points, roughly {@code 1 / nodes} of all keys.
+ */
+public final class HashRing {
+
+    public static final int DEFAULT_VIRTUAL_NODES = 128;
+
+    private final int virtualNodes;
+    private final Set<String> nodes;
+    private final long[] points;
+    private final String[] owners;
+
+    private HashRing(int virtualNodes, Set<String> nodes) {
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("virtualNodes must be positive");
+        }
+        this.virtualNodes = virtualNodes;
+        this.nodes = Collections.unmodifiableSet(nodes);
+        TreeMap<Long, String> ring = new TreeMap<>();
+        for (String node : nodes) {
+            for (int replica = 0; replica < virtualNodes; replica++) {
+                ring.merge(hash(node + '#' + replica), node, (left, right) -> left.compareTo(right) <= 0 ? left : right);
+            }
+        }
+        this.points = new long[ring.size()];
+        this.owners = new String[ring.size()];
+        int i = 0;
+        for (Map.Entry<Long, String> point : ring.entrySet()) {
+            points[i] = point.getKey();
+            owners[i++] = point.getValue();
+        }
+    }
+
+    public static HashRing empty() {
+        return empty(DEFAULT_VIRTUAL_NODES);
+    }
+
+    public static HashRing empty(int virtualNodes) {
+        return new HashRing(virtualNodes, new TreeSet<>());
+    }
+
+    public HashRing withNode(String node) {
+        requireNonNull(node, "node == null");
+        if (nodes.contains(node)) {
+            return this;
+        }
+        Set<String> changed = new TreeSet<>(nodes);
+        changed.add(node);
+        return new HashRing(virtualNodes, changed);
+    }
+
+    public HashRing withoutNode(String node) {
+        if (!nodes.contains(node)) {
+            return this;
+        }
+        Set<String> changed = new TreeSet<>(nodes);
+        changed.remove(node);
+        return new HashRing(virtualNodes, changed);
+    }
+
+    public String ownerOf(String key) {
+        requireNonNull(key, "key == null");
+        if (points.length == 0) {
+            throw new IllegalStateException("hash ring has no nodes");
+        }
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    public Set<String> getNodes() {
+        return nodes;
+    }
+
+    public boolean isEmpty() {
+        return nodes.isEmpty();
+    }
+
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+}
@@ -0,0 +1,435 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Queues laundry jobs in front of a set of machines. Jobs are ordered by weighted fair queueing over the priority tiers:
+ * a job is tagged {@code max(virtualTime, last tag of its tier) + programMinutes / tierWeight}, so every tier gets
+ * machine time in proportion to its weight and, within that share, short programs go ahead of long ones. A job that
+ * has waited longer than {@code maxWait} is served before any tag, oldest first. Jobs only go to machines configured
+ * for their material; of the idle machines that qualify the least versatile one is used, so machines that also take
+ * DELICATE or WOOL stay free for those loads.
+ * <p>
+ * Enqueueing is a lock-free append. A single dispatcher thread moves new jobs into per-material heaps and, whenever
+ * jobs arrive or machines finish, matches all it can to idle machines in one pass.
+ */
+public class JobDispatcher implements AutoCloseable {
+
+    private static final Material[] MATERIALS = Material.values();
+    private static final PriorityTier[] TIERS = PriorityTier.values();
+    private static final Comparator<Job> BY_TAG = Comparator.comparingDouble((Job job) -> job.finishTag)
+                                                            .thenComparingLong(job -> job.sequence);
+
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final int[] weights = new int[TIERS.length];
+    private final long maxWaitNanos;
+    private final int maxQueued;
+    private final int servedMaterials;
+    private final int[][] masksByMaterial = new int[MATERIALS.length][];
+    private final ConcurrentLinkedQueue<Job> incoming = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Slot> freed = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder[] enqueued = new LongAdder[TIERS.length];
+    private final AtomicLongArray dispatched = new AtomicLongArray(TIERS.length);
+    private final LatencyHistogram[] waitTimes = new LatencyHistogram[TIERS.length];
+    private final LongAdder rejected = new LongAdder();
+    private final Thread dispatcher;
+    private volatile boolean sleeping;
+    private volatile boolean closed;
+
+    // owned by the dispatcher thread
+    private final List<PriorityQueue<Job>> byTag = new ArrayList<>(MATERIALS.length);
+    private final List<ArrayDeque<Job>> byArrival = new ArrayList<>(MATERIALS.length);
+    private final List<ArrayDeque<Slot>> idleByMask = new ArrayList<>(1 << MATERIALS.length);
+    private final double[] lastTag = new double[TIERS.length];
+    private double virtualTime;
+    private long sequence;
+    private int busyMachines;
+
+    private JobDispatcher(Builder builder) {
+        if (builder.machines.isEmpty()) {
+            throw new IllegalArgumentException("at least one machine is required");
+        }
+        if (builder.maxWait.isNegative()) {
+            throw new IllegalArgumentException("maxWait must not be negative");
+        }
+        if (builder.maxQueued <= 0) {
+            throw new IllegalArgumentException("maxQueued must be positive");
+        }
+        for (PriorityTier tier : TIERS) {
+            int weight = builder.weights.getOrDefault(tier, tier.getDefaultWeight());
+            if (weight <= 0) {
+                throw new IllegalArgumentException("weight of " + tier + " must be positive");
+            }
+            weights[tier.ordinal()] = weight;
+            enqueued[tier.ordinal()] = new LongAdder();
+            waitTimes[tier.ordinal()] = new LatencyHistogram();
+        }
+        this.maxWaitNanos = builder.maxWait.toNanos();
+        this.maxQueued = builder.maxQueued;
+        for (int mask = 0; mask < 1 << MATERIALS.length; mask++) {
+            idleByMask.add(new ArrayDeque<>());
+        }
+        int served = 0;
+        TreeSet<Integer> masks = new TreeSet<>(Comparator.comparingInt(Integer::bitCount)
+                                                         .thenComparingInt(Integer::intValue));
+        for (Slot slot : builder.machines) {
+            idleByMask.get(slot.mask)
+                      .add(slot);
+            masks.add(slot.mask);
+            served |= slot.mask;
+        }
+        this.servedMaterials = served;
+        for (Material material : MATERIALS) {
+            int bit = 1 << material.ordinal();
+            masksByMaterial[material.ordinal()] = masks.stream()
+                                                       .filter(mask -> (mask & bit) != 0)
+                                                       .mapToInt(Integer::intValue)
+                                                       .toArray();
+            byTag.add(new PriorityQueue<>(BY_TAG));
+            byArrival.add(new ArrayDeque<>());
+        }
+        this.ownsExecutor = builder.executor == null;
+        this.executor = ownsExecutor ? WashingMachineFleet.newVirtualThreadExecutor() : builder.executor;
+        this.dispatcher = WashingMachineFleet.daemonThreads("job-dispatcher-")
+                                             .newThread(this::dispatchLoop);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Queues a job; the returned future completes with the status of the cycle once a machine has run it. A full
+     * queue fails the future with {@link RejectedExecutionException}.
+     *
+     * @throws IllegalArgumentException if no machine is configured for the material of the batch
+     */
+    public CompletableFuture<LaundryStatus> enqueue(LaundryBatch laundryBatch, ProgramConfiguration programConfiguration,
+            PriorityTier tier) {
+        requireNonNull(laundryBatch, "laundryBatch == null");
+        requireNonNull(programConfiguration, "programConfiguration == null");
+        requireNonNull(tier, "tier == null");
+        Material material = laundryBatch.getMaterialType();
+        if ((servedMaterials & 1 << material.ordinal()) == 0) {
+            throw new IllegalArgumentException("no machine is configured for " + material);
+        }
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            rejected.increment();
+            return CompletableFuture.failedFuture(new RejectedExecutionException("dispatcher queue is full"));
+        }
+        if (closed) {
+            queued.decrementAndGet();
+            wakeUp();
+            throw new RejectedExecutionException("dispatcher is closed");
+        }
+        Job job = new Job(laundryBatch, programConfiguration, tier, System.nanoTime());
+        enqueued[tier.ordinal()].increment();
+        incoming.offer(job);
+        wakeUp();
+        return job.result;
+    }
+
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    public long getQueueDepth(PriorityTier tier) {
+        return enqueued[tier.ordinal()].sum() - dispatched.get(tier.ordinal());
+    }
+
+    public long getDispatchedCount() {
+        long count = 0L;
+        for (int i = 0; i < TIERS.length; i++) {
+            count += dispatched.get(i);
+        }
+        return count;
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Returns the distribution of nanoseconds jobs of a tier spent queued before a machine took them.
+     */
+    public LatencyHistogram.Snapshot getWaitTime(PriorityTier tier) {
+        return waitTimes[tier.ordinal()].snapshot();
+    }
+
+    /**
+     * Stops accepting jobs and waits until everything already queued has run. If interrupted it stops waiting and
+     * keeps the interrupt status set.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(dispatcher);
+        try {
+            dispatcher.join();
+            if (ownsExecutor) {
+                executor.shutdown();
+                while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    // keep waiting for cycles already dispatched
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+        }
+    }
+
+    private void wakeUp() {
+        if (sleeping) {
+            LockSupport.unpark(dispatcher);
+        }
+    }
+
+    private void dispatchLoop() {
+        while (true) {
+            boolean changed = drainFreed() | drainIncoming();
+            if (changed) {
+                dispatchReady(System.nanoTime());
+            }
+            if (closed && queued.get() == 0 && busyMachines == 0) {
+                return;
+            }
+            if (!changed) {
+                sleeping = true;
+                if (incoming.isEmpty() && freed.isEmpty()) {
+                    LockSupport.park(this);
+                }
+                sleeping = false;
+            }
+        }
+    }
+
+    private boolean drainFreed() {
+        boolean drained = false;
+        Slot slot;
+        while ((slot = freed.poll()) != null) {
+            idleByMask.get(slot.mask)
+                      .add(slot);
+            busyMachines--;
+            drained = true;
+        }
+        return drained;
+    }
+
+    private boolean drainIncoming() {
+        boolean drained = false;
+        Job job;
+        while ((job = incoming.poll()) != null) {
+            int tier = job.tier.ordinal();
+            double startTag = Math.max(virtualTime, lastTag[tier]);
+            job.startTag = startTag;
+            job.finishTag = startTag + (double) minutesOf(job.programConfiguration.getProgram()) / weights[tier];
+            job.sequence = sequence++;
+            lastTag[tier] = job.finishTag;
+            int material = job.laundryBatch.getMaterialType()
+                                           .ordinal();
+            byTag.get(material)
+                 .add(job);
+            byArrival.get(material)
+                     .add(job);
+            drained = true;
+        }
+        return drained;
+    }
+
+    private static int minutesOf(Program program) {
+        return program == Program.AUTODETECT ? Program.LONG.getTimeInMinutes() : program.getTimeInMinutes();
+    }
+
+    private void dispatchReady(long now) {
+        Job job;
+        while ((job = nextJob(now)) != null) {
+            ArrayDeque<Slot> idle = idleMachines(job.laundryBatch.getMaterialType()
+                                                                 .ordinal());
+            dispatch(job, idle.poll(), now);
+        }
+    }
+
+    private Job nextJob(long now) {
+        Job aged = null;
+        Job tagged = null;
+        for (int material = 0; material < MATERIALS.length; material++) {
+            if (idleMachines(material) == null) {
+                continue;
+            }
+            Job oldest = pending(byArrival.get(material));
+            if (oldest == null) {
+                continue;
+            }
+            if (now - oldest.enqueuedNanos > maxWaitNanos && (aged == null || oldest.sequence < aged.sequence)) {
+                aged = oldest;
+            }
+            Job first = pending(byTag.get(material));
+            if (tagged == null || BY_TAG.compare(first, tagged) < 0) {
+                tagged = first;
+            }
+        }
+        return aged != null ? aged : tagged;
+    }
+
+    private static Job pending(Queue<Job> jobs) {
+        Job job;
+        while ((job = jobs.peek()) != null && job.dispatched) {
+            jobs.poll();
+        }
+        return job;
+    }
+
+    private ArrayDeque<Slot> idleMachines(int material) {
+        for (int mask : masksByMaterial[material]) {
+            ArrayDeque<Slot> idle = idleByMask.get(mask);
+            if (!idle.isEmpty()) {
+                return idle;
+            }
+        }
+        return null;
+    }
+
+    private void dispatch(Job job, Slot slot, long now) {
+        int tier = job.tier.ordinal();
+        job.dispatched = true;
+        virtualTime = Math.max(virtualTime, job.startTag);
+        waitTimes[tier].record(now - job.enqueuedNanos);
+        dispatched.incrementAndGet(tier);
+        queued.decrementAndGet();
+        busyMachines++;
+        try {
+            executor.execute(() -> run(job, slot));
+        } catch (RejectedExecutionException e) {
+            busyMachines--;
+            idleByMask.get(slot.mask)
+                      .add(slot);
+            job.result.completeExceptionally(e);
+        }
+    }
+
+    private void run(Job job, Slot slot) {
+        LaundryStatus status;
+        try {
+            status = slot.machine.start(job.laundryBatch, job.programConfiguration);
+        } catch (Throwable e) {
+            machineFinished(slot);
+            job.result.completeExceptionally(e);
+            return;
+        }
+        machineFinished(slot);
+        job.result.complete(status);
+    }
+
+    private void machineFinished(Slot slot) {
+        freed.offer(slot);
+        wakeUp();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private static final class Job {
+
+        private final LaundryBatch laundryBatch;
+        private final ProgramConfiguration programConfiguration;
+        private final PriorityTier tier;
+        private final long enqueuedNanos;
+        private final CompletableFuture<LaundryStatus> result = new CompletableFuture<>();
+        private double startTag;
+        private double finishTag;
+        private long sequence;
+        private boolean dispatched;
+
+        private Job(LaundryBatch laundryBatch, ProgramConfiguration programConfiguration, PriorityTier tier,
+                long enqueuedNanos) {
+            this.laundryBatch = laundryBatch;
+            this.programConfiguration = programConfiguration;
+            this.tier = tier;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+
+    private static final class Slot {
+
+        private final WashingMachine machine;
+        private final int mask;
+
+        private Slot(WashingMachine machine, int mask) {
+            this.machine = machine;
+            this.mask = mask;
+        }
+    }
+
+    public static final class Builder {
+
+        private final List<Slot> machines = new ArrayList<>();
+        private final Map<PriorityTier, Integer> weights = new EnumMap<>(PriorityTier.class);
+        private Duration maxWait = Duration.ofMinutes(30);
+        private int maxQueued = 1 << 20;
+        private ExecutorService executor;
+
+        private Builder() {}
+
+        /**
+         * Adds a machine that takes loads of the given materials only.
+         */
+        public Builder withMachine(WashingMachine machine, Material... materials) {
+            requireNonNull(machine, "machine == null");
+            if (materials.length == 0) {
+                throw new IllegalArgumentException("materials must not be empty");
+            }
+            int mask = 0;
+            for (Material material : materials) {
+                mask |= 1 << requireNonNull(material, "material == null").ordinal();
+            }
+            machines.add(new Slot(machine, mask));
+            return this;
+        }
+
+        public Builder withWeight(PriorityTier tier, int weight) {
+            weights.put(requireNonNull(tier, "tier == null"), weight);
+            return this;
+        }
+
+        public Builder withMaxWait(Duration maxWait) {
+            this.maxWait = requireNonNull(maxWait, "maxWait == null");
+            return this;
+        }
+
+        public Builder withMaxQueued(int maxQueued) {
+            this.maxQueued = maxQueued;
+            return this;
+        }
+
+        public Builder withExecutor(ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public JobDispatcher build() {
+            return new JobDispatcher(this);
+        }
+    }
+
+}
@@ -2,14 +2,20 @@ package edu.iis.mto.testreactor.washingmachine;
 
 import static java.util.Objects.requireNonNull;
 
+import java.util.Objects;
+
 public class LaundryBatch {
 
     private final double weightKg;
     private final Material materialType;
 
     private LaundryBatch(Builder builder) {
-        this.weightKg = requireNonNull(builder.weightKg, "weightKg == null");
-        this.materialType = requireNonNull(builder.materialType, "materialType == null");
+        this(builder.weightKg, builder.materialType);
+    }
+
+    LaundryBatch(double weightKg, Material materialType) {
+        this.weightKg = weightKg;
+        this.materialType = requireNonNull(materialType, "materialType == null");
     }
 
     public double getWeightKg() {
@@ -20,6 +26,27 @@ public class LaundryBatch {
         return materialType;
     }
 
+    @Override
+    public int hashCode() {
+        return Objects.hash(materialType, weightKg);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        LaundryBatch other = (LaundryBatch) obj;
+        return materialType == other.materialType
+               && Double.doubleToLongBits(weightKg) == Double.doubleToLongBits(other.weightKg);
+    }
+
     @Override
     public String toString() {
         return "LaundryBatch [weightKg=" + weightKg + ", materialType=" + materialType + "]";
@@ -0,0 +1,107 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Objects;
+
+public class LaundryItem {
+
+    private final double weightKg;
+    private final Material materialType;
+    private final Program program;
+    private final boolean spin;
+
+    private LaundryItem(Builder builder) {
+        this.weightKg = builder.weightKg;
+        this.materialType = requireNonNull(builder.materialType, "materialType == null");
+        this.program = requireNonNull(builder.program, "program == null");
+        this.spin = builder.spin;
+        if (!(weightKg > 0.0d)) {
+            throw new IllegalArgumentException("weightKg must be positive");
+        }
+    }
+
+    public double getWeightKg() {
+        return weightKg;
+    }
+
+    public Material getMaterialType() {
+        return materialType;
+    }
+
+    public Program getProgram() {
+        return program;
+    }
+
+    public boolean isSpin() {
+        return spin;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(materialType, program, spin, weightKg);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        LaundryItem other = (LaundryItem) obj;
+        return materialType == other.materialType
+               && program == other.program
+               && spin == other.spin
+               && Double.doubleToLongBits(weightKg) == Double.doubleToLongBits(other.weightKg);
+    }
+
+    @Override
+    public String toString() {
+        return "LaundryItem [weightKg=" + weightKg + ", materialType=" + materialType + ", program=" + program + ", spin="
+               + spin + "]";
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private double weightKg;
+        private Material materialType;
+        private Program program = Program.MEDIUM;
+        private boolean spin = true;
+
+        private Builder() {}
+
+        public Builder withWeightKg(double weightKg) {
+            this.weightKg = weightKg;
+            return this;
+        }
+
+        public Builder withMaterialType(Material materialType) {
+            this.materialType = materialType;
+            return this;
+        }
+
+        public Builder withProgram(Program program) {
+            this.program = program;
+            return this;
+        }
+
+        public Builder withSpin(boolean spin) {
+            this.spin = spin;
+            return this;
+        }
+
+        public LaundryItem build() {
+            return new LaundryItem(this);
+        }
+    }
+
+}
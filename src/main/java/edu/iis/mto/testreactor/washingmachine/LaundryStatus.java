@@ -4,14 +4,49 @@ import java.util.Objects;
 
 public class LaundryStatus {
 
+    private static final Result[] RESULTS = Result.values();
+    private static final Program[] PROGRAMS = Program.values();
+    private static final ErrorCode[] ERROR_CODES = ErrorCode.values();
+    private static final LaundryStatus[] CANONICAL = canonicalInstances();
+
     private final Result result;
     private final Program runnedProgram;
     private final ErrorCode errorCode;
 
     private LaundryStatus(Builder builder) {
-        this.result = builder.result;
-        this.runnedProgram = builder.runnedProgram;
-        this.errorCode = builder.errorCode;
+        this(builder.result, builder.runnedProgram, builder.errorCode);
+    }
+
+    private LaundryStatus(Result result, Program runnedProgram, ErrorCode errorCode) {
+        this.result = result;
+        this.runnedProgram = runnedProgram;
+        this.errorCode = errorCode;
+    }
+
+    public static LaundryStatus of(Result result, Program runnedProgram, ErrorCode errorCode) {
+        return CANONICAL[index(result, runnedProgram, errorCode)];
+    }
+
+    private static int index(Result result, Program runnedProgram, ErrorCode errorCode) {
+        int resultIndex = result == null ? 0 : result.ordinal() + 1;
+        int programIndex = runnedProgram == null ? 0 : runnedProgram.ordinal() + 1;
+        int errorCodeIndex = errorCode == null ? 0 : errorCode.ordinal() + 1;
+        return (resultIndex * (PROGRAMS.length + 1) + programIndex) * (ERROR_CODES.length + 1) + errorCodeIndex;
+    }
+
+    private static LaundryStatus[] canonicalInstances() {
+        LaundryStatus[] instances = new LaundryStatus[(RESULTS.length + 1) * (PROGRAMS.length + 1) * (ERROR_CODES.length + 1)];
+        for (int r = 0; r <= RESULTS.length; r++) {
+            for (int p = 0; p <= PROGRAMS.length; p++) {
+                for (int e = 0; e <= ERROR_CODES.length; e++) {
+                    Result result = r == 0 ? null : RESULTS[r - 1];
+                    Program program = p == 0 ? null : PROGRAMS[p - 1];
+                    ErrorCode errorCode = e == 0 ? null : ERROR_CODES[e - 1];
+                    instances[index(result, program, errorCode)] = new LaundryStatus(result, program, errorCode);
+                }
+            }
+        }
+        return instances;
     }
 
     public Result getResult() {
@@ -0,0 +1,110 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+public class LinearConsumptionModel implements ConsumptionModel {
+
+    private static final Material[] MATERIALS = Material.values();
+
+    private final double baseWaterLitres;
+    private final double[] waterLitresPerKg;
+    private final double energyKwhPerWashMinute;
+    private final double heatingKwhPerKg;
+    private final double spinEnergyKwh;
+    private final int spinMinutes;
+
+    private LinearConsumptionModel(Builder builder) {
+        this.baseWaterLitres = builder.baseWaterLitres;
+        this.waterLitresPerKg = builder.waterLitresPerKg.clone();
+        this.energyKwhPerWashMinute = builder.energyKwhPerWashMinute;
+        this.heatingKwhPerKg = builder.heatingKwhPerKg;
+        this.spinEnergyKwh = builder.spinEnergyKwh;
+        this.spinMinutes = builder.spinMinutes;
+    }
+
+    @Override
+    public ResourceUsage estimateStage(Stage stage, Program program, Material material, double weightKg) {
+        requireNonNull(stage, "stage == null");
+        requireNonNull(program, "program == null");
+        requireNonNull(material, "material == null");
+        switch (stage) {
+            case POUR:
+                return new ResourceUsage(baseWaterLitres + waterLitresPerKg[material.ordinal()] * weightKg, 0.0d, 0);
+            case WASH:
+                int washMinutes = program.getTimeInMinutes();
+                return new ResourceUsage(0.0d, energyKwhPerWashMinute * washMinutes + heatingKwhPerKg * weightKg,
+                        washMinutes);
+            case SPIN:
+                return new ResourceUsage(0.0d, spinEnergyKwh, spinMinutes);
+            default:
+                return ResourceUsage.ZERO;
+        }
+    }
+
+    public int getSpinMinutes() {
+        return spinMinutes;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private double baseWaterLitres = 15.0d;
+        private final double[] waterLitresPerKg = new double[MATERIALS.length];
+        private double energyKwhPerWashMinute = 0.008d;
+        private double heatingKwhPerKg = 0.05d;
+        private double spinEnergyKwh = 0.1d;
+        private int spinMinutes = 10;
+
+        private Builder() {
+            for (Material material : MATERIALS) {
+                waterLitresPerKg[material.ordinal()] = material == Material.WOOL || material == Material.DELICATE ? 8.0d
+                        : 6.0d;
+            }
+        }
+
+        public Builder withBaseWaterLitres(double baseWaterLitres) {
+            this.baseWaterLitres = requireNonNegative(baseWaterLitres);
+            return this;
+        }
+
+        public Builder withWaterLitresPerKg(Material material, double waterLitresPerKg) {
+            this.waterLitresPerKg[requireNonNull(material, "material == null").ordinal()] = requireNonNegative(
+                    waterLitresPerKg);
+            return this;
+        }
+
+        public Builder withEnergyKwhPerWashMinute(double energyKwhPerWashMinute) {
+            this.energyKwhPerWashMinute = requireNonNegative(energyKwhPerWashMinute);
+            return this;
+        }
+
+        public Builder withHeatingKwhPerKg(double heatingKwhPerKg) {
+            this.heatingKwhPerKg = requireNonNegative(heatingKwhPerKg);
+            return this;
+        }
+
+        public Builder withSpin(double spinEnergyKwh, int spinMinutes) {
+            this.spinEnergyKwh = requireNonNegative(spinEnergyKwh);
+            if (spinMinutes < 0) {
+                throw new IllegalArgumentException("spinMinutes must not be negative");
+            }
+            this.spinMinutes = spinMinutes;
+            return this;
+        }
+
+        public LinearConsumptionModel build() {
+            return new LinearConsumptionModel(this);
+        }
+
+        private static double requireNonNegative(double value) {
+            if (value < 0.0d) {
+                throw new IllegalArgumentException("value must not be negative");
+            }
+            return value;
+        }
+    }
+
+}
@@ -0,0 +1,252 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Drives a bank of machines built on {@link FaultyEngine} and {@link FaultyWaterPump} stubs at a fixed open-loop rate.
+ * Job {@code i} is due at {@code start + i / targetRate} whether or not earlier jobs have finished, and its response
+ * time is measured from that due time, so time spent queued behind a slow or stalled machine is reported rather than
+ * silently skipped. Job {@code i} always runs on machine {@code i % machineCount} and every device draws from its own
+ * random seeded from {@code seed}, so two runs with the same settings see the same loads, failures and stalls.
+ */
+public class LoadGenerator {
+
+    private static final ErrorCode[] ERROR_CODES = ErrorCode.values();
+
+    private final int machineCount;
+    private final double targetRatePerSecond;
+    private final long jobCount;
+    private final long seed;
+    private final Function<Random, LaundryBatch> batchGenerator;
+    private final Function<Random, ProgramConfiguration> configurationGenerator;
+    private final DeviceFaults engineFaults;
+    private final DeviceFaults waterPumpFaults;
+    private final Watchdog watchdog;
+
+    private LoadGenerator(Builder builder) {
+        this.batchGenerator = requireNonNull(builder.batchGenerator, "batchGenerator == null");
+        this.configurationGenerator = requireNonNull(builder.configurationGenerator, "configurationGenerator == null");
+        this.engineFaults = requireNonNull(builder.engineFaults, "engineFaults == null");
+        this.waterPumpFaults = requireNonNull(builder.waterPumpFaults, "waterPumpFaults == null");
+        requireNonNull(builder.duration, "duration == null");
+        if (builder.machineCount <= 0) {
+            throw new IllegalArgumentException("machineCount must be positive");
+        }
+        if (!(builder.targetRatePerSecond > 0.0d)) {
+            throw new IllegalArgumentException("targetRatePerSecond must be positive");
+        }
+        this.machineCount = builder.machineCount;
+        this.targetRatePerSecond = builder.targetRatePerSecond;
+        this.jobCount = Math.round(builder.duration.toNanos() / 1e9d * targetRatePerSecond);
+        if (jobCount <= 0) {
+            throw new IllegalArgumentException("duration is too short for a single job at targetRatePerSecond");
+        }
+        this.seed = builder.seed;
+        this.watchdog = builder.watchdog;
+    }
+
+    /**
+     * Sends all jobs on the calling thread and returns once the last one has finished.
+     */
+    public LoadReport run() throws InterruptedException {
+        return new Run().execute();
+    }
+
+    private final class Run {
+
+        private final Random random = new Random(seed);
+        private final LatencyHistogram responseTime = new LatencyHistogram();
+        private final LatencyHistogram serviceTime = new LatencyHistogram();
+        private final AtomicLongArray errorCodes = new AtomicLongArray(ERROR_CODES.length);
+        private final Thread[] workers = new Thread[machineCount];
+        private final List<BlockingQueue<Job>> queues = new ArrayList<>(machineCount);
+
+        private Run() {
+            for (int i = 0; i < machineCount; i++) {
+                Random deviceSeeds = new Random(seed ^ (i + 1) * 0x9E3779B97F4A7C15L);
+                WashingMachine.Builder machine = WashingMachine.builder()
+                                                               .withDirtDetector(new SimulatedDirtDetector(new VirtualClock(), 0,
+                                                                       new Random(deviceSeeds.nextLong())))
+                                                               .withEngine(new FaultyEngine(engineFaults,
+                                                                       new Random(deviceSeeds.nextLong())))
+                                                               .withWaterPump(new FaultyWaterPump(waterPumpFaults,
+                                                                       new Random(deviceSeeds.nextLong())));
+                if (watchdog != null) {
+                    machine.withWatchdog(watchdog);
+                }
+                BlockingQueue<Job> queue = new LinkedBlockingQueue<>();
+                queues.add(queue);
+                WashingMachine washingMachine = machine.build();
+                workers[i] = WashingMachineFleet.daemonThreads("load-generator-" + i + "-")
+                                                .newThread(() -> work(washingMachine, queue));
+            }
+        }
+
+        private LoadReport execute() throws InterruptedException {
+            for (Thread worker : workers) {
+                worker.start();
+            }
+            long intervalNanos = Math.max(1L, Math.round(1e9d / targetRatePerSecond));
+            long start = System.nanoTime();
+            long maxSendLag = 0L;
+            try {
+                for (long i = 0; i < jobCount; i++) {
+                    Job job = new Job(batchGenerator.apply(random), configurationGenerator.apply(random),
+                            start + i * intervalNanos);
+                    long wait;
+                    while ((wait = job.dueNanos - System.nanoTime()) > 0L) {
+                        LockSupport.parkNanos(wait);
+                        if (Thread.interrupted()) {
+                            throw new InterruptedException();
+                        }
+                    }
+                    maxSendLag = Math.max(maxSendLag, -wait);
+                    queues.get((int) (i % machineCount))
+                          .add(job);
+                }
+                for (BlockingQueue<Job> queue : queues) {
+                    queue.add(Job.END);
+                }
+                for (Thread worker : workers) {
+                    worker.join();
+                }
+            } catch (InterruptedException e) {
+                for (Thread worker : workers) {
+                    worker.interrupt();
+                }
+                throw e;
+            }
+            long[] counts = new long[ERROR_CODES.length];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = errorCodes.get(i);
+            }
+            return new LoadReport(targetRatePerSecond, jobCount, System.nanoTime() - start, maxSendLag,
+                    responseTime.snapshot(), serviceTime.snapshot(), counts);
+        }
+
+        private void work(WashingMachine machine, BlockingQueue<Job> queue) {
+            try {
+                Job job;
+                while ((job = queue.take()) != Job.END) {
+                    long started = System.nanoTime();
+                    ErrorCode errorCode;
+                    try {
+                        errorCode = machine.start(job.laundryBatch, job.programConfiguration)
+                                           .getErrorCode();
+                    } catch (RuntimeException e) {
+                        errorCode = ErrorCode.UNKNOWN_ERROR;
+                    }
+                    long finished = System.nanoTime();
+                    serviceTime.record(finished - started);
+                    responseTime.record(finished - job.dueNanos);
+                    errorCodes.incrementAndGet(errorCode.ordinal());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                      .interrupt();
+            }
+        }
+    }
+
+    private static final class Job {
+
+        private static final Job END = new Job(null, null, 0L);
+
+        private final LaundryBatch laundryBatch;
+        private final ProgramConfiguration programConfiguration;
+        private final long dueNanos;
+
+        private Job(LaundryBatch laundryBatch, ProgramConfiguration programConfiguration, long dueNanos) {
+            this.laundryBatch = laundryBatch;
+            this.programConfiguration = programConfiguration;
+            this.dueNanos = dueNanos;
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private static final ProgramConfiguration AUTODETECT = ProgramConfiguration.builder()
+                                                                                   .withProgram(Program.AUTODETECT)
+                                                                                   .withSpin(true)
+                                                                                   .build();
+
+        private int machineCount = 1;
+        private double targetRatePerSecond = 100.0d;
+        private Duration duration = Duration.ofSeconds(10);
+        private long seed;
+        private Function<Random, LaundryBatch> batchGenerator = FleetSimulation::randomBatch;
+        private Function<Random, ProgramConfiguration> configurationGenerator = random -> AUTODETECT;
+        private DeviceFaults engineFaults = DeviceFaults.none();
+        private DeviceFaults waterPumpFaults = DeviceFaults.none();
+        private Watchdog watchdog;
+
+        private Builder() {}
+
+        public Builder withMachineCount(int machineCount) {
+            this.machineCount = machineCount;
+            return this;
+        }
+
+        public Builder withTargetRatePerSecond(double targetRatePerSecond) {
+            this.targetRatePerSecond = targetRatePerSecond;
+            return this;
+        }
+
+        public Builder withDuration(Duration duration) {
+            this.duration = duration;
+            return this;
+        }
+
+        public Builder withSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder withBatchGenerator(Function<Random, LaundryBatch> batchGenerator) {
+            this.batchGenerator = batchGenerator;
+            return this;
+        }
+
+        public Builder withConfigurationGenerator(Function<Random, ProgramConfiguration> configurationGenerator) {
+            this.configurationGenerator = configurationGenerator;
+            return this;
+        }
+
+        public Builder withEngineFaults(DeviceFaults engineFaults) {
+            this.engineFaults = engineFaults;
+            return this;
+        }
+
+        public Builder withWaterPumpFaults(DeviceFaults waterPumpFaults) {
+            this.waterPumpFaults = waterPumpFaults;
+            return this;
+        }
+
+        /**
+         * Guards every machine with the watchdog, so stalls longer than a stage allows show up as TIMEOUT.
+         */
+        public Builder withWatchdog(Watchdog watchdog) {
+            this.watchdog = watchdog;
+            return this;
+        }
+
+        public LoadGenerator build() {
+            return new LoadGenerator(this);
+        }
+    }
+
+}
@@ -0,0 +1,241 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+public class LoadPlanner {
+
+    public enum Mode {
+        FIRST_FIT_DECREASING,
+        EXACT
+    }
+
+    public static final int DEFAULT_EXACT_ITEM_LIMIT = 16;
+
+    private static final Comparator<LaundryItem> LONGEST_AND_HEAVIEST_FIRST = Comparator
+            .comparingInt((LaundryItem item) -> item.getProgram().getTimeInMinutes())
+            .thenComparingDouble(LaundryItem::getWeightKg)
+            .reversed();
+    private static final int CYCLE_COST = 10_000;
+
+    private final Mode mode;
+    private final int exactItemLimit;
+    private final ProgramPolicy programPolicy;
+
+    private LoadPlanner(Builder builder) {
+        this.mode = requireNonNull(builder.mode, "mode == null");
+        this.programPolicy = requireNonNull(builder.programPolicy, "programPolicy == null");
+        if (builder.exactItemLimit <= 0) {
+            throw new IllegalArgumentException("exactItemLimit must be positive");
+        }
+        this.exactItemLimit = builder.exactItemLimit;
+    }
+
+    /**
+     * Packs items into cycles. Only items sharing material, spin and whether their program is autodetected are washed
+     * together, so no item is spun against its configuration.
+     */
+    public List<PlannedCycle> plan(List<LaundryItem> items) {
+        requireNonNull(items, "items == null");
+        List<Map<Material, List<LaundryItem>>> groups = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            groups.add(new EnumMap<>(Material.class));
+        }
+        for (LaundryItem item : items) {
+            requireNonNull(item, "item == null");
+            if (programPolicy.overweight(item.getMaterialType(), item.getWeightKg())) {
+                throw new IllegalArgumentException("item does not fit in a single cycle: " + item);
+            }
+            int group = (item.getProgram() == Program.AUTODETECT ? 2 : 0) + (item.isSpin() ? 1 : 0);
+            groups.get(group)
+                  .computeIfAbsent(item.getMaterialType(), material -> new ArrayList<>())
+                  .add(item);
+        }
+        List<PlannedCycle> cycles = new ArrayList<>();
+        for (int group = 0; group < groups.size(); group++) {
+            planGroups(groups.get(group), (group & 1) != 0, cycles);
+        }
+        return cycles;
+    }
+
+    private void planGroups(Map<Material, List<LaundryItem>> groups, boolean spin, List<PlannedCycle> cycles) {
+        for (Map.Entry<Material, List<LaundryItem>> group : groups.entrySet()) {
+            List<LaundryItem> items = group.getValue();
+            items.sort(LONGEST_AND_HEAVIEST_FIRST);
+            int[] assignment = firstFitDecreasing(group.getKey(), items);
+            if (mode == Mode.EXACT && items.size() <= exactItemLimit) {
+                assignment = new ExactSearch(group.getKey(), items, assignment).run();
+            }
+            toCycles(group.getKey(), spin, items, assignment, cycles);
+        }
+    }
+
+    private int[] firstFitDecreasing(Material material, List<LaundryItem> items) {
+        int leaves = Integer.highestOneBit(Math.max(1, items.size() - 1)) << 1;
+        double[] minLoad = new double[2 * leaves];
+        int[] assignment = new int[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            double weight = items.get(i)
+                                 .getWeightKg();
+            int node = 1;
+            while (node < leaves) {
+                int left = 2 * node;
+                node = programPolicy.overweight(material, minLoad[left] + weight) ? left + 1 : left;
+            }
+            int bin = node - leaves;
+            assignment[i] = bin;
+            minLoad[node] += weight;
+            for (node >>= 1; node > 0; node >>= 1) {
+                minLoad[node] = Math.min(minLoad[2 * node], minLoad[2 * node + 1]);
+            }
+        }
+        return assignment;
+    }
+
+    private static void toCycles(Material material, boolean spin, List<LaundryItem> items, int[] assignment,
+            List<PlannedCycle> cycles) {
+        List<List<LaundryItem>> bins = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            while (bins.size() <= assignment[i]) {
+                bins.add(new ArrayList<>());
+            }
+            bins.get(assignment[i])
+                .add(items.get(i));
+        }
+        for (List<LaundryItem> bin : bins) {
+            if (bin.isEmpty()) {
+                continue;
+            }
+            double weightKg = 0.0d;
+            Program program = bin.get(0)
+                                 .getProgram();
+            for (LaundryItem item : bin) {
+                weightKg += item.getWeightKg();
+                if (item.getProgram()
+                        .getTimeInMinutes() > program.getTimeInMinutes()) {
+                    program = item.getProgram();
+                }
+            }
+            LaundryBatch laundryBatch = LaundryBatch.builder()
+                                                    .withMaterialType(material)
+                                                    .withWeightKg(weightKg)
+                                                    .build();
+            ProgramConfiguration programConfiguration = ProgramConfiguration.builder()
+                                                                            .withProgram(program)
+                                                                            .withSpin(spin)
+                                                                            .build();
+            cycles.add(new PlannedCycle(laundryBatch, programConfiguration, bin));
+        }
+    }
+
+    private final class ExactSearch {
+
+        private final Material material;
+        private final double[] weights;
+        private final int[] minutes;
+        private final double[] binLoads;
+        private final int[] binMinutes;
+        private final int[] assignment;
+        private int[] bestAssignment;
+        private int bestCost;
+
+        private ExactSearch(Material material, List<LaundryItem> items, int[] initialAssignment) {
+            this.material = material;
+            this.weights = new double[items.size()];
+            this.minutes = new int[items.size()];
+            for (int i = 0; i < items.size(); i++) {
+                weights[i] = items.get(i)
+                                  .getWeightKg();
+                minutes[i] = items.get(i)
+                                  .getProgram()
+                                  .getTimeInMinutes();
+            }
+            this.binLoads = new double[items.size()];
+            this.binMinutes = new int[items.size()];
+            this.assignment = new int[items.size()];
+            this.bestAssignment = initialAssignment.clone();
+            this.bestCost = cost(initialAssignment);
+        }
+
+        private int[] run() {
+            search(0, 0, 0);
+            return bestAssignment;
+        }
+
+        private void search(int item, int openBins, int openMinutes) {
+            if (openBins * CYCLE_COST + openMinutes >= bestCost) {
+                return;
+            }
+            if (item == weights.length) {
+                bestCost = openBins * CYCLE_COST + openMinutes;
+                bestAssignment = assignment.clone();
+                return;
+            }
+            for (int bin = 0; bin <= openBins && bin < weights.length; bin++) {
+                if (programPolicy.overweight(material, binLoads[bin] + weights[item])) {
+                    continue;
+                }
+                int previousMinutes = binMinutes[bin];
+                int addedMinutes = Math.max(0, minutes[item] - previousMinutes);
+                binLoads[bin] += weights[item];
+                binMinutes[bin] = previousMinutes + addedMinutes;
+                assignment[item] = bin;
+                search(item + 1, bin == openBins ? openBins + 1 : openBins, openMinutes + addedMinutes);
+                binLoads[bin] -= weights[item];
+                binMinutes[bin] = previousMinutes;
+            }
+        }
+
+        private int cost(int[] candidate) {
+            int[] longest = new int[candidate.length];
+            int bins = 0;
+            for (int i = 0; i < candidate.length; i++) {
+                bins = Math.max(bins, candidate[i] + 1);
+                longest[candidate[i]] = Math.max(longest[candidate[i]], minutes[i]);
+            }
+            int total = bins * CYCLE_COST;
+            for (int value : longest) {
+                total += value;
+            }
+            return total;
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private Mode mode = Mode.FIRST_FIT_DECREASING;
+        private int exactItemLimit = DEFAULT_EXACT_ITEM_LIMIT;
+        private ProgramPolicy programPolicy = ProgramPolicy.defaults();
+
+        private Builder() {}
+
+        public Builder withMode(Mode mode) {
+            this.mode = mode;
+            return this;
+        }
+
+        public Builder withExactItemLimit(int exactItemLimit) {
+            this.exactItemLimit = exactItemLimit;
+            return this;
+        }
+
+        public Builder withProgramPolicy(ProgramPolicy programPolicy) {
+            this.programPolicy = programPolicy;
+            return this;
+        }
+
+        public LoadPlanner build() {
+            return new LoadPlanner(this);
+        }
+    }
+
+}
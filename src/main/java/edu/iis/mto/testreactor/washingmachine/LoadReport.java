@@ -0,0 +1,91 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+public class LoadReport {
+
+    private static final ErrorCode[] ERROR_CODES = ErrorCode.values();
+
+    private final double targetRatePerSecond;
+    private final long jobCount;
+    private final long elapsedNanos;
+    private final long maxSendLagNanos;
+    private final LatencyHistogram.Snapshot responseTime;
+    private final LatencyHistogram.Snapshot serviceTime;
+    private final long[] errorCodes;
+
+    LoadReport(double targetRatePerSecond, long jobCount, long elapsedNanos, long maxSendLagNanos,
+            LatencyHistogram.Snapshot responseTime, LatencyHistogram.Snapshot serviceTime, long[] errorCodes) {
+        this.targetRatePerSecond = targetRatePerSecond;
+        this.jobCount = jobCount;
+        this.elapsedNanos = elapsedNanos;
+        this.maxSendLagNanos = maxSendLagNanos;
+        this.responseTime = responseTime;
+        this.serviceTime = serviceTime;
+        this.errorCodes = errorCodes;
+    }
+
+    public double getTargetRatePerSecond() {
+        return targetRatePerSecond;
+    }
+
+    public long getJobCount() {
+        return jobCount;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getAchievedRatePerSecond() {
+        return elapsedNanos == 0L ? 0.0d : jobCount * 1e9d / elapsedNanos;
+    }
+
+    /**
+     * Returns how far behind schedule the generator sent its latest job; a large value means the generator itself,
+     * not the machines, limited the rate.
+     */
+    public long getMaxSendLagNanos() {
+        return maxSendLagNanos;
+    }
+
+    /**
+     * Returns nanoseconds from the moment each job was due to the end of its cycle, including time queued for a
+     * machine.
+     */
+    public LatencyHistogram.Snapshot getResponseTime() {
+        return responseTime;
+    }
+
+    /**
+     * Returns nanoseconds each {@code WashingMachine.start} call took.
+     */
+    public LatencyHistogram.Snapshot getServiceTime() {
+        return serviceTime;
+    }
+
+    public long getErrorCodeCount(ErrorCode errorCode) {
+        return errorCodes[errorCode.ordinal()];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder errors = new StringBuilder();
+        for (ErrorCode errorCode : ERROR_CODES) {
+            if (errorCodes[errorCode.ordinal()] > 0) {
+                errors.append(errors.length() == 0 ? "" : ", ")
+                      .append(errorCode)
+                      .append('=')
+                      .append(errorCodes[errorCode.ordinal()]);
+            }
+        }
+        return "LoadReport [targetRatePerSecond=" + targetRatePerSecond + ", achievedRatePerSecond="
+               + getAchievedRatePerSecond() + ", jobs=" + jobCount + ", responseTime=" + percentiles(responseTime)
+               + ", serviceTime=" + percentiles(serviceTime) + ", errorCodes={" + errors + "}]";
+    }
+
+    private static String percentiles(LatencyHistogram.Snapshot latency) {
+        return "{p50=" + latency.getValueAtPercentile(50) + ", p90=" + latency.getValueAtPercentile(90) + ", p99="
+               + latency.getValueAtPercentile(99) + ", p99.9=" + latency.getValueAtPercentile(99.9) + ", max="
+               + latency.getMax() + "}";
+    }
+
+}
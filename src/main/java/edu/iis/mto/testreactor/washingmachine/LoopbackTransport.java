@@ -0,0 +1,53 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.net.ConnectException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process {@link Transport}: nodes living in the same JVM are called directly, which makes routing and rebalancing
+ * testable without sockets.
+ */
+public class LoopbackTransport implements Transport {
+
+    private final ConcurrentHashMap<String, Handler> handlers = new ConcurrentHashMap<>();
+
+    @Override
+    public void bind(String nodeId, Handler handler) {
+        requireNonNull(nodeId, "nodeId == null");
+        requireNonNull(handler, "handler == null");
+        if (handlers.putIfAbsent(nodeId, handler) != null) {
+            throw new IllegalStateException("node " + nodeId + " is already bound");
+        }
+    }
+
+    @Override
+    public void unbind(String nodeId) {
+        handlers.remove(nodeId);
+    }
+
+    @Override
+    public CompletableFuture<LaundryStatus> start(String nodeId, StartRequest request) {
+        Handler handler = handlers.get(nodeId);
+        if (handler == null) {
+            return CompletableFuture.failedFuture(unreachable(nodeId));
+        }
+        return handler.onStart(request);
+    }
+
+    @Override
+    public CompletableFuture<Void> relinquish(String nodeId, String machineId) {
+        Handler handler = handlers.get(nodeId);
+        if (handler == null) {
+            return CompletableFuture.failedFuture(unreachable(nodeId));
+        }
+        return handler.onRelinquish(machineId);
+    }
+
+    private static ConnectException unreachable(String nodeId) {
+        return new ConnectException("node " + nodeId + " is not bound");
+    }
+
+}
@@ -0,0 +1,557 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs batches through a bank of shared devices as a pipeline: water pumps are shared by pouring and releasing, a
+ * drum (engine) is held by a batch from pouring until its water is released, and spin extractors serve drums that
+ * are already free again. Stages are connected by bounded queues, so a slow stage pushes back on admission instead
+ * of buffering without limit. A drum is always taken before a pump and pumps are held for a single call only, which
+ * keeps the shared pools deadlock free.
+ */
+public class MachineBankPipeline implements AutoCloseable {
+
+    public enum Pool {
+        PUMPS,
+        DRUMS,
+        EXTRACTORS
+    }
+
+    private final DirtDetector dirtDetector;
+    private final ProgramPolicy programPolicy;
+    private final ProgramSelector programSelector;
+    private final BlockingQueue<WaterPump> pumps;
+    private final BlockingQueue<Engine> drums;
+    private final BlockingQueue<Job> admission;
+    private final BlockingQueue<Job> washing;
+    private final BlockingQueue<Job> releasing;
+    private final BlockingQueue<Job> spinning;
+    private final Map<Stage, StageStats> stages = new EnumMap<>(Stage.class);
+    private final Map<Pool, Integer> poolSizes = new EnumMap<>(Pool.class);
+    private final LongAdder drumOccupiedNanos = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Object drained = new Object();
+    private final List<Thread> workers = new ArrayList<>();
+    private final long closeTimeoutNanos;
+    private final long startedAt;
+    private volatile boolean closed;
+
+    private MachineBankPipeline(Builder builder) {
+        this.dirtDetector = builder.dirtDetector;
+        this.programPolicy = requireNonNull(builder.programPolicy, "programPolicy == null");
+        this.programSelector = builder.programSelector != null ? builder.programSelector : programPolicy;
+        requireNonEmpty(builder.pumps, "pumps");
+        requireNonEmpty(builder.drums, "drums");
+        requireNonEmpty(builder.extractors, "extractors");
+        if (builder.queueCapacity <= 0) {
+            throw new IllegalArgumentException("queueCapacity must be positive");
+        }
+        requireNonNull(builder.closeTimeout, "closeTimeout == null");
+        if (builder.closeTimeout.isNegative()) {
+            throw new IllegalArgumentException("closeTimeout must not be negative");
+        }
+        this.closeTimeoutNanos = builder.closeTimeout.toNanos();
+        this.pumps = new ArrayBlockingQueue<>(builder.pumps.size(), false, builder.pumps);
+        this.drums = new ArrayBlockingQueue<>(builder.drums.size(), false, builder.drums);
+        this.admission = new ArrayBlockingQueue<>(builder.queueCapacity);
+        this.washing = new ArrayBlockingQueue<>(builder.drums.size());
+        this.releasing = new ArrayBlockingQueue<>(builder.drums.size());
+        this.spinning = new ArrayBlockingQueue<>(builder.queueCapacity);
+        poolSizes.put(Pool.PUMPS, builder.pumps.size());
+        poolSizes.put(Pool.DRUMS, builder.drums.size());
+        poolSizes.put(Pool.EXTRACTORS, builder.extractors.size());
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, new StageStats());
+        }
+        this.startedAt = System.nanoTime();
+        ThreadFactory threads = WashingMachineFleet.daemonThreads("machine-bank-");
+        for (int i = 0; i < builder.pumps.size(); i++) {
+            startWorker(threads, this::pourLoop);
+            startWorker(threads, this::releaseLoop);
+        }
+        for (int i = 0; i < builder.drums.size(); i++) {
+            startWorker(threads, this::washLoop);
+        }
+        for (Engine extractor : builder.extractors) {
+            startWorker(threads, () -> spinLoop(requireNonNull(extractor, "extractor == null")));
+        }
+    }
+
+    /**
+     * Admits a batch, waiting while the admission queue is full. A batch is counted in flight before {@code closed} is
+     * checked, so {@link #close()} either waits for it or it is rejected.
+     */
+    public CompletableFuture<LaundryStatus> submit(LaundryBatch laundryBatch, ProgramConfiguration programConfiguration)
+            throws InterruptedException {
+        requireNonNull(laundryBatch, "laundryBatch == null");
+        requireNonNull(programConfiguration, "programConfiguration == null");
+        inFlight.incrementAndGet();
+        if (closed) {
+            leave();
+            throw new RejectedExecutionException("pipeline is closed");
+        }
+        Job job = new Job(laundryBatch, programConfiguration);
+        if (programPolicy.overweight(laundryBatch.getMaterialType(), laundryBatch.getWeightKg())) {
+            leave();
+            job.result.complete(WashingMachine.error(ErrorCode.TOO_HEAVY, null));
+            return job.result;
+        }
+        job.enqueuedAt = System.nanoTime();
+        try {
+            admission.put(job);
+        } catch (InterruptedException e) {
+            leave();
+            throw e;
+        }
+        return job.result;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public PipelineReport report() {
+        long elapsed = Math.max(1L, System.nanoTime() - startedAt);
+        Map<Stage, PipelineReport.StageReport> stageReports = new EnumMap<>(Stage.class);
+        stages.forEach((stage, stats) -> stageReports.put(stage, stats.report(stage, queueDepth(stage))));
+        Map<Pool, Double> utilisation = new EnumMap<>(Pool.class);
+        utilisation.put(Pool.PUMPS, busy(Stage.POUR, Stage.RELEASE) / ((double) elapsed * poolSizes.get(Pool.PUMPS)));
+        utilisation.put(Pool.DRUMS, drumOccupiedNanos.sum() / ((double) elapsed * poolSizes.get(Pool.DRUMS)));
+        utilisation.put(Pool.EXTRACTORS, busy(Stage.SPIN) / ((double) elapsed * poolSizes.get(Pool.EXTRACTORS)));
+        return new PipelineReport(elapsed, stageReports, poolSizes, utilisation);
+    }
+
+    /**
+     * Stops admitting batches, lets admitted ones finish for up to the close timeout and stops the workers. Batches
+     * cut short by the stop or still queued afterwards complete with {@link ErrorCode#CANCELLED}; those holding a drum
+     * have their water released on the closing thread first. If interrupted it stops waiting for batches to finish
+     * and keeps the interrupt status set.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        boolean interrupted = false;
+        long deadline = System.nanoTime() + closeTimeoutNanos;
+        synchronized (drained) {
+            long remaining;
+            while (inFlight.get() > 0 && (remaining = deadline - System.nanoTime()) > 0L) {
+                try {
+                    drained.wait(remaining / 1_000_000L, (int) (remaining % 1_000_000L));
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    break;
+                }
+            }
+        }
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        for (Thread worker : workers) {
+            while (worker.isAlive()) {
+                try {
+                    worker.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        for (BlockingQueue<Job> queue : List.of(admission, washing, releasing, spinning)) {
+            Job job;
+            while ((job = queue.poll()) != null) {
+                cancel(job);
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread()
+                  .interrupt();
+        }
+    }
+
+    private void pourLoop() {
+        while (true) {
+            Job job = take(admission, Stage.POUR);
+            if (job == null) {
+                return;
+            }
+            try {
+                job.program = specifyProgram(job);
+            } catch (RuntimeException e) {
+                finish(job, WashingMachine.error(ErrorCode.UNKNOWN_ERROR, null));
+                continue;
+            }
+            try {
+                job.drum = drums.take();
+                job.drumTakenAt = System.nanoTime();
+                pour(job);
+            } catch (InterruptedException e) {
+                finish(job, WashingMachine.error(ErrorCode.CANCELLED, job.program));
+                return;
+            } catch (WaterPumpException e) {
+                finish(job, WashingMachine.error(ErrorCode.WATER_PUMP_FAILURE, job.program));
+                continue;
+            } catch (RuntimeException e) {
+                finish(job, WashingMachine.error(ErrorCode.UNKNOWN_ERROR, job.program));
+                continue;
+            }
+            enqueue(washing, job);
+        }
+    }
+
+    private void washLoop() {
+        while (true) {
+            Job job = take(washing, Stage.WASH);
+            if (job == null) {
+                return;
+            }
+            long started = System.nanoTime();
+            boolean succeeded = false;
+            ErrorCode errorCode = ErrorCode.UNKNOWN_ERROR;
+            try {
+                job.drum.runWashing(job.program.getTimeInMinutes());
+                succeeded = true;
+            } catch (EngineException e) {
+                errorCode = ErrorCode.ENGINE_FAILURE;
+            } catch (RuntimeException e) {
+                errorCode = ErrorCode.UNKNOWN_ERROR;
+            } finally {
+                stages.get(Stage.WASH)
+                      .record(System.nanoTime() - started, succeeded);
+            }
+            if (!succeeded) {
+                job.failure = errorCode;
+            }
+            enqueue(releasing, job);
+        }
+    }
+
+    private void releaseLoop() {
+        while (true) {
+            Job job = take(releasing, Stage.RELEASE);
+            if (job == null) {
+                return;
+            }
+            ErrorCode errorCode = job.failure;
+            try {
+                release();
+            } catch (InterruptedException e) {
+                releasing.offer(job);
+                return;
+            } catch (WaterPumpException e) {
+                errorCode = errorCode != null ? errorCode : ErrorCode.WATER_PUMP_FAILURE;
+            } catch (RuntimeException e) {
+                errorCode = errorCode != null ? errorCode : ErrorCode.UNKNOWN_ERROR;
+            }
+            returnDrum(job);
+            if (errorCode != null) {
+                finish(job, WashingMachine.error(errorCode, job.program));
+            } else if (job.programConfiguration.isSpin()) {
+                enqueue(spinning, job);
+            } else {
+                finish(job, WashingMachine.programFinished(job.program));
+            }
+        }
+    }
+
+    private void spinLoop(Engine extractor) {
+        while (true) {
+            Job job = take(spinning, Stage.SPIN);
+            if (job == null) {
+                return;
+            }
+            long started = System.nanoTime();
+            boolean succeeded = false;
+            try {
+                extractor.spin();
+                succeeded = true;
+            } catch (EngineException e) {
+                finish(job, WashingMachine.error(ErrorCode.ENGINE_FAILURE, job.program));
+            } catch (RuntimeException e) {
+                finish(job, WashingMachine.error(ErrorCode.UNKNOWN_ERROR, job.program));
+            } finally {
+                stages.get(Stage.SPIN)
+                      .record(System.nanoTime() - started, succeeded);
+            }
+            if (succeeded) {
+                finish(job, WashingMachine.programFinished(job.program));
+            }
+        }
+    }
+
+    private Program specifyProgram(Job job) {
+        Program program = job.programConfiguration.getProgram();
+        if (program != Program.AUTODETECT) {
+            return program;
+        }
+        if (dirtDetector == null) {
+            throw new IllegalStateException("AUTODETECT requires a dirt detector");
+        }
+        long started = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            double dirtDegree = Percentage.requireInRange(dirtDetector.detectDirtDegreeValue(job.laundryBatch));
+            succeeded = true;
+            return programSelector.select(job.laundryBatch.getMaterialType(), dirtDegree);
+        } finally {
+            stages.get(Stage.DETECT)
+                  .record(System.nanoTime() - started, succeeded);
+        }
+    }
+
+    private void pour(Job job) throws InterruptedException, WaterPumpException {
+        WaterPump pump = pumps.take();
+        long started = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            pump.pour(job.laundryBatch.getWeightKg());
+            succeeded = true;
+        } finally {
+            stages.get(Stage.POUR)
+                  .record(System.nanoTime() - started, succeeded);
+            pumps.offer(pump);
+        }
+    }
+
+    private void release() throws InterruptedException, WaterPumpException {
+        release(pumps.take());
+    }
+
+    private void release(WaterPump pump) throws WaterPumpException {
+        long started = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            pump.release();
+            succeeded = true;
+        } finally {
+            stages.get(Stage.RELEASE)
+                  .record(System.nanoTime() - started, succeeded);
+            pumps.offer(pump);
+        }
+    }
+
+    /**
+     * Completes a batch left over after the workers stopped, releasing its water first if it still holds a drum.
+     */
+    private void cancel(Job job) {
+        ErrorCode errorCode = job.failure != null ? job.failure : ErrorCode.CANCELLED;
+        if (job.drum != null && !releaseLeftover() && job.failure == null) {
+            errorCode = ErrorCode.WATER_PUMP_FAILURE;
+        }
+        finish(job, WashingMachine.error(errorCode, job.program));
+    }
+
+    private boolean releaseLeftover() {
+        WaterPump pump = pumps.poll();
+        if (pump == null) {
+            return false;
+        }
+        try {
+            release(pump);
+            return true;
+        } catch (WaterPumpException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    private void returnDrum(Job job) {
+        if (job.drum == null) {
+            return;
+        }
+        drumOccupiedNanos.add(System.nanoTime() - job.drumTakenAt);
+        drums.add(job.drum);
+        job.drum = null;
+    }
+
+    private void finish(Job job, LaundryStatus status) {
+        returnDrum(job);
+        leave();
+        job.result.complete(status);
+    }
+
+    private void leave() {
+        if (inFlight.decrementAndGet() == 0 && closed) {
+            synchronized (drained) {
+                drained.notifyAll();
+            }
+        }
+    }
+
+    private Job take(BlockingQueue<Job> queue, Stage stage) {
+        try {
+            Job job = queue.take();
+            stages.get(stage)
+                  .waited(System.nanoTime() - job.enqueuedAt);
+            return job;
+        } catch (InterruptedException e) {
+            return null;
+        }
+    }
+
+    private void enqueue(BlockingQueue<Job> queue, Job job) {
+        job.enqueuedAt = System.nanoTime();
+        try {
+            queue.put(job);
+        } catch (InterruptedException e) {
+            if (!queue.offer(job)) {
+                finish(job, WashingMachine.error(ErrorCode.CANCELLED, job.program));
+            }
+            Thread.currentThread()
+                  .interrupt();
+        }
+    }
+
+    private int queueDepth(Stage stage) {
+        switch (stage) {
+            case POUR:
+                return admission.size();
+            case WASH:
+                return washing.size();
+            case RELEASE:
+                return releasing.size();
+            case SPIN:
+                return spinning.size();
+            default:
+                return 0;
+        }
+    }
+
+    private long busy(Stage... busyStages) {
+        long busy = 0;
+        for (Stage stage : busyStages) {
+            busy += stages.get(stage).busyNanos.sum();
+        }
+        return busy;
+    }
+
+    private void startWorker(ThreadFactory threads, Runnable loop) {
+        Thread worker = threads.newThread(loop);
+        workers.add(worker);
+        worker.start();
+    }
+
+    private static void requireNonEmpty(List<?> devices, String name) {
+        if (requireNonNull(devices, name + " == null").isEmpty()) {
+            throw new IllegalArgumentException(name + " must not be empty");
+        }
+    }
+
+    private static final class Job {
+
+        private final LaundryBatch laundryBatch;
+        private final ProgramConfiguration programConfiguration;
+        private final CompletableFuture<LaundryStatus> result = new CompletableFuture<>();
+        private Program program;
+        private Engine drum;
+        private long drumTakenAt;
+        private long enqueuedAt;
+        private ErrorCode failure;
+
+        private Job(LaundryBatch laundryBatch, ProgramConfiguration programConfiguration) {
+            this.laundryBatch = laundryBatch;
+            this.programConfiguration = programConfiguration;
+        }
+    }
+
+    private static final class StageStats {
+
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder busyNanos = new LongAdder();
+        private final LongAdder waitedNanos = new LongAdder();
+        private final LongAdder waits = new LongAdder();
+
+        private void record(long durationNanos, boolean succeeded) {
+            busyNanos.add(durationNanos);
+            (succeeded ? completed : failed).increment();
+        }
+
+        private void waited(long waitedNanos) {
+            this.waitedNanos.add(waitedNanos);
+            waits.increment();
+        }
+
+        private PipelineReport.StageReport report(Stage stage, int queueDepth) {
+            long waitCount = waits.sum();
+            return new PipelineReport.StageReport(stage, completed.sum(), failed.sum(), busyNanos.sum(),
+                    waitCount == 0 ? 0L : waitedNanos.sum() / waitCount, queueDepth);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private List<WaterPump> pumps;
+        private List<Engine> drums;
+        private List<Engine> extractors;
+        private DirtDetector dirtDetector;
+        private ProgramPolicy programPolicy = ProgramPolicy.defaults();
+        private ProgramSelector programSelector;
+        private int queueCapacity = 64;
+        private Duration closeTimeout = Duration.ofSeconds(30);
+
+        private Builder() {}
+
+        public Builder withPumps(List<WaterPump> pumps) {
+            this.pumps = pumps;
+            return this;
+        }
+
+        public Builder withDrums(List<Engine> drums) {
+            this.drums = drums;
+            return this;
+        }
+
+        public Builder withExtractors(List<Engine> extractors) {
+            this.extractors = extractors;
+            return this;
+        }
+
+        public Builder withDirtDetector(DirtDetector dirtDetector) {
+            this.dirtDetector = dirtDetector;
+            return this;
+        }
+
+        public Builder withProgramPolicy(ProgramPolicy programPolicy) {
+            this.programPolicy = programPolicy;
+            return this;
+        }
+
+        public Builder withProgramSelector(ProgramSelector programSelector) {
+            this.programSelector = programSelector;
+            return this;
+        }
+
+        public Builder withQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * Sets how long {@link MachineBankPipeline#close()} waits for admitted batches before it stops the workers.
+         */
+        public Builder withCloseTimeout(Duration closeTimeout) {
+            this.closeTimeout = closeTimeout;
+            return this;
+        }
+
+        public MachineBankPipeline build() {
+            return new MachineBankPipeline(this);
+        }
+    }
+
+}
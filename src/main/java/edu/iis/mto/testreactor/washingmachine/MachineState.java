@@ -0,0 +1,15 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+public enum MachineState {
+    IDLE,
+    DETECTING,
+    POURING,
+    WASHING,
+    RELEASING,
+    SPINNING,
+    FAILED;
+
+    public boolean isCycleRunning() {
+        return this != IDLE && this != FAILED;
+    }
+}
@@ -0,0 +1,12 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+public interface MachineStateListener {
+
+    /**
+     * Called on the thread running the cycle each time the machine changes state, including the final IDLE or FAILED.
+     * {@code program} is null while AUTODETECT has not chosen one yet.
+     */
+    void onStateChanged(MachineState state, LaundryBatch laundryBatch, ProgramConfiguration programConfiguration,
+            Program program);
+
+}
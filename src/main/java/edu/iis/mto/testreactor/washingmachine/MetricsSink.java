@@ -0,0 +1,38 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+public interface MetricsSink {
+
+    MetricsSink NO_OP = new MetricsSink() {};
+
+    default void recordStage(Stage stage, long durationNanos, boolean succeeded) {}
+
+    default void recordCycle(LaundryBatch laundryBatch, ProgramConfiguration programConfiguration, LaundryStatus status,
+            long durationNanos) {}
+
+    static MetricsSink composite(MetricsSink... sinks) {
+        MetricsSink[] targets = sinks.clone();
+        for (MetricsSink sink : targets) {
+            requireNonNull(sink, "sink == null");
+        }
+        return new MetricsSink() {
+
+            @Override
+            public void recordStage(Stage stage, long durationNanos, boolean succeeded) {
+                for (MetricsSink sink : targets) {
+                    sink.recordStage(stage, durationNanos, succeeded);
+                }
+            }
+
+            @Override
+            public void recordCycle(LaundryBatch laundryBatch, ProgramConfiguration programConfiguration,
+                    LaundryStatus status, long durationNanos) {
+                for (MetricsSink sink : targets) {
+                    sink.recordCycle(laundryBatch, programConfiguration, status, durationNanos);
+                }
+            }
+        };
+    }
+
+}
@@ -1,31 +1,60 @@
 package edu.iis.mto.testreactor.washingmachine;
 
 import static java.lang.Double.doubleToLongBits;
-import static java.util.Objects.hash;
 import static java.util.Objects.requireNonNull;
 
 public class Percentage {
 
+    private static final Percentage[] WHOLE_PERCENTAGES = wholePercentages();
+
     private final double value;
 
     public Percentage(double value) {
-        if (value < 0.0d || value > 100.0d) {
+        this.value = requireInRange(value);
+    }
+
+    public static Percentage of(double value) {
+        int whole = (int) value;
+        if (whole == value && whole >= 0 && whole <= 100) {
+            return WHOLE_PERCENTAGES[whole];
+        }
+        return new Percentage(value);
+    }
+
+    public static double requireInRange(double value) {
+        if (!isInRange(value)) {
             throw new IllegalArgumentException("value must be in range <0,100>");
         }
-        this.value = value;
+        return value;
+    }
+
+    public static boolean isInRange(double value) {
+        return !(value < 0.0d || value > 100.0d);
+    }
+
+    public static boolean isGreaterThan(double value, double other) {
+        return other < value;
+    }
+
+    public static boolean lowerThan(double value, double other) {
+        return other > value;
+    }
+
+    public double getValue() {
+        return value;
     }
 
     public boolean isGreaterThan(Percentage other) {
-        return requireNonNull(other, "other == null").value < this.value;
+        return isGreaterThan(value, requireNonNull(other, "other == null").value);
     }
 
     public boolean lowerThan(Percentage other) {
-        return requireNonNull(other, "other == null").value > this.value;
+        return lowerThan(value, requireNonNull(other, "other == null").value);
     }
 
     @Override
     public int hashCode() {
-        return hash(value);
+        return Double.hashCode(value);
     }
 
     @Override
@@ -43,4 +72,12 @@ public class Percentage {
         return doubleToLongBits(value) == doubleToLongBits(other.value);
     }
 
+    private static Percentage[] wholePercentages() {
+        Percentage[] percentages = new Percentage[101];
+        for (int i = 0; i < percentages.length; i++) {
+            percentages[i] = new Percentage(i);
+        }
+        return percentages;
+    }
+
 }
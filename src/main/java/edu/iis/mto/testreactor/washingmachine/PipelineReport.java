@@ -0,0 +1,113 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import java.util.Collections;
+import java.util.Map;
+
+public class PipelineReport {
+
+    private final long elapsedNanos;
+    private final Map<Stage, StageReport> stages;
+    private final Map<MachineBankPipeline.Pool, Integer> poolSizes;
+    private final Map<MachineBankPipeline.Pool, Double> utilisation;
+
+    PipelineReport(long elapsedNanos, Map<Stage, StageReport> stages, Map<MachineBankPipeline.Pool, Integer> poolSizes,
+            Map<MachineBankPipeline.Pool, Double> utilisation) {
+        this.elapsedNanos = elapsedNanos;
+        this.stages = Collections.unmodifiableMap(stages);
+        this.poolSizes = Collections.unmodifiableMap(poolSizes);
+        this.utilisation = Collections.unmodifiableMap(utilisation);
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public StageReport getStage(Stage stage) {
+        return stages.get(stage);
+    }
+
+    public int getPoolSize(MachineBankPipeline.Pool pool) {
+        return poolSizes.get(pool);
+    }
+
+    /**
+     * Share of the elapsed time the devices of a pool were busy; drums count as busy from pouring until release.
+     */
+    public double getUtilisation(MachineBankPipeline.Pool pool) {
+        return utilisation.get(pool);
+    }
+
+    /**
+     * The pool with the highest utilisation, i.e. where adding hardware raises bank throughput the most.
+     */
+    public MachineBankPipeline.Pool getBottleneck() {
+        MachineBankPipeline.Pool bottleneck = null;
+        for (Map.Entry<MachineBankPipeline.Pool, Double> entry : utilisation.entrySet()) {
+            if (bottleneck == null || entry.getValue() > utilisation.get(bottleneck)) {
+                bottleneck = entry.getKey();
+            }
+        }
+        return bottleneck;
+    }
+
+    public double getThroughputPerSecond() {
+        StageReport release = stages.get(Stage.RELEASE);
+        return release.getCompleted() * 1_000_000_000.0d / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "PipelineReport [elapsedNanos=" + elapsedNanos + ", stages=" + stages.values() + ", poolSizes=" + poolSizes
+               + ", utilisation=" + utilisation + ", bottleneck=" + getBottleneck() + "]";
+    }
+
+    public static class StageReport {
+
+        private final Stage stage;
+        private final long completed;
+        private final long failed;
+        private final long busyNanos;
+        private final long averageWaitNanos;
+        private final int queueDepth;
+
+        StageReport(Stage stage, long completed, long failed, long busyNanos, long averageWaitNanos, int queueDepth) {
+            this.stage = stage;
+            this.completed = completed;
+            this.failed = failed;
+            this.busyNanos = busyNanos;
+            this.averageWaitNanos = averageWaitNanos;
+            this.queueDepth = queueDepth;
+        }
+
+        public Stage getStage() {
+            return stage;
+        }
+
+        public long getCompleted() {
+            return completed;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        public long getBusyNanos() {
+            return busyNanos;
+        }
+
+        public long getAverageWaitNanos() {
+            return averageWaitNanos;
+        }
+
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        @Override
+        public String toString() {
+            return "StageReport [stage=" + stage + ", completed=" + completed + ", failed=" + failed + ", busyNanos="
+                   + busyNanos + ", averageWaitNanos=" + averageWaitNanos + ", queueDepth=" + queueDepth + "]";
+        }
+    }
+
+}
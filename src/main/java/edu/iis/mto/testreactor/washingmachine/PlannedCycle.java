@@ -0,0 +1,37 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+
+public class PlannedCycle {
+
+    private final LaundryBatch laundryBatch;
+    private final ProgramConfiguration programConfiguration;
+    private final List<LaundryItem> items;
+
+    PlannedCycle(LaundryBatch laundryBatch, ProgramConfiguration programConfiguration, List<LaundryItem> items) {
+        this.laundryBatch = requireNonNull(laundryBatch, "laundryBatch == null");
+        this.programConfiguration = requireNonNull(programConfiguration, "programConfiguration == null");
+        this.items = List.copyOf(items);
+    }
+
+    public LaundryBatch getLaundryBatch() {
+        return laundryBatch;
+    }
+
+    public ProgramConfiguration getProgramConfiguration() {
+        return programConfiguration;
+    }
+
+    public List<LaundryItem> getItems() {
+        return items;
+    }
+
+    @Override
+    public String toString() {
+        return "PlannedCycle [laundryBatch=" + laundryBatch + ", programConfiguration=" + programConfiguration + ", items="
+               + items.size() + "]";
+    }
+
+}
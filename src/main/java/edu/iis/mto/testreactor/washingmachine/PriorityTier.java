@@ -0,0 +1,18 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+public enum PriorityTier {
+    PREMIUM(4),
+    STANDARD(2),
+    ECONOMY(1);
+
+    private final int defaultWeight;
+
+    private PriorityTier(int defaultWeight) {
+        this.defaultWeight = defaultWeight;
+    }
+
+    public int getDefaultWeight() {
+        return defaultWeight;
+    }
+
+}
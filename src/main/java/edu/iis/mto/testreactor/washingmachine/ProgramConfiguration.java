@@ -6,12 +6,33 @@ import java.util.Objects;
 
 public class ProgramConfiguration {
 
+    private static final Program[] PROGRAMS = Program.values();
+    private static final ProgramConfiguration[] CANONICAL = canonicalInstances();
+
     private final Program program;
     private final boolean spin;
 
     ProgramConfiguration(Builder builder) {
-        this.program = requireNonNull(builder.program, "program == null");
-        this.spin = builder.spin;
+        this(builder.program, builder.spin);
+    }
+
+    private ProgramConfiguration(Program program, boolean spin) {
+        this.program = requireNonNull(program, "program == null");
+        this.spin = spin;
+    }
+
+    public static ProgramConfiguration of(Program program, boolean spin) {
+        requireNonNull(program, "program == null");
+        return CANONICAL[program.ordinal() * 2 + (spin ? 1 : 0)];
+    }
+
+    private static ProgramConfiguration[] canonicalInstances() {
+        ProgramConfiguration[] instances = new ProgramConfiguration[PROGRAMS.length * 2];
+        for (Program program : PROGRAMS) {
+            instances[program.ordinal() * 2] = new ProgramConfiguration(program, false);
+            instances[program.ordinal() * 2 + 1] = new ProgramConfiguration(program, true);
+        }
+        return instances;
     }
 
     public Program getProgram() {
@@ -0,0 +1,173 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Properties;
+
+public class ProgramPolicy implements ProgramSelector {
+
+    private static final Material[] MATERIALS = Material.values();
+    private static final ProgramPolicy DEFAULTS = builder().build();
+
+    private final double[] maxWeightKg;
+    private final boolean[] maxWeightInclusive;
+    private final double[] shortBelow;
+    private final double[] longAbove;
+
+    private ProgramPolicy(Builder builder) {
+        this.maxWeightKg = builder.maxWeightKg.clone();
+        this.maxWeightInclusive = builder.maxWeightInclusive.clone();
+        this.shortBelow = builder.shortBelow.clone();
+        this.longAbove = builder.longAbove.clone();
+        for (Material material : MATERIALS) {
+            int i = material.ordinal();
+            if (!(maxWeightKg[i] > 0.0d)) {
+                throw new IllegalArgumentException("maxWeightKg for " + material + " must be positive");
+            }
+            if (shortBelow[i] < 0.0d || longAbove[i] > 100.0d || shortBelow[i] > longAbove[i]) {
+                throw new IllegalArgumentException("dirt thresholds for " + material + " must satisfy 0 <= shortBelow <= longAbove <= 100");
+            }
+        }
+    }
+
+    public boolean overweight(Material materialType, double weightKg) {
+        int i = materialType.ordinal();
+        return maxWeightInclusive[i] ? weightKg > maxWeightKg[i] : weightKg >= maxWeightKg[i];
+    }
+
+    public Program programFor(Material materialType, double dirtDegree) {
+        int i = materialType.ordinal();
+        if (dirtDegree > longAbove[i]) {
+            return Program.LONG;
+        }
+        if (dirtDegree < shortBelow[i]) {
+            return Program.SHORT;
+        }
+        return Program.MEDIUM;
+    }
+
+    @Override
+    public Program select(Material materialType, double dirtDegree) {
+        return programFor(materialType, dirtDegree);
+    }
+
+    public double getMaxWeightKg(Material materialType) {
+        return maxWeightKg[materialType.ordinal()];
+    }
+
+    public boolean isMaxWeightInclusive(Material materialType) {
+        return maxWeightInclusive[materialType.ordinal()];
+    }
+
+    public double getShortBelow(Material materialType) {
+        return shortBelow[materialType.ordinal()];
+    }
+
+    public double getLongAbove(Material materialType) {
+        return longAbove[materialType.ordinal()];
+    }
+
+    @Override
+    public String toString() {
+        return "ProgramPolicy [maxWeightKg=" + Arrays.toString(maxWeightKg) + ", maxWeightInclusive="
+               + Arrays.toString(maxWeightInclusive) + ", shortBelow=" + Arrays.toString(shortBelow) + ", longAbove="
+               + Arrays.toString(longAbove) + "]";
+    }
+
+    public Builder toBuilder() {
+        Builder builder = builder();
+        System.arraycopy(maxWeightKg, 0, builder.maxWeightKg, 0, MATERIALS.length);
+        System.arraycopy(maxWeightInclusive, 0, builder.maxWeightInclusive, 0, MATERIALS.length);
+        System.arraycopy(shortBelow, 0, builder.shortBelow, 0, MATERIALS.length);
+        System.arraycopy(longAbove, 0, builder.longAbove, 0, MATERIALS.length);
+        return builder;
+    }
+
+    public static ProgramPolicy defaults() {
+        return DEFAULTS;
+    }
+
+    public static ProgramPolicy load(Path path) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return fromProperties(properties);
+    }
+
+    public static ProgramPolicy fromProperties(Properties properties) {
+        requireNonNull(properties, "properties == null");
+        Builder builder = builder();
+        for (Material material : MATERIALS) {
+            String prefix = material.name()
+                                    .toLowerCase(Locale.ROOT) + ".";
+            String maxWeight = properties.getProperty(prefix + "maxWeightKg");
+            String inclusive = properties.getProperty(prefix + "maxWeightInclusive");
+            if (maxWeight != null || inclusive != null) {
+                builder.withMaxWeightKg(material,
+                        maxWeight != null ? Double.parseDouble(maxWeight.trim()) : builder.maxWeightKg[material.ordinal()],
+                        inclusive != null ? Boolean.parseBoolean(inclusive.trim())
+                                : builder.maxWeightInclusive[material.ordinal()]);
+            }
+            String shortBelow = properties.getProperty(prefix + "shortBelow");
+            if (shortBelow != null) {
+                builder.withShortBelow(material, Double.parseDouble(shortBelow.trim()));
+            }
+            String longAbove = properties.getProperty(prefix + "longAbove");
+            if (longAbove != null) {
+                builder.withLongAbove(material, Double.parseDouble(longAbove.trim()));
+            }
+        }
+        return builder.build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private final double[] maxWeightKg = new double[MATERIALS.length];
+        private final boolean[] maxWeightInclusive = new boolean[MATERIALS.length];
+        private final double[] shortBelow = new double[MATERIALS.length];
+        private final double[] longAbove = new double[MATERIALS.length];
+
+        private Builder() {
+            for (Material material : MATERIALS) {
+                boolean halfLoad = material == Material.WOOL || material == Material.JEANS;
+                maxWeightKg[material.ordinal()] = halfLoad ? WashingMachine.MAX_WEIGTH_KG / 2 : WashingMachine.MAX_WEIGTH_KG;
+                maxWeightInclusive[material.ordinal()] = !halfLoad;
+                longAbove[material.ordinal()] = WashingMachine.AVERAGE_DEGREE.getValue();
+            }
+        }
+
+        public Builder withMaxWeightKg(Material materialType, double maxWeightKg, boolean inclusive) {
+            int i = requireNonNull(materialType, "materialType == null").ordinal();
+            this.maxWeightKg[i] = maxWeightKg;
+            this.maxWeightInclusive[i] = inclusive;
+            return this;
+        }
+
+        public Builder withShortBelow(Material materialType, double dirtDegree) {
+            this.shortBelow[requireNonNull(materialType, "materialType == null").ordinal()] = dirtDegree;
+            return this;
+        }
+
+        public Builder withLongAbove(Material materialType, double dirtDegree) {
+            this.longAbove[requireNonNull(materialType, "materialType == null").ordinal()] = dirtDegree;
+            return this;
+        }
+
+        public ProgramPolicy build() {
+            return new ProgramPolicy(this);
+        }
+    }
+
+}
@@ -0,0 +1,10 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+/**
+ * Chooses the program AUTODETECT runs for a detected dirt degree.
+ */
+public interface ProgramSelector {
+
+    Program select(Material materialType, double dirtDegree);
+
+}
@@ -0,0 +1,88 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class ResilientEngine implements Engine {
+
+    private final Engine delegate;
+    private final RetryPolicy washRetryPolicy;
+    private final RetryPolicy spinRetryPolicy;
+    private final CircuitBreaker circuitBreaker;
+    private final LongAdder washRetries = new LongAdder();
+    private final LongAdder spinRetries = new LongAdder();
+
+    private ResilientEngine(Builder builder) {
+        this.delegate = requireNonNull(builder.delegate, "delegate == null");
+        this.washRetryPolicy = requireNonNull(builder.washRetryPolicy, "washRetryPolicy == null");
+        this.spinRetryPolicy = requireNonNull(builder.spinRetryPolicy, "spinRetryPolicy == null");
+        this.circuitBreaker = requireNonNull(builder.circuitBreaker, "circuitBreaker == null");
+    }
+
+    @Override
+    public void runWashing(int timeInMinutes) throws EngineException {
+        DeviceCalls.call(() -> delegate.runWashing(timeInMinutes), washRetryPolicy, circuitBreaker, EngineException::new,
+                washRetries);
+    }
+
+    @Override
+    public void spin() throws EngineException {
+        DeviceCalls.call(delegate::spin, spinRetryPolicy, circuitBreaker, EngineException::new, spinRetries);
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public long getWashRetryCount() {
+        return washRetries.sum();
+    }
+
+    public long getSpinRetryCount() {
+        return spinRetries.sum();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private Engine delegate;
+        private RetryPolicy washRetryPolicy = RetryPolicy.none();
+        private RetryPolicy spinRetryPolicy = RetryPolicy.none();
+        private CircuitBreaker circuitBreaker;
+
+        private Builder() {}
+
+        public Builder withDelegate(Engine delegate) {
+            this.delegate = delegate;
+            return this;
+        }
+
+        public Builder withWashRetryPolicy(RetryPolicy washRetryPolicy) {
+            this.washRetryPolicy = washRetryPolicy;
+            return this;
+        }
+
+        public Builder withSpinRetryPolicy(RetryPolicy spinRetryPolicy) {
+            this.spinRetryPolicy = spinRetryPolicy;
+            return this;
+        }
+
+        public Builder withCircuitBreaker(CircuitBreaker circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+            return this;
+        }
+
+        public ResilientEngine build() {
+            if (circuitBreaker == null) {
+                circuitBreaker = CircuitBreaker.builder()
+                                               .build();
+            }
+            return new ResilientEngine(this);
+        }
+    }
+
+}
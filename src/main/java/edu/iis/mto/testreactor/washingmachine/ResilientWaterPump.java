@@ -0,0 +1,109 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class ResilientWaterPump implements WaterPump {
+
+    private final WaterPump delegate;
+    private final RetryPolicy pourRetryPolicy;
+    private final RetryPolicy releaseRetryPolicy;
+    private final CircuitBreaker circuitBreaker;
+    private final CircuitBreaker releaseCircuitBreaker;
+    private final LongAdder pourRetries = new LongAdder();
+    private final LongAdder releaseRetries = new LongAdder();
+
+    private ResilientWaterPump(Builder builder) {
+        this.delegate = requireNonNull(builder.delegate, "delegate == null");
+        this.pourRetryPolicy = requireNonNull(builder.pourRetryPolicy, "pourRetryPolicy == null");
+        this.releaseRetryPolicy = requireNonNull(builder.releaseRetryPolicy, "releaseRetryPolicy == null");
+        this.circuitBreaker = requireNonNull(builder.circuitBreaker, "circuitBreaker == null");
+        this.releaseCircuitBreaker = requireNonNull(builder.releaseCircuitBreaker, "releaseCircuitBreaker == null");
+    }
+
+    @Override
+    public void pour(double weigth) throws WaterPumpException {
+        DeviceCalls.call(() -> delegate.pour(weigth), pourRetryPolicy, circuitBreaker, WaterPumpException::new,
+                pourRetries);
+    }
+
+    @Override
+    public void release() throws WaterPumpException {
+        DeviceCalls.call(delegate::release, releaseRetryPolicy, releaseCircuitBreaker, WaterPumpException::new,
+                releaseRetries);
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public CircuitBreaker getReleaseCircuitBreaker() {
+        return releaseCircuitBreaker;
+    }
+
+    public long getPourRetryCount() {
+        return pourRetries.sum();
+    }
+
+    public long getReleaseRetryCount() {
+        return releaseRetries.sum();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private WaterPump delegate;
+        private RetryPolicy pourRetryPolicy = RetryPolicy.none();
+        private RetryPolicy releaseRetryPolicy = RetryPolicy.none();
+        private CircuitBreaker circuitBreaker;
+        private CircuitBreaker releaseCircuitBreaker;
+
+        private Builder() {}
+
+        public Builder withDelegate(WaterPump delegate) {
+            this.delegate = delegate;
+            return this;
+        }
+
+        public Builder withPourRetryPolicy(RetryPolicy pourRetryPolicy) {
+            this.pourRetryPolicy = pourRetryPolicy;
+            return this;
+        }
+
+        public Builder withReleaseRetryPolicy(RetryPolicy releaseRetryPolicy) {
+            this.releaseRetryPolicy = releaseRetryPolicy;
+            return this;
+        }
+
+        /**
+         * Sets the breaker guarding {@link ResilientWaterPump#pour(double)}. Release has its own breaker, so pours failing fast never keep a
+         * machine from draining the water it already holds.
+         */
+        public Builder withCircuitBreaker(CircuitBreaker circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+            return this;
+        }
+
+        public Builder withReleaseCircuitBreaker(CircuitBreaker releaseCircuitBreaker) {
+            this.releaseCircuitBreaker = releaseCircuitBreaker;
+            return this;
+        }
+
+        public ResilientWaterPump build() {
+            if (circuitBreaker == null) {
+                circuitBreaker = CircuitBreaker.builder()
+                                               .build();
+            }
+            if (releaseCircuitBreaker == null) {
+                releaseCircuitBreaker = CircuitBreaker.builder()
+                                                      .build();
+            }
+            return new ResilientWaterPump(this);
+        }
+    }
+
+}
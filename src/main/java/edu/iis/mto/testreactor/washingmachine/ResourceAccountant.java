@@ -0,0 +1,139 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ResourceAccountant {
+
+    public interface UsageListener {
+
+        void onUsage(String machineId, LaundryBatch laundryBatch, LaundryStatus status, ResourceUsage usage);
+    }
+
+    private static final Stage[] STAGES = Stage.values();
+
+    private final ConsumptionModel consumptionModel;
+    private final UsageListener usageListener;
+    private final ConcurrentHashMap<String, Meter> meters = new ConcurrentHashMap<>();
+    private final ThreadLocal<int[]> stagesAttempted = ThreadLocal.withInitial(() -> new int[1]);
+
+    private ResourceAccountant(Builder builder) {
+        this.consumptionModel = requireNonNull(builder.consumptionModel, "consumptionModel == null");
+        this.usageListener = builder.usageListener;
+    }
+
+    public MetricsSink meterFor(String machineId) {
+        requireNonNull(machineId, "machineId == null");
+        return meters.computeIfAbsent(machineId, Meter::new);
+    }
+
+    public ResourceTotals machineTotals(String machineId) {
+        Meter meter = meters.get(machineId);
+        return meter == null ? ResourceTotals.EMPTY : meter.totals();
+    }
+
+    public ResourceTotals fleetTotals() {
+        ResourceTotals totals = ResourceTotals.EMPTY;
+        for (Meter meter : meters.values()) {
+            totals = totals.plus(meter.totals());
+        }
+        return totals;
+    }
+
+    public Map<String, ResourceTotals> machineTotals() {
+        Map<String, ResourceTotals> totals = new ConcurrentHashMap<>();
+        meters.forEach((machineId, meter) -> totals.put(machineId, meter.totals()));
+        return totals;
+    }
+
+    private final class Meter implements MetricsSink {
+
+        private final String machineId;
+        private final LongAdder cycles = new LongAdder();
+        private final LongAdder failedCycles = new LongAdder();
+        private final DoubleAdder waterLitres = new DoubleAdder();
+        private final DoubleAdder energyKwh = new DoubleAdder();
+        private final LongAdder durationMinutes = new LongAdder();
+
+        private Meter(String machineId) {
+            this.machineId = machineId;
+        }
+
+        @Override
+        public void recordStage(Stage stage, long durationNanos, boolean succeeded) {
+            stagesAttempted.get()[0] |= 1 << stage.ordinal();
+        }
+
+        /**
+         * Charges the cycle for the stages it attempted, so water poured before a failure is accounted for. A batch
+         * rejected as too heavy or because the machine was busy never started a cycle and is not counted.
+         */
+        @Override
+        public void recordCycle(LaundryBatch laundryBatch, ProgramConfiguration programConfiguration, LaundryStatus status,
+                long durationNanos) {
+            int[] attempted = stagesAttempted.get();
+            int stages = attempted[0];
+            attempted[0] = 0;
+            if (status.getErrorCode() == ErrorCode.TOO_HEAVY || status.getErrorCode() == ErrorCode.MACHINE_BUSY) {
+                return;
+            }
+            ResourceUsage usage = ResourceUsage.ZERO;
+            Program program = status.getRunnedProgram();
+            if (program != null) {
+                for (Stage stage : STAGES) {
+                    if ((stages & 1 << stage.ordinal()) != 0) {
+                        usage = usage.plus(consumptionModel.estimateStage(stage, program, laundryBatch.getMaterialType(),
+                                laundryBatch.getWeightKg()));
+                    }
+                }
+            }
+            if (status.getResult() == Result.SUCCESS) {
+                cycles.increment();
+            } else {
+                failedCycles.increment();
+            }
+            waterLitres.add(usage.getWaterLitres());
+            energyKwh.add(usage.getEnergyKwh());
+            durationMinutes.add(usage.getDurationMinutes());
+            if (usageListener != null) {
+                usageListener.onUsage(machineId, laundryBatch, status, usage);
+            }
+        }
+
+        private ResourceTotals totals() {
+            return new ResourceTotals(cycles.sum(), failedCycles.sum(), waterLitres.sum(), energyKwh.sum(),
+                    durationMinutes.sum());
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private ConsumptionModel consumptionModel = ConsumptionModel.linear();
+        private UsageListener usageListener;
+
+        private Builder() {}
+
+        public Builder withConsumptionModel(ConsumptionModel consumptionModel) {
+            this.consumptionModel = consumptionModel;
+            return this;
+        }
+
+        public Builder withUsageListener(UsageListener usageListener) {
+            this.usageListener = usageListener;
+            return this;
+        }
+
+        public ResourceAccountant build() {
+            return new ResourceAccountant(this);
+        }
+    }
+
+}
@@ -0,0 +1,52 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+public class ResourceTotals {
+
+    public static final ResourceTotals EMPTY = new ResourceTotals(0, 0, 0.0d, 0.0d, 0);
+
+    private final long cycles;
+    private final long failedCycles;
+    private final double waterLitres;
+    private final double energyKwh;
+    private final long durationMinutes;
+
+    ResourceTotals(long cycles, long failedCycles, double waterLitres, double energyKwh, long durationMinutes) {
+        this.cycles = cycles;
+        this.failedCycles = failedCycles;
+        this.waterLitres = waterLitres;
+        this.energyKwh = energyKwh;
+        this.durationMinutes = durationMinutes;
+    }
+
+    public long getCycles() {
+        return cycles;
+    }
+
+    public long getFailedCycles() {
+        return failedCycles;
+    }
+
+    public double getWaterLitres() {
+        return waterLitres;
+    }
+
+    public double getEnergyKwh() {
+        return energyKwh;
+    }
+
+    public long getDurationMinutes() {
+        return durationMinutes;
+    }
+
+    public ResourceTotals plus(ResourceTotals other) {
+        return new ResourceTotals(cycles + other.cycles, failedCycles + other.failedCycles, waterLitres + other.waterLitres,
+                energyKwh + other.energyKwh, durationMinutes + other.durationMinutes);
+    }
+
+    @Override
+    public String toString() {
+        return "ResourceTotals [cycles=" + cycles + ", failedCycles=" + failedCycles + ", waterLitres=" + waterLitres
+               + ", energyKwh=" + energyKwh + ", durationMinutes=" + durationMinutes + "]";
+    }
+
+}
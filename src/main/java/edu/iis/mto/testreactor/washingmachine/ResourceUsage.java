@@ -0,0 +1,67 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import java.util.Objects;
+
+public class ResourceUsage {
+
+    public static final ResourceUsage ZERO = new ResourceUsage(0.0d, 0.0d, 0);
+
+    private final double waterLitres;
+    private final double energyKwh;
+    private final int durationMinutes;
+
+    public ResourceUsage(double waterLitres, double energyKwh, int durationMinutes) {
+        if (waterLitres < 0.0d || energyKwh < 0.0d || durationMinutes < 0) {
+            throw new IllegalArgumentException("resource usage must not be negative");
+        }
+        this.waterLitres = waterLitres;
+        this.energyKwh = energyKwh;
+        this.durationMinutes = durationMinutes;
+    }
+
+    public double getWaterLitres() {
+        return waterLitres;
+    }
+
+    public double getEnergyKwh() {
+        return energyKwh;
+    }
+
+    public int getDurationMinutes() {
+        return durationMinutes;
+    }
+
+    public ResourceUsage plus(ResourceUsage other) {
+        return new ResourceUsage(waterLitres + other.waterLitres, energyKwh + other.energyKwh,
+                durationMinutes + other.durationMinutes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(durationMinutes, energyKwh, waterLitres);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        ResourceUsage other = (ResourceUsage) obj;
+        return durationMinutes == other.durationMinutes
+               && Double.doubleToLongBits(energyKwh) == Double.doubleToLongBits(other.energyKwh)
+               && Double.doubleToLongBits(waterLitres) == Double.doubleToLongBits(other.waterLitres);
+    }
+
+    @Override
+    public String toString() {
+        return "ResourceUsage [waterLitres=" + waterLitres + ", energyKwh=" + energyKwh + ", durationMinutes="
+               + durationMinutes + "]";
+    }
+
+}
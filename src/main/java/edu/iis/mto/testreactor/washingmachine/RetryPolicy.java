@@ -0,0 +1,107 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class RetryPolicy {
+
+    private static final RetryPolicy NONE = builder().withMaxAttempts(1)
+                                                     .build();
+
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final double multiplier;
+    private final double jitter;
+
+    private RetryPolicy(Builder builder) {
+        requireNonNull(builder.initialBackoff, "initialBackoff == null");
+        requireNonNull(builder.maxBackoff, "maxBackoff == null");
+        if (builder.maxAttempts <= 0) {
+            throw new IllegalArgumentException("maxAttempts must be positive");
+        }
+        if (builder.initialBackoff.isNegative() || builder.maxBackoff.compareTo(builder.initialBackoff) < 0) {
+            throw new IllegalArgumentException("backoff must satisfy 0 <= initialBackoff <= maxBackoff");
+        }
+        if (builder.multiplier < 1.0d) {
+            throw new IllegalArgumentException("multiplier must be at least 1");
+        }
+        if (builder.jitter < 0.0d || builder.jitter > 1.0d) {
+            throw new IllegalArgumentException("jitter must be in range <0,1>");
+        }
+        this.maxAttempts = builder.maxAttempts;
+        this.initialBackoffNanos = builder.initialBackoff.toNanos();
+        this.maxBackoffNanos = builder.maxBackoff.toNanos();
+        this.multiplier = builder.multiplier;
+        this.jitter = builder.jitter;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public long backoffNanos(int failedAttempts) {
+        double backoff = initialBackoffNanos * Math.pow(multiplier, Math.max(0, failedAttempts - 1));
+        double capped = Math.min(backoff, maxBackoffNanos);
+        double jittered = capped * (1.0d - jitter * ThreadLocalRandom.current()
+                                                                    .nextDouble());
+        return (long) jittered;
+    }
+
+    @Override
+    public String toString() {
+        return "RetryPolicy [maxAttempts=" + maxAttempts + ", initialBackoffNanos=" + initialBackoffNanos
+               + ", maxBackoffNanos=" + maxBackoffNanos + ", multiplier=" + multiplier + ", jitter=" + jitter + "]";
+    }
+
+    public static RetryPolicy none() {
+        return NONE;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private int maxAttempts = 3;
+        private Duration initialBackoff = Duration.ofMillis(50);
+        private Duration maxBackoff = Duration.ofSeconds(2);
+        private double multiplier = 2.0d;
+        private double jitter = 0.5d;
+
+        private Builder() {}
+
+        public Builder withMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        public Builder withInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+            return this;
+        }
+
+        public Builder withMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+            return this;
+        }
+
+        public Builder withMultiplier(double multiplier) {
+            this.multiplier = multiplier;
+            return this;
+        }
+
+        public Builder withJitter(double jitter) {
+            this.jitter = jitter;
+            return this;
+        }
+
+        public RetryPolicy build() {
+            return new RetryPolicy(this);
+        }
+    }
+
+}
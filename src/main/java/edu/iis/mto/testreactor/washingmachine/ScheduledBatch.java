@@ -0,0 +1,93 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+public class ScheduledBatch {
+
+    private final String id;
+    private final LaundryBatch laundryBatch;
+    private final ProgramConfiguration programConfiguration;
+    private final long releaseMinute;
+    private final long deadlineMinute;
+
+    private ScheduledBatch(Builder builder) {
+        this.id = requireNonNull(builder.id, "id == null");
+        this.laundryBatch = requireNonNull(builder.laundryBatch, "laundryBatch == null");
+        this.programConfiguration = requireNonNull(builder.programConfiguration, "programConfiguration == null");
+        if (builder.deadlineMinute < builder.releaseMinute) {
+            throw new IllegalArgumentException("deadlineMinute must not precede releaseMinute");
+        }
+        this.releaseMinute = builder.releaseMinute;
+        this.deadlineMinute = builder.deadlineMinute;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public LaundryBatch getLaundryBatch() {
+        return laundryBatch;
+    }
+
+    public ProgramConfiguration getProgramConfiguration() {
+        return programConfiguration;
+    }
+
+    public long getReleaseMinute() {
+        return releaseMinute;
+    }
+
+    public long getDeadlineMinute() {
+        return deadlineMinute;
+    }
+
+    @Override
+    public String toString() {
+        return "ScheduledBatch [id=" + id + ", releaseMinute=" + releaseMinute + ", deadlineMinute=" + deadlineMinute + "]";
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private String id;
+        private LaundryBatch laundryBatch;
+        private ProgramConfiguration programConfiguration;
+        private long releaseMinute;
+        private long deadlineMinute = Long.MAX_VALUE;
+
+        private Builder() {}
+
+        public Builder withId(String id) {
+            this.id = id;
+            return this;
+        }
+
+        public Builder withLaundryBatch(LaundryBatch laundryBatch) {
+            this.laundryBatch = laundryBatch;
+            return this;
+        }
+
+        public Builder withProgramConfiguration(ProgramConfiguration programConfiguration) {
+            this.programConfiguration = programConfiguration;
+            return this;
+        }
+
+        public Builder withReleaseMinute(long releaseMinute) {
+            this.releaseMinute = releaseMinute;
+            return this;
+        }
+
+        public Builder withDeadlineMinute(long deadlineMinute) {
+            this.deadlineMinute = deadlineMinute;
+            return this;
+        }
+
+        public ScheduledBatch build() {
+            return new ScheduledBatch(this);
+        }
+    }
+
+}
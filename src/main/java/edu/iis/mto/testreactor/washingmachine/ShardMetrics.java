@@ -0,0 +1,59 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+public class ShardMetrics {
+
+    private final String nodeId;
+    private final int ownedMachines;
+    private final long routed;
+    private final long completed;
+    private final long failed;
+    private final int queueDepth;
+    private final double throughputPerSecond;
+
+    ShardMetrics(String nodeId, int ownedMachines, long routed, long completed, long failed, int queueDepth,
+            double throughputPerSecond) {
+        this.nodeId = nodeId;
+        this.ownedMachines = ownedMachines;
+        this.routed = routed;
+        this.completed = completed;
+        this.failed = failed;
+        this.queueDepth = queueDepth;
+        this.throughputPerSecond = throughputPerSecond;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public int getOwnedMachines() {
+        return ownedMachines;
+    }
+
+    public long getRouted() {
+        return routed;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public double getThroughputPerSecond() {
+        return throughputPerSecond;
+    }
+
+    @Override
+    public String toString() {
+        return "ShardMetrics [nodeId=" + nodeId + ", ownedMachines=" + ownedMachines + ", routed=" + routed
+               + ", completed=" + completed + ", failed=" + failed + ", queueDepth=" + queueDepth
+               + ", throughputPerSecond=" + throughputPerSecond + "]";
+    }
+
+}
@@ -0,0 +1,33 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Random;
+
+public class SimulatedDirtDetector implements DirtDetector {
+
+    private final VirtualClock clock;
+    private final long detectionSeconds;
+    private final Random random;
+
+    public SimulatedDirtDetector(VirtualClock clock, long detectionSeconds, Random random) {
+        this.clock = requireNonNull(clock, "clock == null");
+        this.random = requireNonNull(random, "random == null");
+        if (detectionSeconds < 0) {
+            throw new IllegalArgumentException("detectionSeconds must not be negative");
+        }
+        this.detectionSeconds = detectionSeconds;
+    }
+
+    @Override
+    public Percentage detectDirtDegree(LaundryBatch laundryBatch) {
+        return Percentage.of(detectDirtDegreeValue(laundryBatch));
+    }
+
+    @Override
+    public double detectDirtDegreeValue(LaundryBatch laundryBatch) {
+        clock.advance(detectionSeconds);
+        return random.nextDouble() * 100.0d;
+    }
+
+}
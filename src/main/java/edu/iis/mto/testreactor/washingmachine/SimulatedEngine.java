@@ -0,0 +1,51 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Random;
+
+public class SimulatedEngine implements Engine {
+
+    public static final long DEFAULT_SPIN_SECONDS = 10 * 60;
+
+    private final VirtualClock clock;
+    private final long spinSeconds;
+    private final double failureProbability;
+    private final Random random;
+
+    public SimulatedEngine(VirtualClock clock) {
+        this(clock, DEFAULT_SPIN_SECONDS, 0.0d, new Random(0));
+    }
+
+    public SimulatedEngine(VirtualClock clock, long spinSeconds, double failureProbability, Random random) {
+        this.clock = requireNonNull(clock, "clock == null");
+        this.random = requireNonNull(random, "random == null");
+        if (spinSeconds < 0) {
+            throw new IllegalArgumentException("spinSeconds must not be negative");
+        }
+        if (failureProbability < 0.0d || failureProbability > 1.0d) {
+            throw new IllegalArgumentException("failureProbability must be in range <0,1>");
+        }
+        this.spinSeconds = spinSeconds;
+        this.failureProbability = failureProbability;
+    }
+
+    @Override
+    public void runWashing(int timeInMinutes) throws EngineException {
+        clock.advance(timeInMinutes * 60L);
+        failRandomly();
+    }
+
+    @Override
+    public void spin() throws EngineException {
+        clock.advance(spinSeconds);
+        failRandomly();
+    }
+
+    private void failRandomly() throws EngineException {
+        if (failureProbability > 0.0d && random.nextDouble() < failureProbability) {
+            throw new EngineException();
+        }
+    }
+
+}
@@ -0,0 +1,55 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Random;
+
+public class SimulatedWaterPump implements WaterPump {
+
+    public static final long DEFAULT_POUR_SECONDS_PER_KG = 30;
+    public static final long DEFAULT_RELEASE_SECONDS = 2 * 60;
+
+    private final VirtualClock clock;
+    private final long pourSecondsPerKg;
+    private final long releaseSeconds;
+    private final double failureProbability;
+    private final Random random;
+
+    public SimulatedWaterPump(VirtualClock clock) {
+        this(clock, DEFAULT_POUR_SECONDS_PER_KG, DEFAULT_RELEASE_SECONDS, 0.0d, new Random(0));
+    }
+
+    public SimulatedWaterPump(VirtualClock clock, long pourSecondsPerKg, long releaseSeconds, double failureProbability,
+            Random random) {
+        this.clock = requireNonNull(clock, "clock == null");
+        this.random = requireNonNull(random, "random == null");
+        if (pourSecondsPerKg < 0 || releaseSeconds < 0) {
+            throw new IllegalArgumentException("durations must not be negative");
+        }
+        if (failureProbability < 0.0d || failureProbability > 1.0d) {
+            throw new IllegalArgumentException("failureProbability must be in range <0,1>");
+        }
+        this.pourSecondsPerKg = pourSecondsPerKg;
+        this.releaseSeconds = releaseSeconds;
+        this.failureProbability = failureProbability;
+    }
+
+    @Override
+    public void pour(double weigth) throws WaterPumpException {
+        clock.advance((long) Math.ceil(weigth * pourSecondsPerKg));
+        failRandomly();
+    }
+
+    @Override
+    public void release() throws WaterPumpException {
+        clock.advance(releaseSeconds);
+        failRandomly();
+    }
+
+    private void failRandomly() throws WaterPumpException {
+        if (failureProbability > 0.0d && random.nextDouble() < failureProbability) {
+            throw new WaterPumpException();
+        }
+    }
+
+}
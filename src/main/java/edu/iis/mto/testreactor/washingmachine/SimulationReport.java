@@ -0,0 +1,126 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import java.util.Arrays;
+
+public class SimulationReport {
+
+    private static final ErrorCode[] ERROR_CODES = ErrorCode.values();
+
+    private final long horizonSeconds;
+    private final long cyclesStarted;
+    private final long cyclesFinished;
+    private final long[] errorCodes;
+    private final double[] machineUtilisation;
+    private final double meanQueueWaitSeconds;
+    private final long maxQueueWaitSeconds;
+    private final int maxQueueLength;
+    private final int queuedAtHorizon;
+
+    private SimulationReport(Accumulator accumulator, int queuedAtHorizon) {
+        this.horizonSeconds = accumulator.horizonSeconds;
+        this.cyclesStarted = accumulator.cyclesStarted;
+        this.cyclesFinished = accumulator.cyclesFinished;
+        this.errorCodes = accumulator.errorCodes.clone();
+        this.machineUtilisation = new double[accumulator.busySeconds.length];
+        for (int i = 0; i < machineUtilisation.length; i++) {
+            machineUtilisation[i] = (double) accumulator.busySeconds[i] / horizonSeconds;
+        }
+        this.meanQueueWaitSeconds = cyclesStarted == 0 ? 0.0d : (double) accumulator.totalWaitSeconds / cyclesStarted;
+        this.maxQueueWaitSeconds = accumulator.maxWaitSeconds;
+        this.maxQueueLength = accumulator.maxQueueLength;
+        this.queuedAtHorizon = queuedAtHorizon;
+    }
+
+    public long getHorizonSeconds() {
+        return horizonSeconds;
+    }
+
+    public long getCyclesStarted() {
+        return cyclesStarted;
+    }
+
+    public long getCyclesFinished() {
+        return cyclesFinished;
+    }
+
+    public long getErrorCodeCount(ErrorCode errorCode) {
+        return errorCodes[errorCode.ordinal()];
+    }
+
+    public double getMachineUtilisation(int machine) {
+        return machineUtilisation[machine];
+    }
+
+    public double getMeanUtilisation() {
+        return Arrays.stream(machineUtilisation)
+                     .average()
+                     .orElse(0.0d);
+    }
+
+    public double getThroughputPerHour() {
+        return cyclesFinished * 3600.0d / horizonSeconds;
+    }
+
+    public double getMeanQueueWaitSeconds() {
+        return meanQueueWaitSeconds;
+    }
+
+    public long getMaxQueueWaitSeconds() {
+        return maxQueueWaitSeconds;
+    }
+
+    public int getMaxQueueLength() {
+        return maxQueueLength;
+    }
+
+    public int getQueuedAtHorizon() {
+        return queuedAtHorizon;
+    }
+
+    @Override
+    public String toString() {
+        return "SimulationReport [horizonSeconds=" + horizonSeconds + ", cyclesFinished=" + cyclesFinished
+               + ", throughputPerHour=" + getThroughputPerHour() + ", meanUtilisation=" + getMeanUtilisation()
+               + ", meanQueueWaitSeconds=" + meanQueueWaitSeconds + ", maxQueueWaitSeconds=" + maxQueueWaitSeconds
+               + ", maxQueueLength=" + maxQueueLength + ", queuedAtHorizon=" + queuedAtHorizon + "]";
+    }
+
+    static final class Accumulator {
+
+        private final long horizonSeconds;
+        private final long[] busySeconds;
+        private final long[] errorCodes = new long[ERROR_CODES.length];
+        private long cyclesStarted;
+        private long cyclesFinished;
+        private long totalWaitSeconds;
+        private long maxWaitSeconds;
+        private int maxQueueLength;
+
+        Accumulator(int machineCount, long horizonSeconds) {
+            this.horizonSeconds = horizonSeconds;
+            this.busySeconds = new long[machineCount];
+        }
+
+        void queueLength(int length) {
+            maxQueueLength = Math.max(maxQueueLength, length);
+        }
+
+        void cycleStarted(int machine, long waitSeconds, long startedAt, long finishedAt) {
+            cyclesStarted++;
+            totalWaitSeconds += waitSeconds;
+            maxWaitSeconds = Math.max(maxWaitSeconds, waitSeconds);
+            busySeconds[machine] += Math.min(finishedAt, horizonSeconds) - startedAt;
+        }
+
+        void cycleFinished(LaundryStatus status) {
+            cyclesFinished++;
+            errorCodes[status.getErrorCode()
+                             .ordinal()]++;
+        }
+
+        SimulationReport build(int queuedAtHorizon) {
+            return new SimulationReport(this, queuedAtHorizon);
+        }
+    }
+
+}
@@ -0,0 +1,9 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+public enum Stage {
+    DETECT,
+    POUR,
+    WASH,
+    RELEASE,
+    SPIN
+}
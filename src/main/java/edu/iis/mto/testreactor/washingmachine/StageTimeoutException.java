@@ -0,0 +1,18 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+public class StageTimeoutException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Stage stage;
+
+    public StageTimeoutException(Stage stage) {
+        super(stage + " stage timed out");
+        this.stage = stage;
+    }
+
+    public Stage getStage() {
+        return stage;
+    }
+
+}
@@ -0,0 +1,35 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+public class StartRequest {
+
+    private final String machineId;
+    private final LaundryBatch laundryBatch;
+    private final ProgramConfiguration programConfiguration;
+
+    public StartRequest(String machineId, LaundryBatch laundryBatch, ProgramConfiguration programConfiguration) {
+        this.machineId = requireNonNull(machineId, "machineId == null");
+        this.laundryBatch = requireNonNull(laundryBatch, "laundryBatch == null");
+        this.programConfiguration = requireNonNull(programConfiguration, "programConfiguration == null");
+    }
+
+    public String getMachineId() {
+        return machineId;
+    }
+
+    public LaundryBatch getLaundryBatch() {
+        return laundryBatch;
+    }
+
+    public ProgramConfiguration getProgramConfiguration() {
+        return programConfiguration;
+    }
+
+    @Override
+    public String toString() {
+        return "StartRequest [machineId=" + machineId + ", laundryBatch=" + laundryBatch + ", programConfiguration="
+               + programConfiguration + "]";
+    }
+
+}
@@ -0,0 +1,118 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class TariffCurve {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final double[] pricePerKwh = new double[MINUTES_PER_DAY];
+    private final double[] prefix = new double[MINUTES_PER_DAY + 1];
+
+    private TariffCurve(TreeMap<Integer, Double> steps) {
+        if (steps.isEmpty()) {
+            throw new IllegalArgumentException("tariff curve needs at least one price");
+        }
+        double price = steps.lastEntry()
+                            .getValue();
+        for (int minute = 0; minute < MINUTES_PER_DAY; minute++) {
+            Double step = steps.get(minute);
+            if (step != null) {
+                price = step;
+            }
+            pricePerKwh[minute] = price;
+            prefix[minute + 1] = prefix[minute] + price;
+        }
+    }
+
+    public double priceAt(long minute) {
+        return pricePerKwh[Math.floorMod(minute, MINUTES_PER_DAY)];
+    }
+
+    public double cost(long startMinute, int durationMinutes, double energyKwh) {
+        if (durationMinutes <= 0) {
+            return energyKwh * priceAt(startMinute);
+        }
+        double priceMinutes = cumulative(startMinute + durationMinutes) - cumulative(startMinute);
+        return energyKwh / durationMinutes * priceMinutes;
+    }
+
+    private double cumulative(long minute) {
+        long days = Math.floorDiv(minute, MINUTES_PER_DAY);
+        int minuteOfDay = Math.floorMod(minute, MINUTES_PER_DAY);
+        return days * prefix[MINUTES_PER_DAY] + prefix[minuteOfDay];
+    }
+
+    public static TariffCurve flat(double pricePerKwh) {
+        return of(Map.of(0, pricePerKwh));
+    }
+
+    public static TariffCurve of(Map<Integer, Double> pricesFromMinuteOfDay) {
+        TreeMap<Integer, Double> steps = new TreeMap<>();
+        pricesFromMinuteOfDay.forEach((minute, price) -> steps.put(checkMinute(minute), checkPrice(price)));
+        return new TariffCurve(steps);
+    }
+
+    public static TariffCurve load(Path path) throws IOException {
+        TreeMap<Integer, Double> steps = new TreeMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = trimmed.split("[,;\\s]+");
+                if (fields.length != 2) {
+                    throw new IOException(path + ":" + lineNumber + ": expected 'HH:mm,pricePerKwh'");
+                }
+                try {
+                    steps.put(checkMinute(parseMinuteOfDay(fields[0])), checkPrice(Double.parseDouble(fields[1])));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(path + ":" + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return new TariffCurve(steps);
+    }
+
+    private static int parseMinuteOfDay(String time) {
+        int separator = time.indexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("time must be HH:mm");
+        }
+        int hours = Integer.parseInt(time.substring(0, separator));
+        int minutes = Integer.parseInt(time.substring(separator + 1));
+        if (hours < 0 || hours > 23 || minutes < 0 || minutes > 59) {
+            throw new IllegalArgumentException("time must be HH:mm within a day: " + time);
+        }
+        return hours * 60 + minutes;
+    }
+
+    private static int checkMinute(Integer minute) {
+        requireNonNull(minute, "minute == null");
+        if (minute < 0 || minute >= MINUTES_PER_DAY) {
+            throw new IllegalArgumentException("minute of day must be in range <0," + MINUTES_PER_DAY + ")");
+        }
+        return minute;
+    }
+
+    private static double checkPrice(Double price) {
+        requireNonNull(price, "price == null");
+        if (price < 0.0d || price.isNaN()) {
+            throw new IllegalArgumentException("price must not be negative");
+        }
+        return price;
+    }
+
+}
@@ -0,0 +1,41 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Forwards every reading of the delegate to {@link DirtTelemetry} without ever blocking the cycle: readings that do
+ * not fit into the telemetry ring, or that are out of range, are only counted and the cycle goes on.
+ */
+public class TelemetryDirtDetector implements DirtDetector {
+
+    private final DirtDetector delegate;
+    private final DirtTelemetry telemetry;
+
+    public TelemetryDirtDetector(DirtDetector delegate, DirtTelemetry telemetry) {
+        this.delegate = requireNonNull(delegate, "delegate == null");
+        this.telemetry = requireNonNull(telemetry, "telemetry == null");
+    }
+
+    @Override
+    public Percentage detectDirtDegree(LaundryBatch laundryBatch) {
+        Percentage dirtDegree = delegate.detectDirtDegree(laundryBatch);
+        if (dirtDegree != null) {
+            record(laundryBatch, dirtDegree.getValue());
+        }
+        return dirtDegree;
+    }
+
+    @Override
+    public double detectDirtDegreeValue(LaundryBatch laundryBatch) {
+        double dirtDegree = delegate.detectDirtDegreeValue(laundryBatch);
+        record(laundryBatch, dirtDegree);
+        return dirtDegree;
+    }
+
+    private void record(LaundryBatch laundryBatch, double dirtDegree) {
+        if (dirtDegree >= 0.0d && dirtDegree <= 100.0d) {
+            telemetry.offer(laundryBatch.getMaterialType(), dirtDegree);
+        }
+    }
+
+}
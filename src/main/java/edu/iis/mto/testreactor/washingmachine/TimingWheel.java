@@ -0,0 +1,288 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Hashed hierarchical timing wheel. Scheduling and cancelling are O(1) for the calling thread: new timers and
+ * cancellations are handed over through lock-free queues and linked into (or out of) their buckets by a single
+ * ticker thread, which cascades timers down the levels as time advances. Expired tasks run on the ticker thread,
+ * so they must be short and must not block.
+ */
+public class TimingWheel implements AutoCloseable {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickNanos;
+    private final LongSupplier ticker;
+    private final long origin;
+    private final Bucket[][] wheels = new Bucket[LEVELS][SLOTS];
+    private final Bucket overflow = new Bucket();
+    private final ConcurrentLinkedQueue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final LongAdder expired = new LongAdder();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Thread worker;
+    private long currentTick;
+    private volatile boolean closed;
+
+    private TimingWheel(Builder builder) {
+        requireNonNull(builder.tickDuration, "tickDuration == null");
+        this.ticker = requireNonNull(builder.ticker, "ticker == null");
+        requireNonNull(builder.threadFactory, "threadFactory == null");
+        if (builder.tickDuration.isNegative() || builder.tickDuration.isZero()) {
+            throw new IllegalArgumentException("tickDuration must be positive");
+        }
+        this.tickNanos = builder.tickDuration.toNanos();
+        this.origin = ticker.getAsLong();
+        for (Bucket[] wheel : wheels) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                wheel[slot] = new Bucket();
+            }
+        }
+        this.worker = builder.threadFactory.newThread(this::tickLoop);
+        this.worker.start();
+    }
+
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        requireNonNull(task, "task == null");
+        requireNonNull(unit, "unit == null");
+        if (closed) {
+            throw new RejectedExecutionException("timing wheel is closed");
+        }
+        long deadline = ticker.getAsLong() - origin + Math.max(0L, unit.toNanos(delay));
+        Timeout timeout = new Timeout(this, task, Math.floorDiv(deadline + tickNanos - 1, tickNanos));
+        pending.incrementAndGet();
+        scheduled.add(timeout);
+        return timeout;
+    }
+
+    public int pendingCount() {
+        return pending.get();
+    }
+
+    public long getExpiredCount() {
+        return expired.sum();
+    }
+
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(worker);
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+        }
+    }
+
+    private void tickLoop() {
+        while (!closed) {
+            long nowTick = (ticker.getAsLong() - origin) / tickNanos;
+            transferCancelled();
+            transferScheduled();
+            while (currentTick < nowTick) {
+                currentTick++;
+                cascade();
+                expire(wheels[0][(int) (currentTick & SLOT_MASK)]);
+            }
+            long nextTickAt = origin + (currentTick + 1) * tickNanos;
+            LockSupport.parkNanos(Math.max(0L, nextTickAt - ticker.getAsLong()));
+        }
+    }
+
+    private void transferScheduled() {
+        Timeout timeout;
+        while ((timeout = scheduled.poll()) != null) {
+            if (timeout.state.get() == Timeout.ARMED) {
+                insert(timeout, currentTick + 1);
+            }
+        }
+    }
+
+    private void transferCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void insert(Timeout timeout, long earliestTick) {
+        long deadline = Math.max(timeout.deadlineTick, earliestTick);
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = SLOT_BITS * level;
+            if ((deadline ^ currentTick) >>> (shift + SLOT_BITS) == 0) {
+                wheels[level][(int) ((deadline >>> shift) & SLOT_MASK)].add(timeout);
+                return;
+            }
+        }
+        overflow.add(timeout);
+    }
+
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            int shift = SLOT_BITS * level;
+            if ((currentTick & ((1L << shift) - 1)) != 0) {
+                return;
+            }
+            reinsert(wheels[level][(int) ((currentTick >>> shift) & SLOT_MASK)]);
+        }
+        if ((currentTick & ((1L << (SLOT_BITS * LEVELS)) - 1)) == 0) {
+            reinsert(overflow);
+        }
+    }
+
+    private void reinsert(Bucket bucket) {
+        Timeout timeout;
+        while ((timeout = bucket.poll()) != null) {
+            insert(timeout, currentTick);
+        }
+    }
+
+    private void expire(Bucket bucket) {
+        Timeout timeout;
+        while ((timeout = bucket.poll()) != null) {
+            if (timeout.state.compareAndSet(Timeout.ARMED, Timeout.EXPIRED)) {
+                pending.decrementAndGet();
+                expired.increment();
+                try {
+                    timeout.task.run();
+                } catch (RuntimeException e) {
+                    // a failing task must not stop the wheel
+                }
+            }
+        }
+    }
+
+    public static final class Timeout {
+
+        private static final int ARMED = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final TimingWheel wheel;
+        private final Runnable task;
+        private final long deadlineTick;
+        private final AtomicInteger state = new AtomicInteger(ARMED);
+        private Bucket bucket;
+        private Timeout previous;
+        private Timeout next;
+
+        private Timeout(TimingWheel wheel, Runnable task, long deadlineTick) {
+            this.wheel = wheel;
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public boolean cancel() {
+            if (!state.compareAndSet(ARMED, CANCELLED)) {
+                return false;
+            }
+            wheel.pending.decrementAndGet();
+            wheel.cancelled.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+    }
+
+    private static final class Bucket {
+
+        private Timeout head;
+        private Timeout tail;
+
+        private void add(Timeout timeout) {
+            timeout.bucket = this;
+            timeout.previous = tail;
+            timeout.next = null;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        private void remove(Timeout timeout) {
+            if (timeout.previous == null) {
+                head = timeout.next;
+            } else {
+                timeout.previous.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.previous;
+            } else {
+                timeout.next.previous = timeout.previous;
+            }
+            timeout.bucket = null;
+            timeout.previous = null;
+            timeout.next = null;
+        }
+
+        private Timeout poll() {
+            Timeout first = head;
+            if (first != null) {
+                remove(first);
+            }
+            return first;
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private Duration tickDuration = Duration.ofMillis(10);
+        private LongSupplier ticker = System::nanoTime;
+        private ThreadFactory threadFactory = WashingMachineFleet.daemonThreads("timing-wheel-");
+
+        private Builder() {}
+
+        public Builder withTickDuration(Duration tickDuration) {
+            this.tickDuration = tickDuration;
+            return this;
+        }
+
+        public Builder withTicker(LongSupplier ticker) {
+            this.ticker = ticker;
+            return this;
+        }
+
+        public Builder withThreadFactory(ThreadFactory threadFactory) {
+            this.threadFactory = threadFactory;
+            return this;
+        }
+
+        public TimingWheel build() {
+            return new TimingWheel(this);
+        }
+    }
+
+}
@@ -0,0 +1,26 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Carries coordinator messages to fleet nodes. Implementations decide how nodes are reached; failures are reported
+ * through the returned futures, never thrown.
+ */
+public interface Transport {
+
+    interface Handler {
+
+        CompletableFuture<LaundryStatus> onStart(StartRequest request);
+
+        CompletableFuture<Void> onRelinquish(String machineId);
+    }
+
+    void bind(String nodeId, Handler handler);
+
+    void unbind(String nodeId);
+
+    CompletableFuture<LaundryStatus> start(String nodeId, StartRequest request);
+
+    CompletableFuture<Void> relinquish(String nodeId, String machineId);
+
+}
@@ -0,0 +1,29 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+public class VirtualClock {
+
+    private long nowSeconds;
+
+    public long now() {
+        return nowSeconds;
+    }
+
+    public void advance(long seconds) {
+        if (seconds < 0) {
+            throw new IllegalArgumentException("seconds must not be negative");
+        }
+        nowSeconds += seconds;
+    }
+
+    public void set(long seconds) {
+        if (seconds < nowSeconds) {
+            throw new IllegalArgumentException("virtual time must not go backwards");
+        }
+        nowSeconds = seconds;
+    }
+
+    void reset(long seconds) {
+        nowSeconds = seconds;
+    }
+
+}
@@ -2,25 +2,164 @@ package edu.iis.mto.testreactor.washingmachine;
 
 import static java.util.Objects.requireNonNull;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class WashingMachine {
 
-    public static final Percentage AVERAGE_DEGREE = new Percentage(50.0d);
+    public static final Percentage AVERAGE_DEGREE = Percentage.of(50.0d);
     public static final double MAX_WEIGTH_KG = 8;
-    private static final double HALF_MAX_WEIGTH = MAX_WEIGTH_KG / 2;
+    private static final MachineState[] STATES = MachineState.values();
+    private static final int STATE_MASK = 0x7;
+    private static final int CANCEL_REQUESTED = 0x8;
     private final DirtDetector dirtDetector;
     private final Engine engine;
     private final WaterPump waterPump;
+    private final ProgramPolicy programPolicy;
+    private final ProgramSelector programSelector;
+    private final MetricsSink metricsSink;
+    private final boolean metricsEnabled;
+    private final Watchdog watchdog;
+    private final MachineStateListener stateListener;
+    // low bits hold the MachineState ordinal, CANCEL_REQUESTED is set by cancel() while a cycle runs
+    private final AtomicInteger state = new AtomicInteger(MachineState.IDLE.ordinal());
+    // context of the running cycle for the state listener, only touched by the thread running it
+    private LaundryBatch cycleBatch;
+    private ProgramConfiguration cycleConfiguration;
+    private Program cycleProgram;
 
     public WashingMachine(DirtDetector dirtDetector, Engine engine, WaterPump waterPump) {
-        this.dirtDetector = requireNonNull(dirtDetector, "dirtDetector == null");
-        this.engine = requireNonNull(engine, "engine == null");
-        this.waterPump = requireNonNull(waterPump, "waterPump == null");
+        this(builder().withDirtDetector(dirtDetector)
+                      .withEngine(engine)
+                      .withWaterPump(waterPump));
+    }
+
+    private WashingMachine(Builder builder) {
+        this.dirtDetector = requireNonNull(builder.dirtDetector, "dirtDetector == null");
+        this.engine = requireNonNull(builder.engine, "engine == null");
+        this.waterPump = requireNonNull(builder.waterPump, "waterPump == null");
+        this.programPolicy = requireNonNull(builder.programPolicy, "programPolicy == null");
+        this.programSelector = builder.programSelector != null ? builder.programSelector : programPolicy;
+        this.metricsSink = requireNonNull(builder.metricsSink, "metricsSink == null");
+        this.metricsEnabled = metricsSink != MetricsSink.NO_OP;
+        this.watchdog = builder.watchdog;
+        this.stateListener = builder.stateListener;
     }
 
+    /**
+     * Runs one cycle on the calling thread. A machine runs one cycle at a time, a start while another cycle is running
+     * returns {@link ErrorCode#MACHINE_BUSY} at once without touching the devices. Rejections are recorded to the
+     * metrics sink like cycles.
+     */
     public LaundryStatus start(LaundryBatch laundryBatch, ProgramConfiguration programConfiguration) {
-        if (overweight(laundryBatch)) {
-            return error(ErrorCode.TOO_HEAVY, null);
+        long started = stageStarted();
+        LaundryStatus status;
+        if (programPolicy.overweight(laundryBatch.getMaterialType(), laundryBatch.getWeightKg())) {
+            status = error(ErrorCode.TOO_HEAVY, null);
+        } else if (begin(programConfiguration)) {
+            status = runExclusively(laundryBatch, programConfiguration);
+        } else {
+            status = error(ErrorCode.MACHINE_BUSY, null);
+        }
+        if (metricsEnabled) {
+            metricsSink.recordCycle(laundryBatch, programConfiguration, status, System.nanoTime() - started);
+        }
+        return status;
+    }
+
+    private LaundryStatus runExclusively(LaundryBatch laundryBatch, ProgramConfiguration programConfiguration) {
+        LaundryStatus status = null;
+        try {
+            if (stateListener != null) {
+                cycleBatch = laundryBatch;
+                cycleConfiguration = programConfiguration;
+                cycleProgram = programConfiguration != null && programConfiguration.getProgram() != Program.AUTODETECT
+                        ? programConfiguration.getProgram()
+                        : null;
+                stateChanged(currentState());
+            }
+            status = runCycle(laundryBatch, programConfiguration);
+        } finally {
+            MachineState settled = settledState(status);
+            if (stateListener != null) {
+                stateChanged(settled);
+                cycleBatch = null;
+                cycleConfiguration = null;
+                cycleProgram = null;
+            }
+            state.set(settled.ordinal());
+        }
+        return status;
+    }
+
+    /**
+     * Asks the running cycle to stop. The cycle checks the request before each stage: water already poured is still
+     * released, and the cycle ends with {@link ErrorCode#CANCELLED}. A stage that is already running is not cut short.
+     *
+     * @return false if no cycle was running
+     */
+    public boolean cancel() {
+        int current;
+        do {
+            current = state.get();
+            if (!STATES[current & STATE_MASK].isCycleRunning()) {
+                return false;
+            }
+            if ((current & CANCEL_REQUESTED) != 0) {
+                return true;
+            }
+        } while (!state.compareAndSet(current, current | CANCEL_REQUESTED));
+        return true;
+    }
+
+    /**
+     * Returns what the machine is doing right now. A single volatile read, safe to poll from any thread.
+     */
+    public MachineState currentState() {
+        return STATES[state.get() & STATE_MASK];
+    }
+
+    private boolean begin(ProgramConfiguration programConfiguration) {
+        int current = state.get();
+        if (STATES[current & STATE_MASK].isCycleRunning()) {
+            return false;
+        }
+        MachineState first = programConfiguration != null && programConfiguration.getProgram() == Program.AUTODETECT
+                ? MachineState.DETECTING
+                : MachineState.POURING;
+        return state.compareAndSet(current, first.ordinal());
+    }
+
+    private void enter(MachineState next) {
+        int current;
+        do {
+            current = state.get();
+            if ((current & CANCEL_REQUESTED) != 0 && next != MachineState.RELEASING) {
+                throw CycleCancelledException.INSTANCE;
+            }
+        } while (!state.compareAndSet(current, current & CANCEL_REQUESTED | next.ordinal()));
+        if (stateListener != null) {
+            stateChanged(next);
+        }
+    }
+
+    private void stateChanged(MachineState next) {
+        stateListener.onStateChanged(next, cycleBatch, cycleConfiguration, cycleProgram);
+    }
+
+    private static MachineState settledState(LaundryStatus status) {
+        if (status == null) {
+            return MachineState.FAILED;
+        }
+        switch (status.getErrorCode()) {
+            case NO_ERROR:
+            case CANCELLED:
+                return MachineState.IDLE;
+            default:
+                return MachineState.FAILED;
         }
+    }
+
+    private LaundryStatus runCycle(LaundryBatch laundryBatch, ProgramConfiguration programConfiguration) {
         Program programToRun = null;
         try {
             programToRun = specifyProgram(laundryBatch, programConfiguration);
@@ -30,61 +169,233 @@ public class WashingMachine {
             return error(ErrorCode.WATER_PUMP_FAILURE, programToRun);
         } catch (EngineException e) {
             return error(ErrorCode.ENGINE_FAILURE, programToRun);
+        } catch (CycleCancelledException e) {
+            return error(ErrorCode.CANCELLED, programToRun);
+        } catch (StageTimeoutException e) {
+            return error(ErrorCode.TIMEOUT, programToRun);
         } catch (Exception e) {
             return error(ErrorCode.UNKNOWN_ERROR, programToRun);
         }
         return programFinished(programToRun);
     }
 
-    private boolean overweight(LaundryBatch laundryBatch) {
-        if (laundryBatch.getMaterialType() == Material.WOOL || laundryBatch.getMaterialType() == Material.JEANS) {
-            return laundryBatch.getWeightKg() >= HALF_MAX_WEIGTH;
-        }
-        return laundryBatch.getWeightKg() > MAX_WEIGTH_KG;
-    }
-
-    private LaundryStatus error(ErrorCode code, Program program) {
-        return LaundryStatus.builder()
-                            .withResult(Result.FAILURE)
-                            .withRunnedProgram(program)
-                            .withErrorCode(code)
-                            .build();
+    static LaundryStatus error(ErrorCode code, Program program) {
+        return LaundryStatus.of(Result.FAILURE, program, code);
     }
 
     private Program specifyProgram(LaundryBatch laundryBatch, ProgramConfiguration programConfiguration) {
         Program program = programConfiguration.getProgram();
         if (program == Program.AUTODETECT) {
-            Percentage dirtDegreePercentage = dirtDetector.detectDirtDegree(laundryBatch);
-            return calculateProgramBasedOnDirtDegree(dirtDegreePercentage);
+            double dirtDegree = Percentage.requireInRange(detectDirtDegree(laundryBatch));
+            program = programSelector.select(laundryBatch.getMaterialType(), dirtDegree);
+            if (stateListener != null) {
+                cycleProgram = program;
+            }
         }
         return program;
     }
 
-    private Program calculateProgramBasedOnDirtDegree(Percentage dirtDegreePercentage) {
-        if (dirtDegreePercentage.isGreaterThan(AVERAGE_DEGREE)) {
-            return Program.LONG;
+    private double detectDirtDegree(LaundryBatch laundryBatch) {
+        enter(MachineState.DETECTING);
+        long started = stageStarted();
+        Watchdog.Guard guard = watch(Stage.DETECT, 0);
+        boolean succeeded = false;
+        try {
+            double dirtDegree = dirtDetector.detectDirtDegreeValue(laundryBatch);
+            succeeded = true;
+            return dirtDegree;
+        } finally {
+            boolean timedOut = disarm(guard);
+            stageFinished(Stage.DETECT, started, succeeded && !timedOut);
+            if (timedOut) {
+                throw new StageTimeoutException(Stage.DETECT);
+            }
         }
-        return Program.MEDIUM;
     }
 
     private void runProgram(LaundryBatch laundryBatch, Program programToRun) throws WaterPumpException, EngineException {
-        waterPump.pour(laundryBatch.getWeightKg());
-        engine.runWashing(programToRun.getTimeInMinutes());
-        waterPump.release();
+        enter(MachineState.POURING);
+        try {
+            // a pour cut short by the watchdog may already have let water in
+            pour(laundryBatch.getWeightKg());
+            runWashing(programToRun.getTimeInMinutes());
+        } catch (EngineException | RuntimeException e) {
+            drainAfterFailure(e);
+            throw e;
+        }
+        release();
+    }
+
+    private void drainAfterFailure(Exception failure) {
+        try {
+            release();
+        } catch (WaterPumpException | RuntimeException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    private void pour(double weightKg) throws WaterPumpException {
+        long started = stageStarted();
+        Watchdog.Guard guard = watch(Stage.POUR, 0);
+        boolean succeeded = false;
+        try {
+            waterPump.pour(weightKg);
+            succeeded = true;
+        } finally {
+            boolean timedOut = disarm(guard);
+            stageFinished(Stage.POUR, started, succeeded && !timedOut);
+            if (timedOut) {
+                throw new StageTimeoutException(Stage.POUR);
+            }
+        }
+    }
+
+    private void runWashing(int timeInMinutes) throws EngineException {
+        enter(MachineState.WASHING);
+        long started = stageStarted();
+        Watchdog.Guard guard = watch(Stage.WASH, timeInMinutes);
+        boolean succeeded = false;
+        try {
+            engine.runWashing(timeInMinutes);
+            succeeded = true;
+        } finally {
+            boolean timedOut = disarm(guard);
+            stageFinished(Stage.WASH, started, succeeded && !timedOut);
+            if (timedOut) {
+                throw new StageTimeoutException(Stage.WASH);
+            }
+        }
+    }
+
+    private void release() throws WaterPumpException {
+        enter(MachineState.RELEASING);
+        long started = stageStarted();
+        Watchdog.Guard guard = watch(Stage.RELEASE, 0);
+        boolean succeeded = false;
+        try {
+            waterPump.release();
+            succeeded = true;
+        } finally {
+            boolean timedOut = disarm(guard);
+            stageFinished(Stage.RELEASE, started, succeeded && !timedOut);
+            if (timedOut) {
+                throw new StageTimeoutException(Stage.RELEASE);
+            }
+        }
     }
 
     private void spin(ProgramConfiguration programConfiguration) throws EngineException {
-        if (programConfiguration.isSpin()) {
+        if (!programConfiguration.isSpin()) {
+            return;
+        }
+        enter(MachineState.SPINNING);
+        long started = stageStarted();
+        Watchdog.Guard guard = watch(Stage.SPIN, 0);
+        boolean succeeded = false;
+        try {
             engine.spin();
+            succeeded = true;
+        } finally {
+            boolean timedOut = disarm(guard);
+            stageFinished(Stage.SPIN, started, succeeded && !timedOut);
+            if (timedOut) {
+                throw new StageTimeoutException(Stage.SPIN);
+            }
+        }
+    }
+
+    private long stageStarted() {
+        return metricsEnabled ? System.nanoTime() : 0L;
+    }
+
+    private Watchdog.Guard watch(Stage stage, int timeInMinutes) {
+        return watchdog != null ? watchdog.watch(stage, timeInMinutes) : null;
+    }
+
+    private static boolean disarm(Watchdog.Guard guard) {
+        return guard != null && guard.disarm();
+    }
+
+    private void stageFinished(Stage stage, long started, boolean succeeded) {
+        if (metricsEnabled) {
+            metricsSink.recordStage(stage, System.nanoTime() - started, succeeded);
+        }
+    }
+
+    static LaundryStatus programFinished(Program programToRun) {
+        return LaundryStatus.of(Result.SUCCESS, programToRun, ErrorCode.NO_ERROR);
+    }
+
+    private static final class CycleCancelledException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+        private static final CycleCancelledException INSTANCE = new CycleCancelledException();
+
+        private CycleCancelledException() {
+            super("cycle cancelled", null, false, false);
         }
     }
 
-    private LaundryStatus programFinished(Program programToRun) {
-        return LaundryStatus.builder()
-                            .withResult(Result.SUCCESS)
-                            .withRunnedProgram(programToRun)
-                            .withErrorCode(ErrorCode.NO_ERROR)
-                            .build();
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private DirtDetector dirtDetector;
+        private Engine engine;
+        private WaterPump waterPump;
+        private ProgramPolicy programPolicy = ProgramPolicy.defaults();
+        private ProgramSelector programSelector;
+        private MetricsSink metricsSink = MetricsSink.NO_OP;
+        private Watchdog watchdog;
+        private MachineStateListener stateListener;
+
+        private Builder() {}
+
+        public Builder withDirtDetector(DirtDetector dirtDetector) {
+            this.dirtDetector = dirtDetector;
+            return this;
+        }
+
+        public Builder withEngine(Engine engine) {
+            this.engine = engine;
+            return this;
+        }
+
+        public Builder withWaterPump(WaterPump waterPump) {
+            this.waterPump = waterPump;
+            return this;
+        }
+
+        public Builder withProgramPolicy(ProgramPolicy programPolicy) {
+            this.programPolicy = programPolicy;
+            return this;
+        }
+
+        public Builder withProgramSelector(ProgramSelector programSelector) {
+            this.programSelector = programSelector;
+            return this;
+        }
+
+        public Builder withMetricsSink(MetricsSink metricsSink) {
+            this.metricsSink = metricsSink;
+            return this;
+        }
+
+        public Builder withWatchdog(Watchdog watchdog) {
+            this.watchdog = watchdog;
+            return this;
+        }
+
+        public Builder withStateListener(MachineStateListener stateListener) {
+            this.stateListener = stateListener;
+            return this;
+        }
+
+        public WashingMachine build() {
+            return new WashingMachine(this);
+        }
     }
 
 }
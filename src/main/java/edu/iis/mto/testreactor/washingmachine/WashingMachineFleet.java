@@ -0,0 +1,188 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class WashingMachineFleet implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_IN_FLIGHT = 10_000;
+    /**
+     * Default bound when no virtual threads are available and every admitted cycle holds a platform thread.
+     */
+    public static final int DEFAULT_PLATFORM_MAX_IN_FLIGHT = 256;
+
+    private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = virtualThreadPerTaskExecutorFactory();
+
+    private final ExecutorService executor;
+    private final Semaphore admission;
+    private final int maxInFlight;
+    private volatile boolean shutdown;
+
+    private WashingMachineFleet(Builder builder) {
+        int maxInFlight = builder.maxInFlight;
+        if (maxInFlight == 0) {
+            maxInFlight = builder.executor == null && !hasVirtualThreads() ? DEFAULT_PLATFORM_MAX_IN_FLIGHT
+                    : DEFAULT_MAX_IN_FLIGHT;
+        }
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive");
+        }
+        this.maxInFlight = maxInFlight;
+        this.admission = new Semaphore(maxInFlight);
+        this.executor = builder.executor != null ? builder.executor : newVirtualThreadExecutor();
+    }
+
+    public CompletableFuture<LaundryStatus> submit(WashingMachine machine, LaundryBatch laundryBatch,
+            ProgramConfiguration programConfiguration) throws InterruptedException {
+        requireNonNull(machine, "machine == null");
+        checkNotShutdown();
+        admission.acquire();
+        return dispatch(machine, laundryBatch, programConfiguration);
+    }
+
+    public CompletableFuture<LaundryStatus> trySubmit(WashingMachine machine, LaundryBatch laundryBatch,
+            ProgramConfiguration programConfiguration) {
+        requireNonNull(machine, "machine == null");
+        checkNotShutdown();
+        if (!admission.tryAcquire()) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("fleet is at capacity"));
+        }
+        return dispatch(machine, laundryBatch, programConfiguration);
+    }
+
+    public int inFlight() {
+        return maxInFlight - admission.availablePermits();
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void shutdown() {
+        shutdown = true;
+        executor.shutdown();
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    /**
+     * Shuts down and waits for the cycles already admitted. If interrupted it stops waiting and keeps the interrupt
+     * status set.
+     */
+    @Override
+    public void close() {
+        shutdown();
+        try {
+            while (!awaitTermination(1, TimeUnit.MINUTES)) {
+                // keep waiting for cycles already admitted
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+        }
+    }
+
+    private CompletableFuture<LaundryStatus> dispatch(WashingMachine machine, LaundryBatch laundryBatch,
+            ProgramConfiguration programConfiguration) {
+        CompletableFuture<LaundryStatus> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    result.complete(machine.start(laundryBatch, programConfiguration));
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    admission.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            admission.release();
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    private void checkNotShutdown() {
+        if (shutdown) {
+            throw new RejectedExecutionException("fleet is shut down");
+        }
+    }
+
+    static ExecutorService newVirtualThreadExecutor() {
+        if (hasVirtualThreads()) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                // fall back to platform threads below
+            }
+        }
+        return Executors.newCachedThreadPool(daemonThreads("washing-machine-"));
+    }
+
+    static boolean hasVirtualThreads() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    private static Method virtualThreadPerTaskExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    static ThreadFactory daemonThreads(String prefix) {
+        AtomicLong counter = new AtomicLong();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private int maxInFlight;
+        private ExecutorService executor;
+
+        private Builder() {}
+
+        /**
+         * Bounds the cycles admitted and not yet finished. Defaults to {@link #DEFAULT_MAX_IN_FLIGHT}, or to
+         * {@link #DEFAULT_PLATFORM_MAX_IN_FLIGHT} when the fleet falls back to a cached pool of platform threads.
+         */
+        public Builder withMaxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        public Builder withExecutor(ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public WashingMachineFleet build() {
+            return new WashingMachineFleet(this);
+        }
+    }
+
+}
@@ -0,0 +1,135 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stage deadlines for {@link WashingMachine}. The washing stage may take the program's time plus slack, every other
+ * stage gets a fixed timeout. An expired stage interrupts the thread running it; devices are expected to react to
+ * interruption, a device that ignores it is still reported as timed out once it returns.
+ */
+public class Watchdog implements AutoCloseable {
+
+    private final TimingWheel timingWheel;
+    private final boolean ownsTimingWheel;
+    private final long minuteNanos;
+    private final long slackNanos;
+    private final long stageTimeoutNanos;
+    private final LongAdder timedOut = new LongAdder();
+
+    private Watchdog(Builder builder) {
+        requireNonNull(builder.minuteDuration, "minuteDuration == null");
+        requireNonNull(builder.slack, "slack == null");
+        requireNonNull(builder.stageTimeout, "stageTimeout == null");
+        if (builder.minuteDuration.isNegative() || builder.slack.isNegative() || builder.stageTimeout.isNegative()) {
+            throw new IllegalArgumentException("durations must not be negative");
+        }
+        this.ownsTimingWheel = builder.timingWheel == null;
+        this.timingWheel = ownsTimingWheel ? TimingWheel.builder()
+                                                        .build()
+                : builder.timingWheel;
+        this.minuteNanos = builder.minuteDuration.toNanos();
+        this.slackNanos = builder.slack.toNanos();
+        this.stageTimeoutNanos = builder.stageTimeout.toNanos();
+    }
+
+    public long deadlineNanos(Stage stage, int timeInMinutes) {
+        requireNonNull(stage, "stage == null");
+        if (stage == Stage.WASH) {
+            return timeInMinutes * minuteNanos + slackNanos;
+        }
+        return stageTimeoutNanos;
+    }
+
+    public Guard watch(Stage stage, int timeInMinutes) {
+        Guard guard = new Guard(Thread.currentThread());
+        guard.timeout = timingWheel.schedule(guard, deadlineNanos(stage, timeInMinutes), TimeUnit.NANOSECONDS);
+        return guard;
+    }
+
+    public long getTimedOutCount() {
+        return timedOut.sum();
+    }
+
+    @Override
+    public void close() {
+        if (ownsTimingWheel) {
+            timingWheel.close();
+        }
+    }
+
+    public final class Guard implements Runnable {
+
+        private final Thread thread;
+        private TimingWheel.Timeout timeout;
+        private volatile boolean interrupted;
+
+        private Guard(Thread thread) {
+            this.thread = thread;
+        }
+
+        @Override
+        public void run() {
+            timedOut.increment();
+            thread.interrupt();
+            interrupted = true;
+        }
+
+        /**
+         * Must be called by the watched thread. Returns whether the stage timed out; in that case the interrupt
+         * delivered by the watchdog is cleared so that compensation (draining water) can still run.
+         */
+        public boolean disarm() {
+            if (timeout.cancel()) {
+                return false;
+            }
+            while (!interrupted) {
+                Thread.onSpinWait();
+            }
+            Thread.interrupted();
+            return true;
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+
+        private TimingWheel timingWheel;
+        private Duration minuteDuration = Duration.ofMinutes(1);
+        private Duration slack = Duration.ofMinutes(5);
+        private Duration stageTimeout = Duration.ofMinutes(2);
+
+        private Builder() {}
+
+        public Builder withTimingWheel(TimingWheel timingWheel) {
+            this.timingWheel = timingWheel;
+            return this;
+        }
+
+        public Builder withMinuteDuration(Duration minuteDuration) {
+            this.minuteDuration = minuteDuration;
+            return this;
+        }
+
+        public Builder withSlack(Duration slack) {
+            this.slack = slack;
+            return this;
+        }
+
+        public Builder withStageTimeout(Duration stageTimeout) {
+            this.stageTimeout = stageTimeout;
+            return this;
+        }
+
+        public Watchdog build() {
+            return new Watchdog(this);
+        }
+    }
+
+}
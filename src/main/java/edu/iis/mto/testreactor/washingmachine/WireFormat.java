@@ -0,0 +1,168 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static java.util.Objects.requireNonNull;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Fixed-layout binary encoding of the controller value objects. All fields are written with absolute
+ * {@link ByteBuffer} operations in big-endian order, so heap and direct buffers work alike and the buffer position is
+ * never touched. Enums travel as byte ordinals, {@code -1} standing for {@code null}.
+ *
+ * <pre>
+ * frame         magic:u16 version:u8 reserved:u8 length:i32 count:i32 record*
+ * batch         type=1 material:i8 weightKg:f64                     (10 bytes)
+ * configuration type=2 program:i8 flags:u8 (bit 0 = spin)          (3 bytes)
+ * status        type=3 result:i8 runnedProgram:i8 errorCode:i8     (4 bytes)
+ * </pre>
+ *
+ * Enums may only ever get new constants appended, the ordinals are part of the format.
+ */
+public final class WireFormat {
+
+    public static final short MAGIC = 0x4C57;
+    public static final byte VERSION = 1;
+    public static final int HEADER_SIZE = 12;
+
+    public static final byte TYPE_LAUNDRY_BATCH = 1;
+    public static final byte TYPE_PROGRAM_CONFIGURATION = 2;
+    public static final byte TYPE_LAUNDRY_STATUS = 3;
+
+    public static final int LAUNDRY_BATCH_SIZE = 10;
+    public static final int PROGRAM_CONFIGURATION_SIZE = 3;
+    public static final int LAUNDRY_STATUS_SIZE = 4;
+
+    static final int MAGIC_OFFSET = 0;
+    static final int VERSION_OFFSET = 2;
+    static final int LENGTH_OFFSET = 4;
+    static final int COUNT_OFFSET = 8;
+
+    private static final byte NONE = -1;
+    private static final int FLAG_SPIN = 1;
+
+    private static final Material[] MATERIALS = Material.values();
+    private static final Program[] PROGRAMS = Program.values();
+    private static final Result[] RESULTS = Result.values();
+    private static final ErrorCode[] ERROR_CODES = ErrorCode.values();
+
+    private WireFormat() {}
+
+    public static int encode(ByteBuffer buffer, int offset, LaundryBatch laundryBatch) {
+        requireCapacity(buffer, offset, LAUNDRY_BATCH_SIZE);
+        buffer.put(offset, TYPE_LAUNDRY_BATCH);
+        buffer.put(offset + 1, ordinal(laundryBatch.getMaterialType()));
+        buffer.putDouble(offset + 2, laundryBatch.getWeightKg());
+        return LAUNDRY_BATCH_SIZE;
+    }
+
+    public static int encode(ByteBuffer buffer, int offset, ProgramConfiguration programConfiguration) {
+        requireCapacity(buffer, offset, PROGRAM_CONFIGURATION_SIZE);
+        buffer.put(offset, TYPE_PROGRAM_CONFIGURATION);
+        buffer.put(offset + 1, ordinal(programConfiguration.getProgram()));
+        buffer.put(offset + 2, (byte) (programConfiguration.isSpin() ? FLAG_SPIN : 0));
+        return PROGRAM_CONFIGURATION_SIZE;
+    }
+
+    public static int encode(ByteBuffer buffer, int offset, LaundryStatus status) {
+        requireCapacity(buffer, offset, LAUNDRY_STATUS_SIZE);
+        buffer.put(offset, TYPE_LAUNDRY_STATUS);
+        buffer.put(offset + 1, ordinal(status.getResult()));
+        buffer.put(offset + 2, ordinal(status.getRunnedProgram()));
+        buffer.put(offset + 3, ordinal(status.getErrorCode()));
+        return LAUNDRY_STATUS_SIZE;
+    }
+
+    public static LaundryBatch decodeLaundryBatch(ByteBuffer buffer, int offset) {
+        requireType(buffer, offset, TYPE_LAUNDRY_BATCH);
+        return new LaundryBatch(weightKg(buffer, offset), materialType(buffer, offset));
+    }
+
+    public static ProgramConfiguration decodeProgramConfiguration(ByteBuffer buffer, int offset) {
+        requireType(buffer, offset, TYPE_PROGRAM_CONFIGURATION);
+        return ProgramConfiguration.of(program(buffer, offset), isSpin(buffer, offset));
+    }
+
+    public static LaundryStatus decodeLaundryStatus(ByteBuffer buffer, int offset) {
+        requireType(buffer, offset, TYPE_LAUNDRY_STATUS);
+        return LaundryStatus.of(result(buffer, offset), runnedProgram(buffer, offset), errorCode(buffer, offset));
+    }
+
+    public static int sizeOf(byte type) {
+        switch (type) {
+            case TYPE_LAUNDRY_BATCH:
+                return LAUNDRY_BATCH_SIZE;
+            case TYPE_PROGRAM_CONFIGURATION:
+                return PROGRAM_CONFIGURATION_SIZE;
+            case TYPE_LAUNDRY_STATUS:
+                return LAUNDRY_STATUS_SIZE;
+            default:
+                throw new IllegalArgumentException("unknown record type " + type);
+        }
+    }
+
+    static Material materialType(ByteBuffer buffer, int offset) {
+        return decode(MATERIALS, buffer.get(offset + 1));
+    }
+
+    static double weightKg(ByteBuffer buffer, int offset) {
+        return buffer.getDouble(offset + 2);
+    }
+
+    static Program program(ByteBuffer buffer, int offset) {
+        return decode(PROGRAMS, buffer.get(offset + 1));
+    }
+
+    static boolean isSpin(ByteBuffer buffer, int offset) {
+        return (buffer.get(offset + 2) & FLAG_SPIN) != 0;
+    }
+
+    static Result result(ByteBuffer buffer, int offset) {
+        return decode(RESULTS, buffer.get(offset + 1));
+    }
+
+    static Program runnedProgram(ByteBuffer buffer, int offset) {
+        return decode(PROGRAMS, buffer.get(offset + 2));
+    }
+
+    static ErrorCode errorCode(ByteBuffer buffer, int offset) {
+        return decode(ERROR_CODES, buffer.get(offset + 3));
+    }
+
+    static void requireBigEndian(ByteBuffer buffer) {
+        if (buffer.order() != ByteOrder.BIG_ENDIAN) {
+            throw new IllegalArgumentException("buffer must be big-endian");
+        }
+    }
+
+    static void requireCapacity(ByteBuffer buffer, int offset, int size) {
+        requireBigEndian(buffer);
+        if (offset < 0 || offset + size > buffer.limit()) {
+            throw new IndexOutOfBoundsException("record of " + size + " bytes at " + offset + " exceeds limit "
+                                                + buffer.limit());
+        }
+    }
+
+    static void requireType(ByteBuffer buffer, int offset, byte type) {
+        byte actual = buffer.get(offset);
+        if (actual != type) {
+            throw new IllegalArgumentException("expected record type " + type + " but was " + actual);
+        }
+        requireCapacity(buffer, offset, sizeOf(type));
+    }
+
+    private static byte ordinal(Enum<?> value) {
+        return value == null ? NONE : (byte) value.ordinal();
+    }
+
+    private static <T> T decode(T[] values, byte ordinal) {
+        if (ordinal == NONE) {
+            return null;
+        }
+        if (ordinal < 0 || ordinal >= values.length) {
+            throw new IllegalArgumentException("unknown ordinal " + ordinal);
+        }
+        return values[ordinal];
+    }
+
+}
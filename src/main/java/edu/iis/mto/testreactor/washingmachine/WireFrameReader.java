@@ -0,0 +1,120 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Flyweight cursor over a frame written by {@link WireFrameWriter}. Getters read straight from the buffer, so scanning
+ * a frame allocates nothing; the {@code to...} methods materialise value objects when they are actually needed.
+ */
+public final class WireFrameReader {
+
+    private ByteBuffer buffer;
+    private int end;
+    private int remaining;
+    private int next;
+    private int current = -1;
+    private byte type;
+
+    public WireFrameReader wrap(ByteBuffer buffer, int offset) {
+        WireFormat.requireCapacity(buffer, offset, WireFormat.HEADER_SIZE);
+        if (buffer.getShort(offset + WireFormat.MAGIC_OFFSET) != WireFormat.MAGIC) {
+            throw new IllegalArgumentException("not a laundry wire frame");
+        }
+        byte version = buffer.get(offset + WireFormat.VERSION_OFFSET);
+        if (version != WireFormat.VERSION) {
+            throw new IllegalArgumentException("unsupported wire format version " + version);
+        }
+        int length = buffer.getInt(offset + WireFormat.LENGTH_OFFSET);
+        WireFormat.requireCapacity(buffer, offset, Math.max(length, WireFormat.HEADER_SIZE));
+        this.buffer = buffer;
+        this.end = offset + length;
+        this.remaining = buffer.getInt(offset + WireFormat.COUNT_OFFSET);
+        this.next = offset + WireFormat.HEADER_SIZE;
+        this.current = -1;
+        return this;
+    }
+
+    /**
+     * Returns the total size in bytes of the frame starting at {@code offset}, useful to skip or slice frames.
+     */
+    public static int frameLength(ByteBuffer buffer, int offset) {
+        WireFormat.requireCapacity(buffer, offset, WireFormat.HEADER_SIZE);
+        return buffer.getInt(offset + WireFormat.LENGTH_OFFSET);
+    }
+
+    public boolean next() {
+        if (remaining == 0) {
+            return false;
+        }
+        if (next >= end) {
+            throw new IllegalArgumentException("frame truncated: " + remaining + " records missing");
+        }
+        type = buffer.get(next);
+        int size = WireFormat.sizeOf(type);
+        if (next + size > end) {
+            throw new IllegalArgumentException("record at " + next + " overruns frame");
+        }
+        current = next;
+        next += size;
+        remaining--;
+        return true;
+    }
+
+    public byte type() {
+        return type;
+    }
+
+    public Material materialType() {
+        requireCurrent(WireFormat.TYPE_LAUNDRY_BATCH);
+        return WireFormat.materialType(buffer, current);
+    }
+
+    public double weightKg() {
+        requireCurrent(WireFormat.TYPE_LAUNDRY_BATCH);
+        return WireFormat.weightKg(buffer, current);
+    }
+
+    public Program program() {
+        requireCurrent(WireFormat.TYPE_PROGRAM_CONFIGURATION);
+        return WireFormat.program(buffer, current);
+    }
+
+    public boolean isSpin() {
+        requireCurrent(WireFormat.TYPE_PROGRAM_CONFIGURATION);
+        return WireFormat.isSpin(buffer, current);
+    }
+
+    public Result result() {
+        requireCurrent(WireFormat.TYPE_LAUNDRY_STATUS);
+        return WireFormat.result(buffer, current);
+    }
+
+    public Program runnedProgram() {
+        requireCurrent(WireFormat.TYPE_LAUNDRY_STATUS);
+        return WireFormat.runnedProgram(buffer, current);
+    }
+
+    public ErrorCode errorCode() {
+        requireCurrent(WireFormat.TYPE_LAUNDRY_STATUS);
+        return WireFormat.errorCode(buffer, current);
+    }
+
+    public LaundryBatch toLaundryBatch() {
+        return new LaundryBatch(weightKg(), materialType());
+    }
+
+    public ProgramConfiguration toProgramConfiguration() {
+        return ProgramConfiguration.of(program(), isSpin());
+    }
+
+    public LaundryStatus toLaundryStatus() {
+        return LaundryStatus.of(result(), runnedProgram(), errorCode());
+    }
+
+    private void requireCurrent(byte expected) {
+        if (current < 0 || type != expected) {
+            throw new IllegalStateException("current record is not of type " + expected);
+        }
+    }
+
+}
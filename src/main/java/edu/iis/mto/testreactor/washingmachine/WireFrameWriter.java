@@ -0,0 +1,59 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Appends records to a frame in a caller supplied buffer. A writer is reusable: {@link #wrap(ByteBuffer, int)} starts
+ * a new frame, {@link #finish()} completes its header.
+ */
+public final class WireFrameWriter {
+
+    private ByteBuffer buffer;
+    private int frameOffset;
+    private int position;
+    private int count;
+
+    public WireFrameWriter wrap(ByteBuffer buffer, int offset) {
+        WireFormat.requireCapacity(buffer, offset, WireFormat.HEADER_SIZE);
+        this.buffer = buffer;
+        this.frameOffset = offset;
+        this.position = offset + WireFormat.HEADER_SIZE;
+        this.count = 0;
+        return this;
+    }
+
+    public WireFrameWriter write(LaundryBatch laundryBatch) {
+        position += WireFormat.encode(buffer, position, laundryBatch);
+        count++;
+        return this;
+    }
+
+    public WireFrameWriter write(ProgramConfiguration programConfiguration) {
+        position += WireFormat.encode(buffer, position, programConfiguration);
+        count++;
+        return this;
+    }
+
+    public WireFrameWriter write(LaundryStatus status) {
+        position += WireFormat.encode(buffer, position, status);
+        count++;
+        return this;
+    }
+
+    /**
+     * Writes the frame header and returns the size of the whole frame in bytes.
+     */
+    public int finish() {
+        buffer.putShort(frameOffset + WireFormat.MAGIC_OFFSET, WireFormat.MAGIC);
+        buffer.put(frameOffset + WireFormat.VERSION_OFFSET, WireFormat.VERSION);
+        buffer.put(frameOffset + WireFormat.VERSION_OFFSET + 1, (byte) 0);
+        buffer.putInt(frameOffset + WireFormat.LENGTH_OFFSET, position - frameOffset);
+        buffer.putInt(frameOffset + WireFormat.COUNT_OFFSET, count);
+        return position - frameOffset;
+    }
+
+    public int count() {
+        return count;
+    }
+
+}
@@ -0,0 +1,70 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class AdaptiveProgramSelectorTest {
+
+    private static final double SHORT_CLEANS_BELOW = 30d;
+    private static final double MEDIUM_CLEANS_BELOW = 70d;
+
+    @Test
+    void cutOffsShouldConvergeToWhatProgramsActuallyClean() {
+        Random random = new Random(20);
+        AdaptiveProgramSelector selector = AdaptiveProgramSelector.builder()
+                                                                  .withRandom(random::nextDouble)
+                                                                  .build();
+
+        for (int i = 0; i < 50_000; i++) {
+            double dirtDegree = random.nextDouble() * 100d;
+            Program program = selector.select(Material.COTTON, dirtDegree);
+            selector.feedback(Material.COTTON, dirtDegree, program, cleans(program, dirtDegree));
+        }
+
+        assertEquals(SHORT_CLEANS_BELOW, selector.getShortBelow(Material.COTTON), 3d);
+        assertEquals(MEDIUM_CLEANS_BELOW, selector.getLongAbove(Material.COTTON), 3d);
+        assertEquals(0d, selector.getShortBelow(Material.WOOL));
+        assertEquals(WashingMachine.AVERAGE_DEGREE.getValue(), selector.getLongAbove(Material.WOOL));
+        ProgramPolicy learned = selector.toProgramPolicy(ProgramPolicy.defaults());
+        assertEquals(selector.getShortBelow(Material.COTTON), learned.getShortBelow(Material.COTTON));
+        assertEquals(Program.SHORT, learned.programFor(Material.COTTON, 10d));
+    }
+
+    @Test
+    void washingMachineShouldUseProgramSelectorForAutodetect() {
+        DirtDetector dirtDetector = Mockito.mock(DirtDetector.class);
+        Mockito.when(dirtDetector.detectDirtDegreeValue(Mockito.any()))
+               .thenReturn(10d);
+        WashingMachine washingMachine = WashingMachine.builder()
+                                                      .withDirtDetector(dirtDetector)
+                                                      .withEngine(Mockito.mock(Engine.class))
+                                                      .withWaterPump(Mockito.mock(WaterPump.class))
+                                                      .withProgramSelector((material, dirtDegree) -> Program.SHORT)
+                                                      .build();
+        LaundryBatch laundryBatch = LaundryBatch.builder()
+                                                .withMaterialType(Material.COTTON)
+                                                .withWeightKg(3d)
+                                                .build();
+        ProgramConfiguration autodetect = ProgramConfiguration.builder()
+                                                              .withProgram(Program.AUTODETECT)
+                                                              .build();
+
+        assertEquals(WashingMachine.programFinished(Program.SHORT), washingMachine.start(laundryBatch, autodetect));
+    }
+
+    private static boolean cleans(Program program, double dirtDegree) {
+        switch (program) {
+            case SHORT:
+                return dirtDegree < SHORT_CLEANS_BELOW;
+            case MEDIUM:
+                return dirtDegree < MEDIUM_CLEANS_BELOW;
+            default:
+                return true;
+        }
+    }
+
+}
@@ -0,0 +1,128 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+class AsyncWashingMachineTest {
+
+    private static final Executor DIRECT = Runnable::run;
+
+    private final Engine engine = Mockito.mock(Engine.class);
+    private final WaterPump waterPump = Mockito.mock(WaterPump.class);
+    private final LaundryBatch laundryBatch = batch(Material.COTTON, 4d);
+
+    @Test
+    void staticProgramShouldPourWashReleaseAndSpin() throws Exception {
+        LaundryStatus status = start(machine(Percentage.of(50d)), laundryBatch, ProgramConfiguration.of(Program.MEDIUM, true));
+
+        assertEquals(WashingMachine.programFinished(Program.MEDIUM), status);
+        InOrder callOrder = Mockito.inOrder(waterPump, engine);
+        callOrder.verify(waterPump)
+                 .pour(4d);
+        callOrder.verify(engine)
+                 .runWashing(Program.MEDIUM.getTimeInMinutes());
+        callOrder.verify(waterPump)
+                 .release();
+        callOrder.verify(engine)
+                 .spin();
+    }
+
+    @Test
+    void engineFailureShouldReleaseWaterAndSkipSpin() throws Exception {
+        Mockito.doThrow(new EngineException())
+               .when(engine)
+               .runWashing(Program.SHORT.getTimeInMinutes());
+
+        LaundryStatus status = start(machine(Percentage.of(50d)), laundryBatch, ProgramConfiguration.of(Program.SHORT, true));
+
+        assertEquals(WashingMachine.error(ErrorCode.ENGINE_FAILURE, Program.SHORT), status);
+        Mockito.verify(waterPump)
+               .release();
+        Mockito.verify(engine, Mockito.never())
+               .spin();
+    }
+
+    @Test
+    void waterPumpFailureShouldBeReported() throws Exception {
+        Mockito.doThrow(new WaterPumpException())
+               .when(waterPump)
+               .pour(4d);
+
+        LaundryStatus status = start(machine(Percentage.of(50d)), laundryBatch, ProgramConfiguration.of(Program.LONG, false));
+
+        assertEquals(WashingMachine.error(ErrorCode.WATER_PUMP_FAILURE, Program.LONG), status);
+        Mockito.verifyNoInteractions(engine);
+    }
+
+    @Test
+    void autodetectShouldRunProgramForDetectedDirt() throws Exception {
+        assertEquals(WashingMachine.programFinished(Program.MEDIUM),
+                start(machine(Percentage.of(20d)), laundryBatch, ProgramConfiguration.of(Program.AUTODETECT, false)));
+        assertEquals(WashingMachine.programFinished(Program.LONG),
+                start(machine(Percentage.of(100d)), laundryBatch, ProgramConfiguration.of(Program.AUTODETECT, false)));
+        Mockito.verify(engine)
+               .runWashing(Program.LONG.getTimeInMinutes());
+    }
+
+    @Test
+    void autodetectShouldUseConfiguredProgramSelector() throws Exception {
+        AsyncDirtDetector dirtDetector = laundryBatch -> CompletableFuture.completedFuture(Percentage.of(50d));
+        AsyncWashingMachine machine = AsyncWashingMachine.builder()
+                                                         .withDirtDetector(dirtDetector)
+                                                         .withEngine(AsyncEngine.from(engine, DIRECT))
+                                                         .withWaterPump(AsyncWaterPump.from(waterPump, DIRECT))
+                                                         .withProgramSelector((material, dirtDegree) -> Program.SHORT)
+                                                         .build();
+
+        assertEquals(WashingMachine.programFinished(Program.SHORT),
+                start(machine, laundryBatch, ProgramConfiguration.of(Program.AUTODETECT, false)));
+    }
+
+    @Test
+    void autodetectShouldRejectDegreeOutOfRangeLikeSynchronousMachine() throws Exception {
+        Percentage outOfRange = Mockito.mock(Percentage.class);
+        Mockito.when(outOfRange.getValue())
+               .thenReturn(120d);
+
+        LaundryStatus status = start(machine(outOfRange), laundryBatch, ProgramConfiguration.of(Program.AUTODETECT, false));
+
+        assertEquals(WashingMachine.error(ErrorCode.UNKNOWN_ERROR, null), status);
+        Mockito.verifyNoInteractions(waterPump, engine);
+    }
+
+    @Test
+    void overweightBatchShouldBeRejectedWithoutTouchingDevices() throws Exception {
+        LaundryStatus status = start(machine(Percentage.of(50d)), batch(Material.COTTON, 20d),
+                ProgramConfiguration.of(Program.SHORT, false));
+
+        assertEquals(WashingMachine.error(ErrorCode.TOO_HEAVY, null), status);
+        Mockito.verifyNoInteractions(waterPump, engine);
+    }
+
+    private AsyncWashingMachine machine(Percentage dirtDegree) {
+        return new AsyncWashingMachine(laundryBatch -> CompletableFuture.completedFuture(dirtDegree),
+                AsyncEngine.from(engine, DIRECT), AsyncWaterPump.from(waterPump, DIRECT));
+    }
+
+    private static LaundryStatus start(AsyncWashingMachine machine, LaundryBatch laundryBatch,
+            ProgramConfiguration programConfiguration) throws Exception {
+        return machine.start(laundryBatch, programConfiguration)
+                      .toCompletableFuture()
+                      .get(10, TimeUnit.SECONDS);
+    }
+
+    private static LaundryBatch batch(Material material, double weightKg) {
+        return LaundryBatch.builder()
+                           .withMaterialType(material)
+                           .withWeightKg(weightKg)
+                           .build();
+    }
+
+}
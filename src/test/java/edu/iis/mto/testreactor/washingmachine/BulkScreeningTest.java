@@ -0,0 +1,80 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class BulkScreeningTest {
+
+    private static final Material[] MATERIALS = Material.values();
+    private static final Program[] PROGRAMS = Program.values();
+    private static final int SIZE = 2_000;
+
+    @Test
+    void screeningShouldAgreeWithWashingMachineStart() {
+        Random random = new Random(42);
+        double[] weightsKg = new double[SIZE];
+        byte[] materials = new byte[SIZE];
+        double[] dirtDegrees = new double[SIZE];
+        byte[] programs = new byte[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            weightsKg[i] = random.nextDouble() * 10d;
+            materials[i] = (byte) random.nextInt(MATERIALS.length);
+            dirtDegrees[i] = random.nextDouble() * 140d - 20d;
+            programs[i] = (byte) random.nextInt(PROGRAMS.length);
+        }
+
+        BulkScreening.Outcome outcome = BulkScreening.builder()
+                                                     .withParallelThreshold(128)
+                                                     .build()
+                                                     .screen(weightsKg, materials, dirtDegrees, programs);
+
+        for (int i = 0; i < SIZE; i++) {
+            LaundryBatch laundryBatch = LaundryBatch.builder()
+                                                    .withMaterialType(MATERIALS[materials[i]])
+                                                    .withWeightKg(weightsKg[i])
+                                                    .build();
+            LaundryStatus status = machine(dirtDegrees[i]).start(laundryBatch,
+                    ProgramConfiguration.of(PROGRAMS[programs[i]], false));
+            String item = "item " + i + ": " + laundryBatch + ", dirt " + dirtDegrees[i];
+            assertEquals(status.getErrorCode(), outcome.getErrorCode(i), item);
+            assertEquals(status.getRunnedProgram(), outcome.getProgram(i), item);
+        }
+    }
+
+    @Test
+    void autodetectShouldUseConfiguredProgramSelector() {
+        byte cotton = (byte) Material.COTTON.ordinal();
+        byte autodetect = (byte) Program.AUTODETECT.ordinal();
+
+        BulkScreening.Outcome outcome = BulkScreening.builder()
+                                                     .withProgramSelector((material, dirtDegree) -> Program.SHORT)
+                                                     .build()
+                                                     .screen(new double[] {1d, 1d}, new byte[] {cotton, cotton},
+                                                             new double[] {90d, Double.NaN},
+                                                             new byte[] {autodetect, autodetect});
+
+        assertEquals(Program.SHORT, outcome.getProgram(0));
+        assertEquals(Program.AUTODETECT, outcome.getProgram(1));
+    }
+
+    private static WashingMachine machine(double dirtDegree) {
+        DirtDetector dirtDetector = new DirtDetector() {
+
+            @Override
+            public Percentage detectDirtDegree(LaundryBatch laundryBatch) {
+                return null;
+            }
+
+            @Override
+            public double detectDirtDegreeValue(LaundryBatch laundryBatch) {
+                return dirtDegree;
+            }
+        };
+        return new WashingMachine(dirtDetector, Mockito.mock(Engine.class), Mockito.mock(WaterPump.class));
+    }
+
+}
@@ -0,0 +1,97 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CachingDirtDetectorTest {
+
+    @Mock
+    private DirtDetector dirtDetector;
+
+    private AtomicLong ticker;
+    private Percentage degree;
+    private CachingDirtDetector cachingDirtDetector;
+
+    @BeforeEach
+    void setUp() {
+        ticker = new AtomicLong();
+        degree = new Percentage(30d);
+        cachingDirtDetector = CachingDirtDetector.builder()
+                                                 .withDelegate(dirtDetector)
+                                                 .withMaximumSize(2)
+                                                 .withTimeToLive(Duration.ofSeconds(10))
+                                                 .withTicker(ticker::get)
+                                                 .build();
+    }
+
+    @Test
+    void equalBatchesShouldHitCache() {
+        Mockito.when(dirtDetector.detectDirtDegree(batch(Material.COTTON, 3d))).thenReturn(degree);
+
+        assertSame(degree, cachingDirtDetector.detectDirtDegree(batch(Material.COTTON, 3d)));
+        assertSame(degree, cachingDirtDetector.detectDirtDegree(batch(Material.COTTON, 3d)));
+
+        Mockito.verify(dirtDetector, Mockito.times(1)).detectDirtDegree(batch(Material.COTTON, 3d));
+        assertEquals(1, cachingDirtDetector.getHitCount());
+        assertEquals(1, cachingDirtDetector.getMissCount());
+    }
+
+    @Test
+    void expiredEntryShouldBeLoadedAgain() {
+        Mockito.when(dirtDetector.detectDirtDegree(batch(Material.COTTON, 3d))).thenReturn(degree);
+
+        cachingDirtDetector.detectDirtDegree(batch(Material.COTTON, 3d));
+        ticker.addAndGet(Duration.ofSeconds(10).toNanos());
+        cachingDirtDetector.detectDirtDegree(batch(Material.COTTON, 3d));
+
+        Mockito.verify(dirtDetector, Mockito.times(2)).detectDirtDegree(batch(Material.COTTON, 3d));
+        assertEquals(1, cachingDirtDetector.getEvictionCount());
+    }
+
+    @Test
+    void eldestEntryShouldBeEvictedWhenFull() {
+        Mockito.when(dirtDetector.detectDirtDegree(Mockito.any())).thenReturn(degree);
+
+        cachingDirtDetector.detectDirtDegree(batch(Material.COTTON, 1d));
+        cachingDirtDetector.detectDirtDegree(batch(Material.COTTON, 2d));
+        cachingDirtDetector.detectDirtDegree(batch(Material.COTTON, 3d));
+        cachingDirtDetector.detectDirtDegree(batch(Material.COTTON, 1d));
+
+        assertEquals(2, cachingDirtDetector.size());
+        assertEquals(4, cachingDirtDetector.getMissCount());
+    }
+
+    @Test
+    void weightBucketKeyShouldShareEntryForSimilarBatches() {
+        cachingDirtDetector = CachingDirtDetector.builder()
+                                                 .withDelegate(dirtDetector)
+                                                 .withKeyFunction(CachingDirtDetector.byMaterialAndWeight(1d))
+                                                 .build();
+        Mockito.when(dirtDetector.detectDirtDegree(Mockito.any())).thenReturn(degree);
+
+        cachingDirtDetector.detectDirtDegree(batch(Material.WOOL, 2.2d));
+        cachingDirtDetector.detectDirtDegree(batch(Material.WOOL, 2.7d));
+        cachingDirtDetector.detectDirtDegree(batch(Material.JEANS, 2.7d));
+
+        assertEquals(1, cachingDirtDetector.getHitCount());
+        assertEquals(2, cachingDirtDetector.getMissCount());
+    }
+
+    private LaundryBatch batch(Material material, double weightKg) {
+        return LaundryBatch.builder()
+                           .withMaterialType(material)
+                           .withWeightKg(weightKg)
+                           .build();
+    }
+}
@@ -0,0 +1,212 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class CostAwareSchedulerTest {
+
+    private static final double DELTA = 1e-9d;
+    private static final ConsumptionModel ONE_HOUR_ONE_KWH = (stage, program, material,
+            weightKg) -> stage == Stage.WASH ? new ResourceUsage(0.0d, 1.0d, 60) : ResourceUsage.ZERO;
+
+    private final TariffCurve nightTariff = TariffCurve.of(Map.of(0, 1.0d, 120, 0.25d, 360, 1.0d));
+
+    @Test
+    void batchShouldStartAtEarliestCheapestSlot() {
+        CostAwareScheduler scheduler = scheduler(1, TariffCurve.MINUTES_PER_DAY);
+
+        CostAwareScheduler.Assignment assignment = scheduler.submit(batch("a", 0, Long.MAX_VALUE))
+                                                            .orElseThrow();
+
+        assertEquals(120, assignment.getStartMinute());
+        assertEquals(180, assignment.getEndMinute());
+        assertEquals(0.25d, assignment.getCost(), DELTA);
+        assertEquals(0.25d, scheduler.plannedCost(), DELTA);
+    }
+
+    @Test
+    void batchShouldFillGapBeforeExistingReservation() {
+        CostAwareScheduler scheduler = scheduler(1, TariffCurve.MINUTES_PER_DAY);
+
+        CostAwareScheduler.Assignment pinned = scheduler.submit(batch("pinned", 180, 240))
+                                                        .orElseThrow();
+        CostAwareScheduler.Assignment beforePinned = scheduler.submit(batch("before", 0, Long.MAX_VALUE))
+                                                              .orElseThrow();
+        CostAwareScheduler.Assignment afterPinned = scheduler.submit(batch("after", 0, Long.MAX_VALUE))
+                                                             .orElseThrow();
+
+        assertEquals(180, pinned.getStartMinute());
+        assertEquals(120, beforePinned.getStartMinute());
+        assertEquals(240, afterPinned.getStartMinute());
+        assertEquals(0.75d, scheduler.plannedCost(), DELTA);
+    }
+
+    @Test
+    void batchesShouldSpreadOverMachinesInCheapWindow() {
+        CostAwareScheduler scheduler = scheduler(2, TariffCurve.MINUTES_PER_DAY);
+
+        CostAwareScheduler.Assignment first = scheduler.submit(batch("a", 0, Long.MAX_VALUE))
+                                                       .orElseThrow();
+        CostAwareScheduler.Assignment second = scheduler.submit(batch("b", 0, Long.MAX_VALUE))
+                                                        .orElseThrow();
+
+        assertEquals(120, first.getStartMinute());
+        assertEquals(120, second.getStartMinute());
+        assertTrue(first.getMachine() != second.getMachine());
+    }
+
+    @Test
+    void deadlineAndHorizonShouldLimitPlacement() {
+        CostAwareScheduler scheduler = scheduler(1, TariffCurve.MINUTES_PER_DAY);
+
+        assertEquals(90, scheduler.submit(batch("deadline", 0, 150))
+                                  .orElseThrow()
+                                  .getStartMinute());
+        assertEquals(Optional.empty(), scheduler.submit(batch("too-late", 100, 150)));
+        assertEquals(90, scheduler.submit(batch("moves-deadline-earlier", 60, 150))
+                                  .orElseThrow()
+                                  .getStartMinute());
+        assertEquals(Optional.empty(), scheduler.submit(batch("no-room", 0, 150)));
+        assertEquals(2, scheduler.pendingCount());
+
+        CostAwareScheduler shortHorizon = scheduler(1, 150);
+        CostAwareScheduler.Assignment assignment = shortHorizon.submit(batch("horizon", 0, Long.MAX_VALUE))
+                                                               .orElseThrow();
+        assertEquals(90, assignment.getStartMinute());
+        assertEquals(0.625d, assignment.getCost(), DELTA);
+        assertEquals(Optional.empty(), scheduler(1, 59).submit(batch("no-horizon", 0, Long.MAX_VALUE)));
+    }
+
+    @Test
+    void takeDueShouldReturnAssignmentsInStartOrderAndFreeTheirSlots() {
+        CostAwareScheduler scheduler = scheduler(1, TariffCurve.MINUTES_PER_DAY);
+        scheduler.submit(batch("second", 180, 240));
+        scheduler.submit(batch("first", 0, Long.MAX_VALUE));
+
+        assertEquals(List.of(), scheduler.takeDue(119));
+        List<CostAwareScheduler.Assignment> due = scheduler.takeDue(180);
+
+        assertEquals(2, due.size());
+        assertEquals("first", due.get(0)
+                                 .getBatch()
+                                 .getId());
+        assertEquals("second", due.get(1)
+                                  .getBatch()
+                                  .getId());
+        assertEquals(0, scheduler.pendingCount());
+        assertEquals(0.0d, scheduler.plannedCost(), DELTA);
+        assertThrows(IllegalArgumentException.class, () -> scheduler.takeDue(179));
+        assertEquals(240, scheduler.submit(batch("later", 0, Long.MAX_VALUE))
+                                   .orElseThrow()
+                                   .getStartMinute());
+    }
+
+    @Test
+    void plannedBatchShouldMoveToMakeRoomForEarlierDeadline() {
+        CostAwareScheduler scheduler = scheduler(1, TariffCurve.MINUTES_PER_DAY);
+        scheduler.submit(batch("flexible", 0, Long.MAX_VALUE));
+
+        CostAwareScheduler.Assignment urgent = scheduler.submit(batch("urgent", 100, 180))
+                                                        .orElseThrow();
+
+        assertEquals(120, urgent.getStartMinute());
+        assertEquals(0.5d, scheduler.plannedCost(), DELTA);
+        List<CostAwareScheduler.Assignment> due = scheduler.takeDue(240);
+        assertEquals("urgent", due.get(0)
+                                  .getBatch()
+                                  .getId());
+        assertEquals("flexible", due.get(1)
+                                    .getBatch()
+                                    .getId());
+        assertEquals(180, due.get(1)
+                             .getStartMinute());
+    }
+
+    @Test
+    void batchesThatCannotMoveShouldKeepTheirPlace() {
+        CostAwareScheduler pinnedPlan = scheduler(1, TariffCurve.MINUTES_PER_DAY);
+        pinnedPlan.submit(batch("pinned", 120, 180));
+
+        assertEquals(Optional.empty(), pinnedPlan.submit(batch("urgent", 100, 180)));
+        assertEquals(1, pinnedPlan.pendingCount());
+        assertEquals(0.25d, pinnedPlan.plannedCost(), DELTA);
+        assertEquals(120, pinnedPlan.takeDue(120)
+                                    .get(0)
+                                    .getStartMinute());
+
+        CostAwareScheduler startedPlan = scheduler(1, TariffCurve.MINUTES_PER_DAY);
+        startedPlan.submit(batch("started", 0, Long.MAX_VALUE));
+        startedPlan.takeDue(120);
+
+        assertEquals(Optional.empty(), startedPlan.submit(batch("urgent", 120, 180)));
+    }
+
+    @Test
+    void batchRejectedByFullFleetShouldStayPlanned() throws Exception {
+        CountDownLatch finishWashing = new CountDownLatch(1);
+        Engine engine = Mockito.mock(Engine.class);
+        Mockito.doAnswer(invocation -> finishWashing.await(10, TimeUnit.SECONDS))
+               .when(engine)
+               .runWashing(Program.SHORT.getTimeInMinutes());
+        List<WashingMachine> machines = List.of(
+                new WashingMachine(Mockito.mock(DirtDetector.class), engine, Mockito.mock(WaterPump.class)),
+                new WashingMachine(Mockito.mock(DirtDetector.class), engine, Mockito.mock(WaterPump.class)));
+        CostAwareScheduler scheduler = scheduler(2, TariffCurve.MINUTES_PER_DAY);
+        scheduler.submit(batch("a", 0, Long.MAX_VALUE));
+        scheduler.submit(batch("b", 0, Long.MAX_VALUE));
+        try (WashingMachineFleet fleet = WashingMachineFleet.builder()
+                                                            .withMaxInFlight(1)
+                                                            .build()) {
+            List<CompletableFuture<LaundryStatus>> started = scheduler.startDue(120, machines, fleet);
+
+            assertEquals(1, started.size());
+            assertEquals(1, scheduler.pendingCount());
+            finishWashing.countDown();
+            started.get(0)
+                   .get(10, TimeUnit.SECONDS);
+            while (fleet.inFlight() > 0) {
+                Thread.sleep(1);
+            }
+            List<CompletableFuture<LaundryStatus>> retried = scheduler.startDue(121, machines, fleet);
+            assertEquals(1, retried.size());
+            assertEquals(Result.SUCCESS, retried.get(0)
+                                                .get(10, TimeUnit.SECONDS)
+                                                .getResult());
+            assertEquals(0, scheduler.pendingCount());
+        }
+    }
+
+    private CostAwareScheduler scheduler(int machineCount, long planningHorizonMinutes) {
+        return CostAwareScheduler.builder()
+                                 .withTariffCurve(nightTariff)
+                                 .withConsumptionModel(ONE_HOUR_ONE_KWH)
+                                 .withMachineCount(machineCount)
+                                 .withPlanningHorizonMinutes(planningHorizonMinutes)
+                                 .build();
+    }
+
+    private static ScheduledBatch batch(String id, long releaseMinute, long deadlineMinute) {
+        return ScheduledBatch.builder()
+                             .withId(id)
+                             .withLaundryBatch(LaundryBatch.builder()
+                                                           .withMaterialType(Material.COTTON)
+                                                           .withWeightKg(4d)
+                                                           .build())
+                             .withProgramConfiguration(ProgramConfiguration.of(Program.SHORT, false))
+                             .withReleaseMinute(releaseMinute)
+                             .withDeadlineMinute(deadlineMinute)
+                             .build();
+    }
+
+}
@@ -0,0 +1,145 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CycleJournalTest {
+
+    @Mock
+    private Engine engine;
+    @Mock
+    private WaterPump waterPump;
+    @TempDir
+    Path directory;
+
+    @Test
+    void cyclesShouldBeReplayedAcrossSegments() throws Exception {
+        Mockito.doThrow(new WaterPumpException()).doNothing().when(waterPump).release();
+        LaundryBatch laundryBatch = LaundryBatch.builder()
+                                                .withMaterialType(Material.DELICATE)
+                                                .withWeightKg(2.5d)
+                                                .build();
+        ProgramConfiguration programConfiguration = ProgramConfiguration.builder()
+                                                                        .withProgram(Program.AUTODETECT)
+                                                                        .withSpin(false)
+                                                                        .build();
+        try (CycleJournal journal = CycleJournal.builder()
+                                                .withDirectory(directory)
+                                                .withSegmentRecords(2)
+                                                .withRingCapacity(8)
+                                                .build()) {
+            WashingMachine washingMachine = WashingMachine.builder()
+                                                          .withDirtDetector(laundry -> Percentage.of(80))
+                                                          .withEngine(engine)
+                                                          .withWaterPump(waterPump)
+                                                          .withMetricsSink(journal)
+                                                          .build();
+            for (int i = 0; i < 5; i++) {
+                washingMachine.start(laundryBatch, programConfiguration);
+            }
+        }
+
+        List<String> replayed = new ArrayList<>();
+        long count = CycleJournalReader.replay(directory, record -> {
+            replayed.add(record.toLaundryStatus() + " " + record.getWeightKg());
+            if (replayed.size() == 1) {
+                assertEquals(Material.DELICATE, record.getMaterialType());
+                assertEquals(Program.AUTODETECT, record.getRequestedProgram());
+                assertFalse(record.isSpin());
+                assertTrue(record.isStageAttempted(Stage.DETECT));
+                assertTrue(record.isStageFailed(Stage.RELEASE));
+                assertFalse(record.isStageAttempted(Stage.SPIN));
+            }
+        });
+
+        assertEquals(5, count);
+        assertEquals(LaundryStatus.of(Result.FAILURE, Program.LONG, ErrorCode.WATER_PUMP_FAILURE) + " 2.5", replayed.get(0));
+        assertEquals(LaundryStatus.of(Result.SUCCESS, Program.LONG, ErrorCode.NO_ERROR) + " 2.5", replayed.get(4));
+    }
+
+    @Test
+    void busyRejectionShouldBeJournaled() throws Exception {
+        CountDownLatch washing = new CountDownLatch(1);
+        CountDownLatch finishWashing = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            washing.countDown();
+            return finishWashing.await(10, TimeUnit.SECONDS);
+        })
+               .when(engine)
+               .runWashing(Program.SHORT.getTimeInMinutes());
+        LaundryBatch laundryBatch = LaundryBatch.builder()
+                                                .withMaterialType(Material.COTTON)
+                                                .withWeightKg(3d)
+                                                .build();
+        ProgramConfiguration programConfiguration = ProgramConfiguration.of(Program.SHORT, false);
+        LaundryStatus busy;
+        try (CycleJournal journal = CycleJournal.builder()
+                                                .withDirectory(directory)
+                                                .build()) {
+            WashingMachine washingMachine = WashingMachine.builder()
+                                                          .withDirtDetector(laundry -> Percentage.of(10))
+                                                          .withEngine(engine)
+                                                          .withWaterPump(waterPump)
+                                                          .withMetricsSink(journal)
+                                                          .build();
+            CompletableFuture<LaundryStatus> running = CompletableFuture.supplyAsync(
+                    () -> washingMachine.start(laundryBatch, programConfiguration));
+            assertTrue(washing.await(10, TimeUnit.SECONDS));
+            busy = washingMachine.start(laundryBatch, programConfiguration);
+            finishWashing.countDown();
+            running.get(10, TimeUnit.SECONDS);
+        }
+
+        List<LaundryStatus> replayed = new ArrayList<>();
+        CycleJournalReader.replay(directory, record -> replayed.add(record.toLaundryStatus()));
+
+        assertEquals(ErrorCode.MACHINE_BUSY, busy.getErrorCode());
+        assertEquals(List.of(busy, LaundryStatus.of(Result.SUCCESS, Program.SHORT, ErrorCode.NO_ERROR)), replayed);
+    }
+
+    @Test
+    void everyAppendRacingCloseShouldBeWrittenOrCountedAsDropped() throws Exception {
+        int producers = 4;
+        int attempts = 20_000;
+        LaundryStatus status = LaundryStatus.of(Result.SUCCESS, Program.SHORT, ErrorCode.NO_ERROR);
+        CycleJournal journal = CycleJournal.builder()
+                                           .withDirectory(directory)
+                                           .withRingCapacity(64)
+                                           .build();
+        CountDownLatch started = new CountDownLatch(producers);
+        List<CompletableFuture<Void>> appending = new ArrayList<>();
+        for (int i = 0; i < producers; i++) {
+            appending.add(CompletableFuture.runAsync(() -> {
+                started.countDown();
+                for (int j = 0; j < attempts; j++) {
+                    journal.append(null, null, status, 0, 0, 0L);
+                }
+            }));
+        }
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        journal.close();
+        CompletableFuture.allOf(appending.toArray(new CompletableFuture<?>[0]))
+                         .get(10, TimeUnit.SECONDS);
+
+        long replayed = CycleJournalReader.replay(directory, record -> {});
+
+        assertEquals(journal.getAppendedCount(), replayed);
+        assertEquals((long) producers * attempts, journal.getAppendedCount() + journal.getDroppedCount());
+    }
+}
@@ -0,0 +1,98 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class DirtTelemetryTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final BlockingQueue<DirtWindow> closedWindows = new LinkedBlockingQueue<>();
+
+    @Test
+    void tumblingWindowShouldReportMeanPercentilesAndLongShare() throws Exception {
+        try (DirtTelemetry telemetry = telemetry(Duration.ofMinutes(1), Duration.ofMinutes(1))) {
+            for (int degree = 0; degree < 100; degree++) {
+                telemetry.submit(Material.COTTON, degree);
+            }
+            awaitAccepted(telemetry, 100);
+
+            DirtWindow window = telemetry.window(Material.COTTON);
+            assertEquals(100, window.getCount());
+            assertEquals(49.5d, window.getMean(), 1e-9);
+            assertEquals(49.0d, window.percentile(0.5d), 0.1d);
+            assertEquals(89.0d, window.percentile(0.9d), 0.1d);
+            assertEquals(0.49d, window.getLongShare(), 1e-9);
+            assertEquals(0, telemetry.window(Material.WOOL)
+                                     .getCount());
+
+            clock.set(Duration.ofMinutes(1)
+                              .toMillis());
+            DirtWindow closed = closedWindows.poll(5, TimeUnit.SECONDS);
+            assertNotNull(closed);
+            assertEquals(Material.COTTON, closed.getMaterial());
+            assertEquals(100, closed.getCount());
+            assertEquals(0L, closed.getStartMillis());
+            assertEquals(60_000L, closed.getEndMillis());
+            telemetry.submit(Material.COTTON, 75d);
+            awaitAccepted(telemetry, 101);
+            assertEquals(1, telemetry.window(Material.COTTON)
+                                     .getCount());
+        }
+    }
+
+    @Test
+    void slidingWindowShouldKeepPanesUntilTheyLeaveTheWindow() throws Exception {
+        try (DirtTelemetry telemetry = telemetry(Duration.ofMinutes(2), Duration.ofMinutes(1))) {
+            telemetry.submit(Material.JEANS, 20d);
+            awaitAccepted(telemetry, 1);
+            clock.set(Duration.ofMinutes(1)
+                              .toMillis());
+            telemetry.submit(Material.JEANS, 80d);
+            awaitAccepted(telemetry, 2);
+
+            DirtWindow window = telemetry.window(Material.JEANS);
+            assertEquals(2, window.getCount());
+            assertEquals(0.5d, window.getLongShare(), 1e-9);
+
+            clock.set(Duration.ofMinutes(2)
+                              .toMillis());
+            awaitWindows(2);
+            assertEquals(1, telemetry.window(Material.JEANS)
+                                     .getCount());
+            assertThrows(IllegalArgumentException.class, () -> telemetry.offer(Material.JEANS, 101d));
+        }
+    }
+
+    private DirtTelemetry telemetry(Duration window, Duration slide) {
+        return DirtTelemetry.builder()
+                            .withWindow(window)
+                            .withSlide(slide)
+                            .withClock(clock::get)
+                            .withListener(closedWindows::add)
+                            .build();
+    }
+
+    private void awaitWindows(int count) throws InterruptedException {
+        for (int i = 0; i < count; i++) {
+            assertNotNull(closedWindows.poll(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private static void awaitAccepted(DirtTelemetry telemetry, long count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (telemetry.getAcceptedCount() < count && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(count, telemetry.getAcceptedCount());
+    }
+
+}
@@ -0,0 +1,144 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+class FleetCheckpointerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void restartedControllerShouldDrainOnlyMachinesThatMayHoldWater() throws Exception {
+        Path file = directory.resolve("fleet.checkpoint");
+        CountDownLatch washing = new CountDownLatch(1);
+        CountDownLatch finishWashing = new CountDownLatch(1);
+        Engine hungEngine = Mockito.mock(Engine.class);
+        Mockito.doAnswer(invocation -> {
+            washing.countDown();
+            return finishWashing.await(10, TimeUnit.SECONDS);
+        })
+               .when(hungEngine)
+               .runWashing(Program.LONG.getTimeInMinutes());
+        Engine brokenEngine = Mockito.mock(Engine.class);
+        Mockito.doThrow(new EngineException())
+               .when(brokenEngine)
+               .spin();
+        CompletableFuture<LaundryStatus> interrupted;
+        try (FleetCheckpointer checkpointer = checkpointer(file, 4)) {
+            machine(checkpointer, 0, Mockito.mock(Engine.class)).start(batch(Material.COTTON, 3d),
+                    ProgramConfiguration.of(Program.SHORT, true));
+            WashingMachine running = machine(checkpointer, 1, hungEngine);
+            interrupted = CompletableFuture.supplyAsync(
+                    () -> running.start(batch(Material.JEANS, 1.5d), ProgramConfiguration.of(Program.LONG, true)));
+            assertTrue(washing.await(10, TimeUnit.SECONDS));
+            machine(checkpointer, 2, brokenEngine).start(batch(Material.WOOL, 2d),
+                    ProgramConfiguration.of(Program.MEDIUM, true));
+            checkpointer.checkpoint();
+        }
+
+        FleetSnapshot snapshot = FleetCheckpointReader.load(file);
+        finishWashing.countDown();
+        interrupted.get(10, TimeUnit.SECONDS);
+
+        assertEquals(MachineState.IDLE, snapshot.getState(0));
+        assertNull(snapshot.getLaundryBatch(0));
+        assertEquals(MachineState.WASHING, snapshot.getState(1));
+        assertEquals(ProgramConfiguration.of(Program.LONG, true), snapshot.getProgramConfiguration(1));
+        assertEquals(batch(Material.JEANS, 1.5d), snapshot.getLaundryBatch(1));
+        assertEquals(MachineState.FAILED, snapshot.getState(2));
+        assertEquals(MachineState.IDLE, snapshot.getState(3));
+        assertArrayEquals(new int[] {1, 2}, snapshot.getMachinesHoldingWater());
+
+        WaterPump[] pumps = {Mockito.mock(WaterPump.class), Mockito.mock(WaterPump.class), Mockito.mock(WaterPump.class),
+                Mockito.mock(WaterPump.class)};
+        Mockito.doThrow(new WaterPumpException())
+               .when(pumps[2])
+               .release();
+        assertArrayEquals(new int[] {2}, snapshot.compensate(i -> pumps[i], 2));
+        Mockito.verify(pumps[1])
+               .release();
+        Mockito.verifyNoInteractions(pumps[0], pumps[3]);
+    }
+
+    @Test
+    void loaderShouldApplyDeltasAfterCompactionAndIgnoreTornTail() throws Exception {
+        Path file = directory.resolve("fleet.checkpoint");
+        int machineCount = 1000;
+        FleetSnapshot expected;
+        try (FleetCheckpointer checkpointer = checkpointer(file, machineCount)) {
+            MachineStateListener[] listeners = new MachineStateListener[machineCount];
+            for (int i = 0; i < machineCount; i++) {
+                listeners[i] = checkpointer.listener(i);
+            }
+            for (int round = 0; round < 20; round++) {
+                for (int i = round; i < machineCount; i += 7) {
+                    listeners[i].onStateChanged(MachineState.POURING, batch(Material.COTTON, 1 + round % 7),
+                            ProgramConfiguration.of(Program.MEDIUM, i % 2 == 0), Program.MEDIUM);
+                }
+                listeners[round].onStateChanged(MachineState.IDLE, null, null, null);
+                checkpointer.checkpoint();
+            }
+            assertTrue(checkpointer.getBaseCount() > 1);
+            assertTrue(Files.size(file) <= 2L * machineCount * (Long.BYTES + FleetCheckpointer.DELTA_RECORD_SIZE));
+            expected = FleetCheckpointReader.load(file);
+        }
+        Files.write(file, new byte[] {0, 0, 0, 3, 0, 0, 0, 7, 1}, StandardOpenOption.APPEND);
+
+        FleetSnapshot loaded = FleetCheckpointReader.load(file);
+        for (int i = 0; i < machineCount; i++) {
+            assertEquals(expected.packed(i), loaded.packed(i));
+        }
+        assertEquals(MachineState.IDLE, loaded.getState(19));
+        assertEquals(MachineState.POURING, loaded.getState(26));
+        assertEquals(batch(Material.COTTON, 6d), loaded.getLaundryBatch(26));
+
+        try (FleetCheckpointer restarted = FleetCheckpointer.builder()
+                                                            .withFile(file)
+                                                            .withInitialState(loaded)
+                                                            .build()) {
+            assertEquals(machineCount, restarted.getMachineCount());
+        }
+        assertEquals(MachineState.POURING, FleetCheckpointReader.load(file)
+                                                                .getState(26));
+    }
+
+    private static FleetCheckpointer checkpointer(Path file, int machineCount) throws Exception {
+        return FleetCheckpointer.builder()
+                                .withFile(file)
+                                .withMachineCount(machineCount)
+                                .withFlushInterval(Duration.ofMinutes(1))
+                                .build();
+    }
+
+    private static WashingMachine machine(FleetCheckpointer checkpointer, int machine, Engine engine) {
+        return WashingMachine.builder()
+                             .withDirtDetector(Mockito.mock(DirtDetector.class))
+                             .withEngine(engine)
+                             .withWaterPump(Mockito.mock(WaterPump.class))
+                             .withStateListener(checkpointer.listener(machine))
+                             .build();
+    }
+
+    private static LaundryBatch batch(Material material, double weightKg) {
+        return LaundryBatch.builder()
+                           .withMaterialType(material)
+                           .withWeightKg(weightKg)
+                           .build();
+    }
+
+}
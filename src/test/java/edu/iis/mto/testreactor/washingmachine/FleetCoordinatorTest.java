@@ -0,0 +1,230 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class FleetCoordinatorTest {
+
+    private static final int MACHINES = 2_000;
+
+    @Test
+    void joiningNodeShouldOnlyTakeOverMachinesFromOthers() throws Exception {
+        FleetCoordinator coordinator = FleetCoordinator.builder()
+                                                       .withTransport(new LoopbackTransport())
+                                                       .build();
+        for (int i = 0; i < MACHINES; i++) {
+            coordinator.registerMachine("machine-" + i);
+        }
+        coordinator.join("node-a");
+        coordinator.join("node-b");
+        coordinator.join("node-c");
+        Map<String, String> before = owners(coordinator);
+
+        List<String> moved = coordinator.join("node-d")
+                                        .get(10, TimeUnit.SECONDS);
+
+        Map<String, String> after = owners(coordinator);
+        for (int i = 0; i < MACHINES; i++) {
+            String machineId = "machine-" + i;
+            assertEquals(moved.contains(machineId), !before.get(machineId)
+                                                           .equals(after.get(machineId)));
+        }
+        for (String machineId : moved) {
+            assertEquals("node-d", after.get(machineId));
+        }
+        assertTrue(moved.size() > MACHINES / 8 && moved.size() < MACHINES / 2, "moved " + moved.size());
+
+        List<String> handedOver = coordinator.leave("node-d")
+                                             .get(10, TimeUnit.SECONDS);
+        assertEquals(moved.size(), handedOver.size());
+        assertEquals(before, owners(coordinator));
+    }
+
+    @Test
+    void startShouldBeRoutedToOwningNodeAndRelinquishedAfterRebalance() throws Exception {
+        LoopbackTransport transport = new LoopbackTransport();
+        FleetCoordinator coordinator = FleetCoordinator.builder()
+                                                       .withTransport(transport)
+                                                       .build();
+        Map<String, FleetNode> nodes = new HashMap<>();
+        for (String nodeId : List.of("node-a", "node-b", "node-c")) {
+            nodes.put(nodeId, node(nodeId, transport));
+            coordinator.join(nodeId);
+        }
+        LaundryBatch laundryBatch = LaundryBatch.builder()
+                                                .withMaterialType(Material.COTTON)
+                                                .withWeightKg(4d)
+                                                .build();
+        ProgramConfiguration programConfiguration = ProgramConfiguration.builder()
+                                                                        .withProgram(Program.SHORT)
+                                                                        .withSpin(true)
+                                                                        .build();
+        for (int i = 0; i < 100; i++) {
+            assertEquals(Result.SUCCESS, coordinator.start("machine-" + i, laundryBatch, programConfiguration)
+                                                    .get()
+                                                    .getResult());
+        }
+        for (int i = 0; i < 100; i++) {
+            String machineId = "machine-" + i;
+            assertTrue(nodes.get(coordinator.ownerOf(machineId))
+                            .ownedMachines()
+                            .contains(machineId));
+        }
+
+        nodes.put("node-d", node("node-d", transport));
+        List<String> moved = coordinator.join("node-d")
+                                        .get(10, TimeUnit.SECONDS);
+
+        for (String machineId : moved) {
+            for (String nodeId : List.of("node-a", "node-b", "node-c")) {
+                assertFalse(nodes.get(nodeId)
+                                 .ownedMachines()
+                                 .contains(machineId));
+            }
+        }
+        Map<String, ShardMetrics> metrics = coordinator.shardMetrics();
+        assertEquals(100, metrics.values()
+                                 .stream()
+                                 .mapToLong(ShardMetrics::getCompleted)
+                                 .sum());
+        assertEquals(moved.size(), metrics.get("node-d")
+                                          .getOwnedMachines());
+        for (FleetNode node : nodes.values()) {
+            node.close();
+        }
+    }
+
+    @Test
+    void relinquishShouldWaitForRunningCycle() throws Exception {
+        CountDownLatch washing = new CountDownLatch(1);
+        CountDownLatch finishWashing = new CountDownLatch(1);
+        Engine engine = Mockito.mock(Engine.class);
+        Mockito.doAnswer(invocation -> {
+            washing.countDown();
+            return finishWashing.await(10, TimeUnit.SECONDS);
+        })
+               .when(engine)
+               .runWashing(Program.SHORT.getTimeInMinutes());
+        FleetNode node = FleetNode.builder()
+                                  .withNodeId("node-a")
+                                  .withTransport(new LoopbackTransport())
+                                  .withMachineFactory(machineId -> new WashingMachine(Mockito.mock(DirtDetector.class),
+                                          engine, Mockito.mock(WaterPump.class)))
+                                  .build();
+        LaundryBatch laundryBatch = LaundryBatch.builder()
+                                                .withMaterialType(Material.COTTON)
+                                                .withWeightKg(4d)
+                                                .build();
+        StartRequest request = new StartRequest("machine-0", laundryBatch, ProgramConfiguration.of(Program.SHORT, false));
+        CompletableFuture<LaundryStatus> running = node.onStart(request);
+        assertTrue(washing.await(10, TimeUnit.SECONDS));
+
+        CompletableFuture<Void> relinquished = node.onRelinquish("machine-0");
+
+        assertFalse(relinquished.isDone());
+        assertEquals(ErrorCode.MACHINE_BUSY, node.onStart(request)
+                                                 .get(10, TimeUnit.SECONDS)
+                                                 .getErrorCode());
+        finishWashing.countDown();
+        relinquished.get(10, TimeUnit.SECONDS);
+        assertEquals(Result.SUCCESS, running.get()
+                                            .getResult());
+        assertFalse(node.ownedMachines()
+                        .contains("machine-0"));
+        node.close();
+    }
+
+    @Test
+    void movedMachineShouldStayBusyUntilPreviousOwnerFinishesItsCycle() throws Exception {
+        CountDownLatch finishWashing = new CountDownLatch(1);
+        Engine engine = Mockito.mock(Engine.class);
+        Mockito.doAnswer(invocation -> finishWashing.await(10, TimeUnit.SECONDS))
+               .when(engine)
+               .runWashing(Program.SHORT.getTimeInMinutes());
+        LoopbackTransport transport = new LoopbackTransport();
+        FleetCoordinator coordinator = FleetCoordinator.builder()
+                                                       .withTransport(transport)
+                                                       .build();
+        FleetNode nodeA = FleetNode.builder()
+                                   .withNodeId("node-a")
+                                   .withTransport(transport)
+                                   .withMachineFactory(machineId -> new WashingMachine(Mockito.mock(DirtDetector.class),
+                                           engine, Mockito.mock(WaterPump.class)))
+                                   .build();
+        coordinator.join("node-a");
+        LaundryBatch laundryBatch = LaundryBatch.builder()
+                                                .withMaterialType(Material.COTTON)
+                                                .withWeightKg(4d)
+                                                .build();
+        ProgramConfiguration programConfiguration = ProgramConfiguration.of(Program.SHORT, false);
+        List<CompletableFuture<LaundryStatus>> running = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            running.add(coordinator.start("machine-" + i, laundryBatch, programConfiguration));
+        }
+
+        FleetNode nodeB = node("node-b", transport);
+        CompletableFuture<List<String>> handoff = coordinator.join("node-b");
+
+        assertFalse(handoff.isDone());
+        String movedMachine = null;
+        for (int i = 0; i < 20 && movedMachine == null; i++) {
+            if ("node-b".equals(coordinator.ownerOf("machine-" + i))) {
+                movedMachine = "machine-" + i;
+            }
+        }
+        assertNotNull(movedMachine);
+        assertEquals(ErrorCode.MACHINE_BUSY, coordinator.start(movedMachine, laundryBatch, programConfiguration)
+                                                        .get(10, TimeUnit.SECONDS)
+                                                        .getErrorCode());
+        assertFalse(nodeB.ownedMachines()
+                         .contains(movedMachine));
+
+        finishWashing.countDown();
+        assertTrue(handoff.get(10, TimeUnit.SECONDS)
+                          .contains(movedMachine));
+        for (CompletableFuture<LaundryStatus> status : running) {
+            assertEquals(Result.SUCCESS, status.get(10, TimeUnit.SECONDS)
+                                               .getResult());
+        }
+        assertEquals(Result.SUCCESS, coordinator.start(movedMachine, laundryBatch, programConfiguration)
+                                                .get(10, TimeUnit.SECONDS)
+                                                .getResult());
+        assertTrue(nodeB.ownedMachines()
+                        .contains(movedMachine));
+        assertFalse(nodeA.ownedMachines()
+                         .contains(movedMachine));
+        nodeA.close();
+        nodeB.close();
+    }
+
+    private static FleetNode node(String nodeId, Transport transport) {
+        return FleetNode.builder()
+                        .withNodeId(nodeId)
+                        .withTransport(transport)
+                        .withMachineFactory(machineId -> new WashingMachine(Mockito.mock(DirtDetector.class),
+                                Mockito.mock(Engine.class), Mockito.mock(WaterPump.class)))
+                        .build();
+    }
+
+    private static Map<String, String> owners(FleetCoordinator coordinator) {
+        Map<String, String> owners = new HashMap<>();
+        for (int i = 0; i < MACHINES; i++) {
+            owners.put("machine-" + i, coordinator.ownerOf("machine-" + i));
+        }
+        return owners;
+    }
+
+}
@@ -0,0 +1,54 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class FleetSimulationTest {
+
+    private static final long HORIZON_SECONDS = 7 * 24 * 3600L;
+
+    @Test
+    void identicalSeedsShouldGiveIdenticalReports() {
+        SimulationReport first = simulation(7L).run(HORIZON_SECONDS);
+        SimulationReport second = simulation(7L).run(HORIZON_SECONDS);
+
+        assertTrue(first.getCyclesFinished() > 0);
+        assertEquals(first.toString(), second.toString());
+        assertEquals(first.getCyclesStarted(), second.getCyclesStarted());
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            assertEquals(first.getErrorCodeCount(errorCode), second.getErrorCodeCount(errorCode));
+        }
+        for (int machine = 0; machine < 4; machine++) {
+            assertEquals(first.getMachineUtilisation(machine), second.getMachineUtilisation(machine));
+        }
+        assertNotEquals(first.toString(), simulation(8L).run(HORIZON_SECONDS)
+                                                        .toString());
+    }
+
+    @Test
+    void failureProbabilityOutsideUnitRangeShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> FleetSimulation.builder()
+                                                                          .withFailureProbability(1.5d)
+                                                                          .build());
+        assertThrows(IllegalArgumentException.class, () -> FleetSimulation.builder()
+                                                                          .withFailureProbability(-0.1d)
+                                                                          .build());
+        assertThrows(IllegalArgumentException.class, () -> FleetSimulation.builder()
+                                                                          .withFailureProbability(Double.NaN)
+                                                                          .build());
+    }
+
+    private static FleetSimulation simulation(long seed) {
+        return FleetSimulation.builder()
+                              .withMachineCount(4)
+                              .withMeanInterArrivalSeconds(1200)
+                              .withFailureProbability(0.05d)
+                              .withSeed(seed)
+                              .build();
+    }
+
+}
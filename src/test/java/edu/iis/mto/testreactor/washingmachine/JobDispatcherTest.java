@@ -0,0 +1,135 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class JobDispatcherTest {
+
+    private static final double BLOCKER_KG = 6d;
+
+    private final List<Double> pouredKg = new CopyOnWriteArrayList<>();
+    private final CountDownLatch finishBlocker = new CountDownLatch(1);
+
+    @Test
+    void tiersShouldShareMachineTimeByWeightWithShortProgramsFirst() throws Exception {
+        assertEquals(List.of(1d, 2d, 4d, 3d, 5d), queuedBehindBlocker(Duration.ofMinutes(30)));
+    }
+
+    @Test
+    void jobsWaitingLongerThanMaxWaitShouldBeServedOldestFirst() throws Exception {
+        assertEquals(List.of(1d, 2d, 3d, 4d, 5d), queuedBehindBlocker(Duration.ofNanos(1)));
+    }
+
+    @Test
+    void loadsShouldOnlyGoToMachinesConfiguredForTheirMaterial() throws Exception {
+        WaterPump generalPump = Mockito.mock(WaterPump.class);
+        WaterPump delicatePump = Mockito.mock(WaterPump.class);
+        JobDispatcher dispatcher = JobDispatcher.builder()
+                                                .withMachine(machine(generalPump, Mockito.mock(Engine.class)), Material.COTTON,
+                                                        Material.JEANS, Material.SYNTETIC)
+                                                .withMachine(machine(delicatePump, Mockito.mock(Engine.class)), Material.COTTON,
+                                                        Material.WOOL, Material.JEANS, Material.SYNTETIC)
+                                                .build();
+        try {
+            assertEquals(Result.SUCCESS, dispatcher.enqueue(batch(Material.WOOL, 2d), configuration(Program.SHORT),
+                    PriorityTier.ECONOMY)
+                                                   .get(10, TimeUnit.SECONDS)
+                                                   .getResult());
+            assertEquals(Result.SUCCESS, dispatcher.enqueue(batch(Material.COTTON, 3d), configuration(Program.SHORT),
+                    PriorityTier.ECONOMY)
+                                                   .get(10, TimeUnit.SECONDS)
+                                                   .getResult());
+            assertThrows(IllegalArgumentException.class,
+                    () -> dispatcher.enqueue(batch(Material.DELICATE, 1d), configuration(Program.SHORT), PriorityTier.PREMIUM));
+        } finally {
+            dispatcher.close();
+        }
+        Mockito.verify(delicatePump)
+               .pour(2d);
+        Mockito.verify(generalPump)
+               .pour(3d);
+        assertEquals(2, dispatcher.getWaitTime(PriorityTier.ECONOMY)
+                                  .getCount());
+    }
+
+    /**
+     * Blocks the only machine with a STANDARD MEDIUM job, queues five jobs behind it and returns the weights, which
+     * identify the jobs, in the order the machine poured them.
+     */
+    private List<Double> queuedBehindBlocker(Duration maxWait) throws Exception {
+        WaterPump waterPump = Mockito.mock(WaterPump.class);
+        Mockito.doAnswer(invocation -> pouredKg.add(invocation.getArgument(0)))
+               .when(waterPump)
+               .pour(Mockito.anyDouble());
+        Engine engine = Mockito.mock(Engine.class);
+        Mockito.doAnswer(invocation -> finishBlocker.await(10, TimeUnit.SECONDS))
+               .doNothing()
+               .when(engine)
+               .runWashing(Mockito.anyInt());
+        WashingMachine machine = machine(waterPump, engine);
+        JobDispatcher dispatcher = JobDispatcher.builder()
+                                                .withMachine(machine, Material.COTTON)
+                                                .withMaxWait(maxWait)
+                                                .build();
+        List<CompletableFuture<LaundryStatus>> results = new ArrayList<>();
+        try {
+            results.add(dispatcher.enqueue(batch(Material.COTTON, BLOCKER_KG), configuration(Program.MEDIUM),
+                    PriorityTier.STANDARD));
+            awaitWashing(machine);
+            results.add(dispatcher.enqueue(batch(Material.COTTON, 1d), configuration(Program.SHORT), PriorityTier.ECONOMY));
+            results.add(dispatcher.enqueue(batch(Material.COTTON, 2d), configuration(Program.LONG), PriorityTier.PREMIUM));
+            results.add(dispatcher.enqueue(batch(Material.COTTON, 3d), configuration(Program.LONG), PriorityTier.PREMIUM));
+            results.add(dispatcher.enqueue(batch(Material.COTTON, 4d), configuration(Program.MEDIUM), PriorityTier.STANDARD));
+            results.add(dispatcher.enqueue(batch(Material.COTTON, 5d), configuration(Program.SHORT), PriorityTier.PREMIUM));
+            assertEquals(5, dispatcher.getQueueDepth());
+            finishBlocker.countDown();
+            for (CompletableFuture<LaundryStatus> result : results) {
+                assertEquals(Result.SUCCESS, result.get(10, TimeUnit.SECONDS)
+                                                   .getResult());
+            }
+        } finally {
+            dispatcher.close();
+        }
+        assertEquals(0, dispatcher.getQueueDepth());
+        assertEquals(6, dispatcher.getDispatchedCount());
+        assertEquals(3, dispatcher.getWaitTime(PriorityTier.PREMIUM)
+                                  .getCount());
+        assertEquals(BLOCKER_KG, pouredKg.remove(0));
+        return pouredKg;
+    }
+
+    private static void awaitWashing(WashingMachine machine) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (machine.currentState() != MachineState.WASHING && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(MachineState.WASHING, machine.currentState());
+    }
+
+    private static WashingMachine machine(WaterPump waterPump, Engine engine) {
+        return new WashingMachine(Mockito.mock(DirtDetector.class), engine, waterPump);
+    }
+
+    private static ProgramConfiguration configuration(Program program) {
+        return ProgramConfiguration.of(program, false);
+    }
+
+    private static LaundryBatch batch(Material material, double weightKg) {
+        return LaundryBatch.builder()
+                           .withMaterialType(material)
+                           .withWeightKg(weightKg)
+                           .build();
+    }
+
+}
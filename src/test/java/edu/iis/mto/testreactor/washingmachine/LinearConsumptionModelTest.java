@@ -0,0 +1,53 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class LinearConsumptionModelTest {
+
+    private static final double DELTA = 1e-9d;
+
+    private final LinearConsumptionModel model = LinearConsumptionModel.builder()
+                                                                       .withBaseWaterLitres(10d)
+                                                                       .withWaterLitresPerKg(Material.WOOL, 9d)
+                                                                       .withEnergyKwhPerWashMinute(0.01d)
+                                                                       .withHeatingKwhPerKg(0.1d)
+                                                                       .withSpin(0.2d, 5)
+                                                                       .build();
+
+    @Test
+    void stagesShouldChargeWaterEnergyAndTimeSeparately() {
+        assertEquals(new ResourceUsage(28d, 0d, 0), model.estimateStage(Stage.POUR, Program.SHORT, Material.WOOL, 2d));
+        ResourceUsage wash = model.estimateStage(Stage.WASH, Program.SHORT, Material.WOOL, 2d);
+        assertEquals(0d, wash.getWaterLitres(), DELTA);
+        assertEquals(0.4d, wash.getEnergyKwh(), DELTA);
+        assertEquals(20, wash.getDurationMinutes());
+        assertEquals(new ResourceUsage(0d, 0.2d, 5), model.estimateStage(Stage.SPIN, Program.SHORT, Material.WOOL, 2d));
+        assertEquals(ResourceUsage.ZERO, model.estimateStage(Stage.DETECT, Program.SHORT, Material.WOOL, 2d));
+        assertEquals(ResourceUsage.ZERO, model.estimateStage(Stage.RELEASE, Program.SHORT, Material.WOOL, 2d));
+    }
+
+    @Test
+    void cycleEstimateShouldSumItsStages() {
+        ResourceUsage withSpin = model.estimate(Program.LONG, Material.COTTON, 5d, true);
+        ResourceUsage withoutSpin = model.estimate(Program.LONG, Material.COTTON, 5d, false);
+
+        assertEquals(40d, withSpin.getWaterLitres(), DELTA);
+        assertEquals(1.9d, withSpin.getEnergyKwh(), DELTA);
+        assertEquals(125, withSpin.getDurationMinutes());
+        assertEquals(1.7d, withoutSpin.getEnergyKwh(), DELTA);
+        assertEquals(120, withoutSpin.getDurationMinutes());
+    }
+
+    @Test
+    void negativeRatesShouldBeRejected() {
+        LinearConsumptionModel.Builder builder = LinearConsumptionModel.builder();
+
+        assertThrows(IllegalArgumentException.class, () -> builder.withBaseWaterLitres(-1d));
+        assertThrows(IllegalArgumentException.class, () -> builder.withWaterLitresPerKg(Material.JEANS, -1d));
+        assertThrows(IllegalArgumentException.class, () -> builder.withSpin(0.1d, -1));
+    }
+
+}
@@ -0,0 +1,68 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class LoadGeneratorTest {
+
+    @Test
+    void sameSeedShouldReproduceTheErrorCodeBreakdown() throws Exception {
+        LoadGenerator loadGenerator = LoadGenerator.builder()
+                                                   .withMachineCount(4)
+                                                   .withTargetRatePerSecond(2000)
+                                                   .withDuration(Duration.ofMillis(100))
+                                                   .withSeed(24)
+                                                   .withEngineFaults(DeviceFaults.builder()
+                                                                                 .withFailureProbability(0.1d)
+                                                                                 .build())
+                                                   .withWaterPumpFaults(DeviceFaults.builder()
+                                                                                    .withFailureProbability(0.05d)
+                                                                                    .build())
+                                                   .build();
+
+        LoadReport first = loadGenerator.run();
+        LoadReport second = loadGenerator.run();
+
+        assertEquals(200, first.getJobCount());
+        assertEquals(200, first.getResponseTime()
+                               .getCount());
+        long total = 0;
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            assertEquals(first.getErrorCodeCount(errorCode), second.getErrorCodeCount(errorCode), errorCode.name());
+            total += first.getErrorCodeCount(errorCode);
+        }
+        assertEquals(200, total);
+        assertTrue(first.getErrorCodeCount(ErrorCode.NO_ERROR) > 0);
+        assertTrue(first.getErrorCodeCount(ErrorCode.ENGINE_FAILURE) > 0);
+        assertTrue(first.getErrorCodeCount(ErrorCode.WATER_PUMP_FAILURE) > 0);
+    }
+
+    @Test
+    void responseTimeShouldIncludeQueueingBehindStalledMachine() throws Exception {
+        long stallNanos = Duration.ofMillis(100)
+                                  .toNanos();
+        LoadReport report = LoadGenerator.builder()
+                                         .withTargetRatePerSecond(200)
+                                         .withDuration(Duration.ofMillis(250))
+                                         .withSeed(24)
+                                         .withConfigurationGenerator(random -> ProgramConfiguration.of(Program.SHORT, false))
+                                         .withEngineFaults(DeviceFaults.builder()
+                                                                       .withMedianLatency(Duration.ofMillis(1))
+                                                                       .withStall(0.1d, Duration.ofNanos(stallNanos))
+                                                                       .build())
+                                         .build()
+                                         .run();
+
+        assertEquals(50, report.getServiceTime()
+                               .getCount());
+        assertTrue(report.getServiceTime()
+                         .getValueAtPercentile(50) < stallNanos, report.toString());
+        assertTrue(report.getResponseTime()
+                         .getValueAtPercentile(99) >= stallNanos, report.toString());
+    }
+
+}
@@ -0,0 +1,104 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class LoadPlannerTest {
+
+    @Test
+    void itemsShouldBePackedIntoFewestCyclesPerMaterial() {
+        List<LaundryItem> items = List.of(item(Material.COTTON, 5d, Program.MEDIUM), item(Material.COTTON, 3d, Program.MEDIUM),
+                item(Material.COTTON, 4d, Program.MEDIUM), item(Material.COTTON, 4d, Program.MEDIUM),
+                item(Material.WOOL, 2d, Program.SHORT), item(Material.WOOL, 1.5d, Program.SHORT));
+
+        List<PlannedCycle> cycles = LoadPlanner.builder()
+                                               .build()
+                                               .plan(items);
+
+        assertEquals(3, cycles.size());
+        for (PlannedCycle cycle : cycles) {
+            LaundryBatch laundryBatch = cycle.getLaundryBatch();
+            assertFalse(ProgramPolicy.defaults()
+                                     .overweight(laundryBatch.getMaterialType(), laundryBatch.getWeightKg()));
+        }
+    }
+
+    @Test
+    void exactModeShouldBeatFirstFitDecreasing() {
+        List<LaundryItem> items = List.of(item(Material.COTTON, 3d, Program.MEDIUM), item(Material.COTTON, 3d, Program.MEDIUM),
+                item(Material.COTTON, 2d, Program.MEDIUM), item(Material.COTTON, 2d, Program.MEDIUM),
+                item(Material.COTTON, 2d, Program.MEDIUM), item(Material.COTTON, 2d, Program.MEDIUM),
+                item(Material.COTTON, 2.5d, Program.MEDIUM), item(Material.COTTON, 2.5d, Program.MEDIUM),
+                item(Material.COTTON, 2.5d, Program.MEDIUM), item(Material.COTTON, 2.5d, Program.MEDIUM));
+
+        List<PlannedCycle> heuristic = LoadPlanner.builder()
+                                                  .build()
+                                                  .plan(items);
+        List<PlannedCycle> exact = LoadPlanner.builder()
+                                              .withMode(LoadPlanner.Mode.EXACT)
+                                              .build()
+                                              .plan(items);
+
+        assertEquals(4, heuristic.size());
+        assertEquals(3, exact.size());
+    }
+
+    @Test
+    void shortItemsShouldShareSpareRoomOfLongerCycles() {
+        List<LaundryItem> items = List.of(item(Material.COTTON, 6d, Program.LONG), item(Material.COTTON, 2d, Program.SHORT));
+
+        List<PlannedCycle> cycles = LoadPlanner.builder()
+                                               .build()
+                                               .plan(items);
+
+        assertEquals(1, cycles.size());
+        assertEquals(Program.LONG, cycles.get(0)
+                                         .getProgramConfiguration()
+                                         .getProgram());
+    }
+
+    @Test
+    void itemsWithoutSpinShouldNeverShareSpinningCycle() {
+        LaundryItem withoutSpin = LaundryItem.builder()
+                                             .withMaterialType(Material.COTTON)
+                                             .withWeightKg(2d)
+                                             .withProgram(Program.MEDIUM)
+                                             .withSpin(false)
+                                             .build();
+        List<LaundryItem> items = List.of(item(Material.COTTON, 2d, Program.MEDIUM), withoutSpin);
+
+        List<PlannedCycle> cycles = LoadPlanner.builder()
+                                               .build()
+                                               .plan(items);
+
+        assertEquals(2, cycles.size());
+        for (PlannedCycle cycle : cycles) {
+            for (LaundryItem item : cycle.getItems()) {
+                assertEquals(item.isSpin(), cycle.getProgramConfiguration()
+                                                 .isSpin());
+            }
+        }
+    }
+
+    @Test
+    void itemHeavierThanSingleCycleShouldBeRejected() {
+        List<LaundryItem> items = List.of(item(Material.JEANS, 4d, Program.MEDIUM));
+
+        assertThrows(IllegalArgumentException.class, () -> LoadPlanner.builder()
+                                                                      .build()
+                                                                      .plan(items));
+    }
+
+    private LaundryItem item(Material material, double weightKg, Program program) {
+        return LaundryItem.builder()
+                          .withMaterialType(material)
+                          .withWeightKg(weightKg)
+                          .withProgram(program)
+                          .build();
+    }
+}
@@ -0,0 +1,174 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class MachineBankPipelineTest {
+
+    private final AtomicInteger washing = new AtomicInteger();
+    private final AtomicInteger maxWashing = new AtomicInteger();
+
+    @Test
+    void drumsShouldWashConcurrentlyWhileSharingOnePump() throws Exception {
+        WaterPump pump = Mockito.mock(WaterPump.class);
+        List<Engine> drums = List.of(drum(), drum(), drum(), drum());
+        List<CompletableFuture<LaundryStatus>> results = new ArrayList<>();
+        PipelineReport report;
+        try (MachineBankPipeline pipeline = MachineBankPipeline.builder()
+                                                               .withPumps(List.of(pump))
+                                                               .withDrums(drums)
+                                                               .withExtractors(List.of(Mockito.mock(Engine.class)))
+                                                               .build()) {
+            for (int i = 0; i < 16; i++) {
+                results.add(pipeline.submit(batch(), ProgramConfiguration.of(Program.MEDIUM, i % 2 == 0)));
+            }
+            for (CompletableFuture<LaundryStatus> result : results) {
+                assertEquals(WashingMachine.programFinished(Program.MEDIUM), result.get(10, TimeUnit.SECONDS));
+            }
+            report = pipeline.report();
+        }
+
+        assertTrue(maxWashing.get() > 1, "washes never overlapped");
+        Mockito.verify(pump, Mockito.times(16))
+               .pour(3d);
+        Mockito.verify(pump, Mockito.times(16))
+               .release();
+        assertEquals(16, report.getStage(Stage.WASH)
+                               .getCompleted());
+        assertEquals(8, report.getStage(Stage.SPIN)
+                              .getCompleted());
+        assertEquals(MachineBankPipeline.Pool.DRUMS, report.getBottleneck());
+    }
+
+    @Test
+    void failedWashShouldStillReleaseWaterAndFreeTheDrum() throws Exception {
+        WaterPump pump = Mockito.mock(WaterPump.class);
+        Engine brokenDrum = Mockito.mock(Engine.class);
+        Mockito.doThrow(new EngineException())
+               .when(brokenDrum)
+               .runWashing(Program.SHORT.getTimeInMinutes());
+        try (MachineBankPipeline pipeline = MachineBankPipeline.builder()
+                                                               .withPumps(List.of(pump))
+                                                               .withDrums(List.of(brokenDrum))
+                                                               .withExtractors(List.of(Mockito.mock(Engine.class)))
+                                                               .build()) {
+            for (int i = 0; i < 3; i++) {
+                assertEquals(WashingMachine.error(ErrorCode.ENGINE_FAILURE, Program.SHORT),
+                        pipeline.submit(batch(), ProgramConfiguration.of(Program.SHORT, true))
+                                .get(10, TimeUnit.SECONDS));
+            }
+        }
+        Mockito.verify(pump, Mockito.times(3))
+               .release();
+    }
+
+    @Test
+    void closeShouldStopWaitingAfterTimeoutReleaseWashingDrumAndCancelQueuedBatches() throws Exception {
+        CountDownLatch washing = new CountDownLatch(1);
+        Engine hungDrum = Mockito.mock(Engine.class);
+        Mockito.doAnswer(invocation -> {
+            washing.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                      .interrupt();
+            }
+            return null;
+        })
+               .when(hungDrum)
+               .runWashing(Program.SHORT.getTimeInMinutes());
+        WaterPump pump = Mockito.mock(WaterPump.class);
+        List<CompletableFuture<LaundryStatus>> results = new ArrayList<>();
+        MachineBankPipeline pipeline = MachineBankPipeline.builder()
+                                                          .withPumps(List.of(pump))
+                                                          .withDrums(List.of(hungDrum))
+                                                          .withExtractors(List.of(Mockito.mock(Engine.class)))
+                                                          .withCloseTimeout(Duration.ofMillis(50))
+                                                          .build();
+        for (int i = 0; i < 3; i++) {
+            results.add(pipeline.submit(batch(), ProgramConfiguration.of(Program.SHORT, false)));
+        }
+        assertTrue(washing.await(10, TimeUnit.SECONDS));
+        pipeline.close();
+
+        for (CompletableFuture<LaundryStatus> result : results) {
+            assertEquals(ErrorCode.CANCELLED, result.getNow(null)
+                                                    .getErrorCode());
+        }
+        assertEquals(0, pipeline.inFlight());
+        Mockito.verify(pump)
+               .pour(3d);
+        Mockito.verify(pump)
+               .release();
+    }
+
+    @Test
+    void batchesSubmittedWhileClosingShouldBeRejectedOrCompleted() throws Exception {
+        MachineBankPipeline pipeline = MachineBankPipeline.builder()
+                                                          .withPumps(List.of(Mockito.mock(WaterPump.class)))
+                                                          .withDrums(List.of(Mockito.mock(Engine.class)))
+                                                          .withExtractors(List.of(Mockito.mock(Engine.class)))
+                                                          .build();
+        int submitters = 4;
+        CountDownLatch started = new CountDownLatch(submitters);
+        List<CompletableFuture<List<CompletableFuture<LaundryStatus>>>> submitting = new ArrayList<>();
+        for (int i = 0; i < submitters; i++) {
+            submitting.add(CompletableFuture.supplyAsync(() -> {
+                List<CompletableFuture<LaundryStatus>> accepted = new ArrayList<>();
+                started.countDown();
+                try {
+                    while (true) {
+                        accepted.add(pipeline.submit(batch(), ProgramConfiguration.of(Program.SHORT, true)));
+                    }
+                } catch (RejectedExecutionException e) {
+                    return accepted;
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+        }
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        pipeline.close();
+
+        for (CompletableFuture<List<CompletableFuture<LaundryStatus>>> submitter : submitting) {
+            for (CompletableFuture<LaundryStatus> result : submitter.get(10, TimeUnit.SECONDS)) {
+                assertTrue(result.isDone());
+            }
+        }
+        assertEquals(0, pipeline.inFlight());
+    }
+
+    private Engine drum() throws EngineException {
+        Engine drum = Mockito.mock(Engine.class);
+        Mockito.doAnswer(invocation -> {
+            maxWashing.accumulateAndGet(washing.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            washing.decrementAndGet();
+            return null;
+        })
+               .when(drum)
+               .runWashing(Program.MEDIUM.getTimeInMinutes());
+        return drum;
+    }
+
+    private static LaundryBatch batch() {
+        return LaundryBatch.builder()
+                           .withMaterialType(Material.COTTON)
+                           .withWeightKg(3d)
+                           .build();
+    }
+
+}
@@ -0,0 +1,113 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class ResourceAccountantTest {
+
+    private static final double DELTA = 1e-9d;
+
+    private final Engine engine = Mockito.mock(Engine.class);
+    private final WaterPump waterPump = Mockito.mock(WaterPump.class);
+    private final List<ResourceUsage> usages = new ArrayList<>();
+    private final ResourceAccountant accountant = ResourceAccountant.builder()
+                                                                    .withUsageListener(this::onUsage)
+                                                                    .build();
+
+    @Test
+    void successfulCycleShouldBeChargedForEveryStage() {
+        LaundryStatus status = machine("m1").start(batch(Material.COTTON, 4d), ProgramConfiguration.of(Program.MEDIUM, true));
+
+        assertEquals(Result.SUCCESS, status.getResult());
+        ResourceTotals totals = accountant.machineTotals("m1");
+        assertEquals(1, totals.getCycles());
+        assertEquals(0, totals.getFailedCycles());
+        assertEquals(39d, totals.getWaterLitres(), DELTA);
+        assertEquals(0.7d, totals.getEnergyKwh(), DELTA);
+        assertEquals(60, totals.getDurationMinutes());
+        assertEquals(List.of(ConsumptionModel.linear()
+                                             .estimate(Program.MEDIUM, Material.COTTON, 4d, true)),
+                usages);
+    }
+
+    @Test
+    void failedCycleShouldBeChargedOnlyForStagesItAttempted() throws Exception {
+        Mockito.doThrow(new EngineException())
+               .when(engine)
+               .runWashing(Program.MEDIUM.getTimeInMinutes());
+
+        LaundryStatus status = machine("m1").start(batch(Material.COTTON, 4d), ProgramConfiguration.of(Program.MEDIUM, true));
+
+        assertEquals(ErrorCode.ENGINE_FAILURE, status.getErrorCode());
+        ResourceTotals totals = accountant.machineTotals("m1");
+        assertEquals(0, totals.getCycles());
+        assertEquals(1, totals.getFailedCycles());
+        assertEquals(39d, totals.getWaterLitres(), DELTA);
+        assertEquals(0.6d, totals.getEnergyKwh(), DELTA);
+        assertEquals(50, totals.getDurationMinutes());
+    }
+
+    @Test
+    void failedPourShouldBeChargedForWaterOnly() throws Exception {
+        Mockito.doThrow(new WaterPumpException())
+               .when(waterPump)
+               .pour(4d);
+
+        machine("m1").start(batch(Material.COTTON, 4d), ProgramConfiguration.of(Program.LONG, false));
+
+        ResourceTotals totals = accountant.machineTotals("m1");
+        assertEquals(1, totals.getFailedCycles());
+        assertEquals(39d, totals.getWaterLitres(), DELTA);
+        assertEquals(0d, totals.getEnergyKwh(), DELTA);
+        assertEquals(0, totals.getDurationMinutes());
+    }
+
+    @Test
+    void tooHeavyBatchShouldNotCountAsCycle() {
+        LaundryStatus status = machine("m1").start(batch(Material.COTTON, 20d), ProgramConfiguration.of(Program.SHORT, false));
+
+        assertEquals(ErrorCode.TOO_HEAVY, status.getErrorCode());
+        ResourceTotals totals = accountant.machineTotals("m1");
+        assertEquals(0, totals.getCycles());
+        assertEquals(0, totals.getFailedCycles());
+        assertEquals(0d, totals.getWaterLitres(), DELTA);
+        assertEquals(List.of(), usages);
+    }
+
+    @Test
+    void fleetTotalsShouldSumMachines() {
+        machine("m1").start(batch(Material.COTTON, 4d), ProgramConfiguration.of(Program.MEDIUM, true));
+        machine("m2").start(batch(Material.COTTON, 4d), ProgramConfiguration.of(Program.MEDIUM, true));
+
+        ResourceTotals totals = accountant.fleetTotals();
+        assertEquals(2, totals.getCycles());
+        assertEquals(78d, totals.getWaterLitres(), DELTA);
+        assertEquals(120, totals.getDurationMinutes());
+    }
+
+    private void onUsage(String machineId, LaundryBatch laundryBatch, LaundryStatus status, ResourceUsage usage) {
+        usages.add(usage);
+    }
+
+    private WashingMachine machine(String machineId) {
+        return WashingMachine.builder()
+                             .withDirtDetector(Mockito.mock(DirtDetector.class))
+                             .withEngine(engine)
+                             .withWaterPump(waterPump)
+                             .withMetricsSink(accountant.meterFor(machineId))
+                             .build();
+    }
+
+    private static LaundryBatch batch(Material material, double weightKg) {
+        return LaundryBatch.builder()
+                           .withMaterialType(material)
+                           .withWeightKg(weightKg)
+                           .build();
+    }
+
+}
@@ -0,0 +1,71 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TariffCurveTest {
+
+    private static final double DELTA = 1e-9d;
+
+    private final TariffCurve nightTariff = TariffCurve.of(Map.of(0, 1.0d, 120, 0.25d, 360, 1.0d));
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void priceShouldRepeatEveryDay() {
+        assertEquals(0.25d, nightTariff.priceAt(120));
+        assertEquals(1.0d, nightTariff.priceAt(360));
+        assertEquals(0.25d, nightTariff.priceAt(TariffCurve.MINUTES_PER_DAY + 200L));
+        assertEquals(1.0d, nightTariff.priceAt(-1));
+        assertEquals(0.25d, nightTariff.priceAt(-TariffCurve.MINUTES_PER_DAY + 130L));
+    }
+
+    @Test
+    void costShouldSpreadEnergyEvenlyOverDuration() {
+        assertEquals(0.25d, nightTariff.cost(120, 60, 1.0d), DELTA);
+        assertEquals(0.625d, nightTariff.cost(90, 60, 1.0d), DELTA);
+        assertEquals(0.625d, nightTariff.cost(3 * TariffCurve.MINUTES_PER_DAY + 330L, 60, 1.0d), DELTA);
+        assertEquals(0.875d, nightTariff.cost(TariffCurve.MINUTES_PER_DAY - 30L, 2 * TariffCurve.MINUTES_PER_DAY, 1.0d),
+                DELTA);
+        assertEquals(0.5d, nightTariff.cost(200, 0, 2.0d), DELTA);
+        assertEquals(3.0d, TariffCurve.flat(1.5d)
+                                      .cost(17, 45, 2.0d),
+                DELTA);
+    }
+
+    @Test
+    void loadShouldParseStepsAndSkipComments() throws IOException {
+        Path file = directory.resolve("tariff.csv");
+        Files.write(file, List.of("# night tariff", "", "00:00,1.0", "02:00;0.25", "06:00 1.0"));
+
+        TariffCurve loaded = TariffCurve.load(file);
+
+        for (int minute = 0; minute < TariffCurve.MINUTES_PER_DAY; minute++) {
+            assertEquals(nightTariff.priceAt(minute), loaded.priceAt(minute));
+        }
+    }
+
+    @Test
+    void invalidStepsShouldBeRejected() throws IOException {
+        Path file = directory.resolve("tariff.csv");
+        Files.write(file, List.of("00:00,1.0", "25:00,0.5"));
+
+        assertThrows(IOException.class, () -> TariffCurve.load(file));
+        Files.write(file, List.of("00:00,1.0", "10:75,0.5"));
+        assertThrows(IOException.class, () -> TariffCurve.load(file));
+        assertThrows(IllegalArgumentException.class, () -> TariffCurve.of(Map.of(TariffCurve.MINUTES_PER_DAY, 1.0d)));
+        assertThrows(IllegalArgumentException.class, () -> TariffCurve.of(Map.of(0, -1.0d)));
+        assertThrows(IllegalArgumentException.class, () -> TariffCurve.of(Map.of()));
+    }
+
+}
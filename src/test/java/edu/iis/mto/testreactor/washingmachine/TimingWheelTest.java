@@ -0,0 +1,108 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTest {
+
+    private static final long TICK_NANOS = Duration.ofMillis(1)
+                                                   .toNanos();
+
+    private final AtomicLong now = new AtomicLong();
+    private final Map<Long, Long> firedAtTick = new ConcurrentHashMap<>();
+    private final Map<Long, CountDownLatch> fired = new TreeMap<>();
+
+    @Test
+    void timersOnEveryLevelAndOverflowShouldFireExactlyAtTheirTick() throws Exception {
+        long[] deadlines = {5, 100, 4_096, 5_000, 262_144, 300_000, 16_777_300, 20_000_000};
+        try (TimingWheel wheel = wheel()) {
+            for (long deadline : deadlines) {
+                schedule(wheel, deadline - 1);
+                schedule(wheel, deadline);
+            }
+            assertEquals(2 * deadlines.length, wheel.pendingCount());
+
+            for (long deadline : deadlines) {
+                advanceAndAwait(deadline - 1);
+                assertFalse(firedAtTick.containsKey(deadline), "fired before tick " + deadline);
+                advanceAndAwait(deadline);
+                assertEquals(deadline, firedAtTick.get(deadline));
+            }
+            assertEquals(0, wheel.pendingCount());
+            assertEquals(2 * deadlines.length, wheel.getExpiredCount());
+        }
+    }
+
+    @Test
+    void timerCancelledBeforeItCascadesShouldNeverFire() throws Exception {
+        try (TimingWheel wheel = wheel()) {
+            TimingWheel.Timeout cancelled = schedule(wheel, 5_000);
+            schedule(wheel, 6_000);
+
+            assertTrue(cancelled.cancel());
+            assertFalse(cancelled.cancel());
+            assertEquals(1, wheel.pendingCount());
+            advanceAndAwait(6_000);
+
+            assertTrue(cancelled.isCancelled());
+            assertFalse(firedAtTick.containsKey(5_000L));
+            assertEquals(1, wheel.getExpiredCount());
+        }
+    }
+
+    @Test
+    void timerScheduledLateShouldCountFromCurrentTick() throws Exception {
+        try (TimingWheel wheel = wheel()) {
+            schedule(wheel, 70_000);
+            advanceAndAwait(70_000);
+
+            TimingWheel.Timeout later = wheel.schedule(() -> firedAtTick.put(-1L, now.get() / TICK_NANOS), 4_100,
+                    TimeUnit.MILLISECONDS);
+            now.set(74_099 * TICK_NANOS);
+            Thread.sleep(20);
+            assertFalse(later.isExpired());
+            now.set(74_100 * TICK_NANOS);
+            long waitUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (!later.isExpired() && System.nanoTime() < waitUntil) {
+                Thread.sleep(1);
+            }
+
+            assertTrue(later.isExpired());
+            assertEquals(74_100L, firedAtTick.get(-1L));
+        }
+    }
+
+    private TimingWheel wheel() {
+        return TimingWheel.builder()
+                          .withTickDuration(Duration.ofNanos(TICK_NANOS))
+                          .withTicker(now::get)
+                          .build();
+    }
+
+    private TimingWheel.Timeout schedule(TimingWheel wheel, long deadlineTick) {
+        CountDownLatch latch = new CountDownLatch(1);
+        fired.put(deadlineTick, latch);
+        return wheel.schedule(() -> {
+            firedAtTick.put(deadlineTick, now.get() / TICK_NANOS);
+            latch.countDown();
+        }, deadlineTick * TICK_NANOS - now.get(), TimeUnit.NANOSECONDS);
+    }
+
+    private void advanceAndAwait(long tick) throws InterruptedException {
+        now.set(tick * TICK_NANOS);
+        assertTrue(fired.get(tick)
+                        .await(10, TimeUnit.SECONDS), "timer for tick " + tick + " did not fire");
+    }
+
+}
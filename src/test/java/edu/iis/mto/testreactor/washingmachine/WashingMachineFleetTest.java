@@ -0,0 +1,103 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class WashingMachineFleetTest {
+
+    private final CountDownLatch washing = new CountDownLatch(2);
+    private final CountDownLatch finishWashing = new CountDownLatch(1);
+    private final LaundryBatch laundryBatch = LaundryBatch.builder()
+                                                          .withMaterialType(Material.COTTON)
+                                                          .withWeightKg(4d)
+                                                          .build();
+    private final ProgramConfiguration programConfiguration = ProgramConfiguration.of(Program.SHORT, false);
+
+    @Test
+    void fleetShouldRejectCyclesBeyondMaxInFlight() throws Exception {
+        try (WashingMachineFleet fleet = WashingMachineFleet.builder()
+                                                            .withMaxInFlight(2)
+                                                            .build()) {
+            CompletableFuture<LaundryStatus> first = fleet.submit(blockingMachine(), laundryBatch, programConfiguration);
+            CompletableFuture<LaundryStatus> second = fleet.trySubmit(blockingMachine(), laundryBatch,
+                    programConfiguration);
+            assertTrue(washing.await(10, TimeUnit.SECONDS));
+
+            CompletableFuture<LaundryStatus> rejected = fleet.trySubmit(blockingMachine(), laundryBatch,
+                    programConfiguration);
+
+            assertEquals(2, fleet.inFlight());
+            ExecutionException failure = assertThrows(ExecutionException.class, rejected::get);
+            assertTrue(failure.getCause() instanceof RejectedExecutionException);
+            finishWashing.countDown();
+            assertEquals(Result.SUCCESS, first.get(10, TimeUnit.SECONDS)
+                                              .getResult());
+            assertEquals(Result.SUCCESS, second.get(10, TimeUnit.SECONDS)
+                                               .getResult());
+            assertEquals(Result.SUCCESS, fleet.submit(blockingMachine(), laundryBatch, programConfiguration)
+                                              .get(10, TimeUnit.SECONDS)
+                                              .getResult());
+        }
+    }
+
+    @Test
+    void closeShouldWaitForAdmittedCyclesAndRejectNewOnes() throws Exception {
+        WashingMachineFleet fleet = WashingMachineFleet.builder()
+                                                       .build();
+        CompletableFuture<LaundryStatus> running = fleet.submit(blockingMachine(), laundryBatch, programConfiguration);
+        CompletableFuture<Void> closed = CompletableFuture.runAsync(fleet::close);
+        while (!fleet.isShutdown()) {
+            Thread.onSpinWait();
+        }
+
+        assertThrows(RejectedExecutionException.class,
+                () -> fleet.trySubmit(blockingMachine(), laundryBatch, programConfiguration));
+        assertFalse(closed.isDone());
+        finishWashing.countDown();
+        closed.get(10, TimeUnit.SECONDS);
+        assertTrue(running.isDone());
+        assertEquals(0, fleet.inFlight());
+    }
+
+    @Test
+    void defaultMaxInFlightShouldBeLowerOnPlatformThreads() {
+        ExecutorService executor = Executors.newFixedThreadPool(1);
+        try (WashingMachineFleet fleet = WashingMachineFleet.builder()
+                                                            .build();
+                WashingMachineFleet custom = WashingMachineFleet.builder()
+                                                                .withExecutor(executor)
+                                                                .build()) {
+            assertEquals(WashingMachineFleet.hasVirtualThreads() ? WashingMachineFleet.DEFAULT_MAX_IN_FLIGHT
+                    : WashingMachineFleet.DEFAULT_PLATFORM_MAX_IN_FLIGHT, fleet.getMaxInFlight());
+            assertEquals(WashingMachineFleet.DEFAULT_MAX_IN_FLIGHT, custom.getMaxInFlight());
+        }
+        assertThrows(IllegalArgumentException.class, () -> WashingMachineFleet.builder()
+                                                                              .withMaxInFlight(-1)
+                                                                              .build());
+    }
+
+    private WashingMachine blockingMachine() throws EngineException {
+        Engine engine = Mockito.mock(Engine.class);
+        Mockito.doAnswer(invocation -> {
+            washing.countDown();
+            return finishWashing.await(10, TimeUnit.SECONDS);
+        })
+               .when(engine)
+               .runWashing(Program.SHORT.getTimeInMinutes());
+        return new WashingMachine(Mockito.mock(DirtDetector.class), engine, Mockito.mock(WaterPump.class));
+    }
+
+}
@@ -12,7 +12,11 @@ import org.mockito.Mockito;
 
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 @ExtendWith(MockitoExtension.class)
 class WashingMachineTest {
@@ -160,6 +164,275 @@ class WashingMachineTest {
                 .spin();
     }
 
+    @Test
+    void properBatchWithStaticProgramShouldReturnCanonicalStatus() {
+        LaundryStatus result = washingMashine.start(properLaundry, programConfiguration);
+        assertSame(LaundryStatus.of(Result.SUCCESS, staticProgram, ErrorCode.NO_ERROR), result);
+    }
+
+    @Test
+    void properBatchWithAutoDetectedProgramShouldUseConfiguredPolicyThresholds() {
+        DirtDetector dirtDetectorWithSmallDirt = laundryBatch -> new Percentage(20d);
+        ProgramPolicy programPolicy = ProgramPolicy.builder()
+                                                   .withShortBelow(unrelevant, 25d)
+                                                   .build();
+        washingMashine = WashingMachine.builder()
+                                       .withDirtDetector(dirtDetectorWithSmallDirt)
+                                       .withEngine(engine)
+                                       .withWaterPump(waterPump)
+                                       .withProgramPolicy(programPolicy)
+                                       .build();
+        LaundryStatus result = washingMashine.start(properLaundry, autoDetectedprogramConfiguration);
+        assertEquals(success(Program.SHORT), result);
+    }
+
+    @Test
+    void properBatchWithAutoDetectedProgramShouldRejectDegreeOutOfRange() {
+        DirtDetector brokenDirtDetector = new DirtDetector() {
+
+            @Override
+            public Percentage detectDirtDegree(LaundryBatch laundryBatch) {
+                return null;
+            }
+
+            @Override
+            public double detectDirtDegreeValue(LaundryBatch laundryBatch) {
+                return 120d;
+            }
+        };
+        washingMashine = new WashingMachine(brokenDirtDetector, engine, waterPump);
+        LaundryStatus result = washingMashine.start(properLaundry, autoDetectedprogramConfiguration);
+        assertEquals(LaundryStatus.of(Result.FAILURE, null, ErrorCode.UNKNOWN_ERROR), result);
+    }
+
+    @Test
+    void properBatchWithStaticProgramShouldRecordStageMetrics() throws EngineException {
+        Mockito.doThrow(new EngineException()).when(engine).spin();
+        CycleMetrics metrics = new CycleMetrics();
+        washingMashine = WashingMachine.builder()
+                                       .withDirtDetector(dirtDetector)
+                                       .withEngine(engine)
+                                       .withWaterPump(waterPump)
+                                       .withMetricsSink(metrics)
+                                       .build();
+        washingMashine.start(properLaundry, programConfiguration);
+
+        CycleMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(0, snapshot.getStageLatency(Stage.DETECT).getCount());
+        assertEquals(1, snapshot.getStageLatency(Stage.WASH).getCount());
+        assertEquals(1, snapshot.getStageFailures(Stage.SPIN));
+        assertEquals(1, snapshot.getErrorCodeCount(ErrorCode.ENGINE_FAILURE));
+        assertEquals(1, snapshot.getProgramCount(staticProgram));
+        assertEquals(1, snapshot.getMaterialCount(unrelevant));
+    }
+
+    @Test
+    void properBatchWithStaticProgramShouldReleaseWaterWhenRunWashingFails() throws WaterPumpException, EngineException {
+        Mockito.doThrow(new EngineException()).when(engine).runWashing(staticProgram.getTimeInMinutes());
+        LaundryStatus result = washingMashine.start(properLaundry, programConfiguration);
+        assertEquals(engineFailue(), result);
+
+        InOrder callOrder = Mockito.inOrder(waterPump, engine);
+        callOrder.verify(waterPump)
+                .pour(properWeightKg);
+        callOrder.verify(engine)
+                .runWashing(staticProgram.getTimeInMinutes());
+        callOrder.verify(waterPump)
+                .release();
+        Mockito.verify(engine, Mockito.never()).spin();
+    }
+
+    @Test
+    void resilientWaterPumpShouldRetryAndOpenBreaker() throws WaterPumpException {
+        Mockito.doThrow(new WaterPumpException()).when(waterPump).pour(properWeightKg);
+        CircuitBreaker circuitBreaker = CircuitBreaker.builder()
+                .withFailureThreshold(2)
+                .build();
+        ResilientWaterPump resilientWaterPump = ResilientWaterPump.builder()
+                .withDelegate(waterPump)
+                .withPourRetryPolicy(RetryPolicy.builder()
+                        .withMaxAttempts(2)
+                        .withInitialBackoff(Duration.ZERO)
+                        .withMaxBackoff(Duration.ZERO)
+                        .build())
+                .withCircuitBreaker(circuitBreaker)
+                .build();
+        washingMashine = new WashingMachine(dirtDetector, engine, resilientWaterPump);
+
+        assertEquals(waterPumpFailure(), washingMashine.start(properLaundry, programConfiguration));
+        assertEquals(waterPumpFailure(), washingMashine.start(properLaundry, programConfiguration));
+
+        Mockito.verify(waterPump, Mockito.times(2)).pour(properWeightKg);
+        assertEquals(1, resilientWaterPump.getPourRetryCount());
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertEquals(1, circuitBreaker.getRejectedCount());
+    }
+
+    @Test
+    void resilientWaterPumpShouldStillReleaseWhenPourBreakerIsOpen() throws WaterPumpException {
+        Mockito.doThrow(new WaterPumpException()).when(waterPump).pour(properWeightKg);
+        ResilientWaterPump resilientWaterPump = ResilientWaterPump.builder()
+                .withDelegate(waterPump)
+                .withCircuitBreaker(CircuitBreaker.builder()
+                        .withFailureThreshold(1)
+                        .build())
+                .build();
+
+        assertThrows(WaterPumpException.class, () -> resilientWaterPump.pour(properWeightKg));
+        assertThrows(WaterPumpException.class, () -> resilientWaterPump.pour(properWeightKg));
+        resilientWaterPump.release();
+
+        Mockito.verify(waterPump).pour(properWeightKg);
+        Mockito.verify(waterPump).release();
+        assertEquals(CircuitBreaker.State.OPEN, resilientWaterPump.getCircuitBreaker().getState());
+        assertEquals(CircuitBreaker.State.CLOSED, resilientWaterPump.getReleaseCircuitBreaker().getState());
+    }
+
+    @Test
+    void properBatchWithStaticProgramShouldTimeOutHungEngineAndReleaseWater() throws WaterPumpException, EngineException {
+        Mockito.doAnswer(invocation -> {
+            Thread.sleep(Duration.ofMinutes(1).toMillis());
+            return null;
+        }).when(engine).runWashing(staticProgram.getTimeInMinutes());
+        try (Watchdog watchdog = Watchdog.builder()
+                .withMinuteDuration(Duration.ofNanos(100_000))
+                .withSlack(Duration.ofMillis(20))
+                .build()) {
+            washingMashine = WashingMachine.builder()
+                                           .withDirtDetector(dirtDetector)
+                                           .withEngine(engine)
+                                           .withWaterPump(waterPump)
+                                           .withWatchdog(watchdog)
+                                           .build();
+            LaundryStatus result = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                    () -> washingMashine.start(properLaundry, programConfiguration));
+
+            assertEquals(LaundryStatus.of(Result.FAILURE, staticProgram, ErrorCode.TIMEOUT), result);
+            assertEquals(1, watchdog.getTimedOutCount());
+        }
+        Mockito.verify(waterPump).release();
+        Mockito.verify(engine, Mockito.never()).spin();
+    }
+
+    @Test
+    void properBatchWithStaticProgramShouldReleaseWaterAfterPourTimesOut() throws WaterPumpException {
+        Mockito.doAnswer(invocation -> {
+            Thread.sleep(Duration.ofMinutes(1).toMillis());
+            return null;
+        }).when(waterPump).pour(properWeightKg);
+        try (Watchdog watchdog = Watchdog.builder()
+                .withMinuteDuration(Duration.ofNanos(100_000))
+                .withStageTimeout(Duration.ofMillis(20))
+                .build()) {
+            washingMashine = WashingMachine.builder()
+                                           .withDirtDetector(dirtDetector)
+                                           .withEngine(engine)
+                                           .withWaterPump(waterPump)
+                                           .withWatchdog(watchdog)
+                                           .build();
+            LaundryStatus result = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                    () -> washingMashine.start(properLaundry, programConfiguration));
+
+            assertEquals(LaundryStatus.of(Result.FAILURE, staticProgram, ErrorCode.TIMEOUT), result);
+        }
+        Mockito.verify(waterPump).release();
+        Mockito.verifyNoInteractions(engine);
+    }
+
+    @Test
+    void secondStartShouldBeRejectedWhileCycleIsRunning() throws Exception {
+        CountDownLatch washing = new CountDownLatch(1);
+        CountDownLatch finishWashing = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            washing.countDown();
+            finishWashing.await();
+            return null;
+        }).when(engine).runWashing(staticProgram.getTimeInMinutes());
+
+        CompletableFuture<LaundryStatus> running = CompletableFuture.supplyAsync(
+                () -> washingMashine.start(properLaundry, programConfiguration));
+        assertTrue(washing.await(10, TimeUnit.SECONDS));
+        assertEquals(MachineState.WASHING, washingMashine.currentState());
+        assertEquals(LaundryStatus.of(Result.FAILURE, null, ErrorCode.MACHINE_BUSY),
+                washingMashine.start(properLaundry, programConfiguration));
+        finishWashing.countDown();
+
+        assertEquals(success(staticProgram), running.get(10, TimeUnit.SECONDS));
+        assertEquals(MachineState.IDLE, washingMashine.currentState());
+        Mockito.verify(waterPump).pour(properWeightKg);
+    }
+
+    @Test
+    void cancelShouldDrainWaterAndSkipRemainingStages() throws Exception {
+        CountDownLatch washing = new CountDownLatch(1);
+        CountDownLatch finishWashing = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            washing.countDown();
+            finishWashing.await();
+            return null;
+        }).when(engine).runWashing(staticProgram.getTimeInMinutes());
+        assertFalse(washingMashine.cancel());
+
+        CompletableFuture<LaundryStatus> running = CompletableFuture.supplyAsync(
+                () -> washingMashine.start(properLaundry, programConfiguration));
+        assertTrue(washing.await(10, TimeUnit.SECONDS));
+        assertTrue(washingMashine.cancel());
+        finishWashing.countDown();
+
+        assertEquals(LaundryStatus.of(Result.FAILURE, staticProgram, ErrorCode.CANCELLED), running.get(10, TimeUnit.SECONDS));
+        assertEquals(MachineState.IDLE, washingMashine.currentState());
+        Mockito.verify(waterPump).release();
+        Mockito.verify(engine, Mockito.never()).spin();
+    }
+
+    @Test
+    void startWhileCancelIsPendingShouldReturnMachineBusy() throws Exception {
+        CountDownLatch washing = new CountDownLatch(1);
+        CountDownLatch finishWashing = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            washing.countDown();
+            finishWashing.await();
+            return null;
+        }).when(engine).runWashing(staticProgram.getTimeInMinutes());
+
+        CompletableFuture<LaundryStatus> running = CompletableFuture.supplyAsync(
+                () -> washingMashine.start(properLaundry, programConfiguration));
+        assertTrue(washing.await(10, TimeUnit.SECONDS));
+        assertTrue(washingMashine.cancel());
+        assertEquals(MachineState.WASHING, washingMashine.currentState());
+        assertEquals(LaundryStatus.of(Result.FAILURE, null, ErrorCode.MACHINE_BUSY),
+                washingMashine.start(properLaundry, programConfiguration));
+        finishWashing.countDown();
+
+        assertEquals(LaundryStatus.of(Result.FAILURE, staticProgram, ErrorCode.CANCELLED), running.get(10, TimeUnit.SECONDS));
+        Mockito.verify(waterPump).pour(properWeightKg);
+    }
+
+    @Test
+    void overWeightBatchShouldNeverLeaveIdleNorReachStateListener() {
+        MachineStateListener stateListener = Mockito.mock(MachineStateListener.class);
+        washingMashine = WashingMachine.builder()
+                                       .withDirtDetector(dirtDetector)
+                                       .withEngine(engine)
+                                       .withWaterPump(waterPump)
+                                       .withStateListener(stateListener)
+                                       .build();
+
+        assertEquals(overWeight(), washingMashine.start(overWeightLaundryForSecondTypeMaterials, programConfiguration));
+        assertEquals(MachineState.IDLE, washingMashine.currentState());
+        Mockito.verifyNoInteractions(stateListener, waterPump, engine);
+    }
+
+    @Test
+    void failedCycleShouldLeaveMachineFailedUntilNextStart() throws WaterPumpException {
+        Mockito.doThrow(new WaterPumpException()).doNothing().when(waterPump).pour(properWeightKg);
+
+        assertEquals(waterPumpFailure(), washingMashine.start(properLaundry, programConfiguration));
+        assertEquals(MachineState.FAILED, washingMashine.currentState());
+        assertEquals(success(staticProgram), washingMashine.start(properLaundry, programConfiguration));
+        assertEquals(MachineState.IDLE, washingMashine.currentState());
+    }
+
     private ProgramConfiguration autoDetectProgramWithSpin(Program autoDetectProgram) {
         return ProgramConfiguration.builder().withProgram(autoDetectProgram).withSpin(true).build();
     }
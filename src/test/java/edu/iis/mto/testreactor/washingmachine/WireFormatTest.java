@@ -0,0 +1,151 @@
+package edu.iis.mto.testreactor.washingmachine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class WireFormatTest {
+
+    private static final int ROUNDS = 2_000;
+    private static final double[] SPECIAL_WEIGHTS = {0d, -0d, Double.NaN, Double.POSITIVE_INFINITY, Double.MIN_VALUE,
+            Double.MAX_VALUE, -1d};
+
+    private final Random random = new Random(18);
+
+    @Test
+    void singleRecordsShouldRoundTripInHeapAndDirectBuffers() {
+        for (int round = 0; round < ROUNDS; round++) {
+            ByteBuffer buffer = buffer(64);
+            int offset = random.nextInt(32);
+            LaundryBatch laundryBatch = randomBatch();
+            ProgramConfiguration programConfiguration = randomConfiguration();
+            LaundryStatus status = randomStatus();
+
+            assertEquals(WireFormat.LAUNDRY_BATCH_SIZE, WireFormat.encode(buffer, offset, laundryBatch));
+            assertEquals(laundryBatch, WireFormat.decodeLaundryBatch(buffer, offset));
+            assertEquals(WireFormat.PROGRAM_CONFIGURATION_SIZE, WireFormat.encode(buffer, offset, programConfiguration));
+            assertSame(ProgramConfiguration.of(programConfiguration.getProgram(), programConfiguration.isSpin()),
+                    WireFormat.decodeProgramConfiguration(buffer, offset));
+            assertEquals(WireFormat.LAUNDRY_STATUS_SIZE, WireFormat.encode(buffer, offset, status));
+            assertSame(LaundryStatus.of(status.getResult(), status.getRunnedProgram(), status.getErrorCode()),
+                    WireFormat.decodeLaundryStatus(buffer, offset));
+            assertEquals(0, buffer.position());
+        }
+    }
+
+    @Test
+    void framesShouldRoundTripMixedRecords() {
+        WireFrameWriter writer = new WireFrameWriter();
+        WireFrameReader reader = new WireFrameReader();
+        for (int round = 0; round < ROUNDS; round++) {
+            ByteBuffer buffer = buffer(2_048);
+            int offset = random.nextInt(64);
+            List<Object> written = new ArrayList<>();
+            writer.wrap(buffer, offset);
+            for (int i = random.nextInt(100); i > 0; i--) {
+                switch (random.nextInt(3)) {
+                    case 0:
+                        LaundryBatch laundryBatch = randomBatch();
+                        writer.write(laundryBatch);
+                        written.add(laundryBatch);
+                        break;
+                    case 1:
+                        ProgramConfiguration programConfiguration = randomConfiguration();
+                        writer.write(programConfiguration);
+                        written.add(programConfiguration);
+                        break;
+                    default:
+                        LaundryStatus status = randomStatus();
+                        writer.write(status);
+                        written.add(status);
+                }
+            }
+            int length = writer.finish();
+            assertEquals(length, WireFrameReader.frameLength(buffer, offset));
+
+            reader.wrap(buffer, offset);
+            for (Object expected : written) {
+                assertTrue(reader.next());
+                assertEquals(expected, read(reader));
+            }
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    void readerShouldRejectCorruptFrames() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        int length = new WireFrameWriter().wrap(buffer, 0)
+                                          .write(randomBatch())
+                                          .finish();
+        WireFrameReader reader = new WireFrameReader();
+
+        buffer.putInt(WireFormat.COUNT_OFFSET, 2);
+        reader.wrap(buffer, 0);
+        assertTrue(reader.next());
+        assertThrows(IllegalArgumentException.class, reader::next);
+
+        buffer.putInt(WireFormat.LENGTH_OFFSET, length + 64);
+        assertThrows(IndexOutOfBoundsException.class, () -> reader.wrap(buffer, 0));
+
+        buffer.putShort(WireFormat.MAGIC_OFFSET, (short) 0);
+        assertThrows(IllegalArgumentException.class, () -> reader.wrap(buffer, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> reader.wrap(ByteBuffer.allocate(64)
+                                            .order(ByteOrder.LITTLE_ENDIAN), 0));
+    }
+
+    private static Object read(WireFrameReader reader) {
+        switch (reader.type()) {
+            case WireFormat.TYPE_LAUNDRY_BATCH:
+                return reader.toLaundryBatch();
+            case WireFormat.TYPE_PROGRAM_CONFIGURATION:
+                return reader.toProgramConfiguration();
+            default:
+                return reader.toLaundryStatus();
+        }
+    }
+
+    private ByteBuffer buffer(int capacity) {
+        return random.nextBoolean() ? ByteBuffer.allocate(capacity) : ByteBuffer.allocateDirect(capacity);
+    }
+
+    private LaundryBatch randomBatch() {
+        double weightKg = random.nextInt(10) == 0 ? SPECIAL_WEIGHTS[random.nextInt(SPECIAL_WEIGHTS.length)]
+                : random.nextDouble() * 20d;
+        return LaundryBatch.builder()
+                           .withMaterialType(pick(Material.values()))
+                           .withWeightKg(weightKg)
+                           .build();
+    }
+
+    private ProgramConfiguration randomConfiguration() {
+        return ProgramConfiguration.builder()
+                                   .withProgram(pick(Program.values()))
+                                   .withSpin(random.nextBoolean())
+                                   .build();
+    }
+
+    private LaundryStatus randomStatus() {
+        return LaundryStatus.builder()
+                            .withResult(random.nextBoolean() ? pick(Result.values()) : null)
+                            .withRunnedProgram(random.nextBoolean() ? pick(Program.values()) : null)
+                            .withErrorCode(pick(ErrorCode.values()))
+                            .build();
+    }
+
+    private <T> T pick(T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+}